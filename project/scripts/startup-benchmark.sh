@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+# Measures cold start and first-request latency of the boot jar, default
+# configuration against the startup profile with and without the CDS archive
+# (and the AOT build when the jar was built with -Paot).
+#
+# Build first:  ./gradlew bootJar cdsArchive   (add -Paot for the AOT runs)
+# Then run:     scripts/startup-benchmark.sh [runs]
+#
+# MongoDB must be reachable at the configured spring.data.mongodb.uri. Each run
+# starts a fresh JVM, waits until the first request is answered and stops it;
+# the medians of the runs are printed.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-java}
+CDS_DIR=build/cds
+JAR=$(ls "$CDS_DIR"/project-*.jar 2>/dev/null | head -n 1 || true)
+if [[ -z "$JAR" ]]; then
+    echo "No extracted jar in $CDS_DIR, run ./gradlew bootJar cdsArchive first" >&2
+    exit 1
+fi
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# one run: prints "<ms until the first response> <first request ms> <startup ms reported by Spring>"
+run_once() {
+    local start pid code first
+    start=$(now_ms)
+    (cd "$CDS_DIR" && exec "$JAVA" "$@" -jar "$(basename "$JAR")" --server.port="$PORT") >"$LOG" 2>&1 &
+    pid=$!
+    while true; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited, see the log:" >&2
+            cat "$LOG" >&2
+            exit 1
+        fi
+        # the first request is a login with unknown credentials: it crosses the
+        # security filters, the controller and a user lookup in MongoDB
+        if first=$(curl -s -o /dev/null -w '%{http_code} %{time_total}' --connect-timeout 1 \
+                -H 'Content-Type: application/json' -d '{"email":"nobody@example.com","password":"x"}' \
+                "http://localhost:$PORT/api/auth/login"); then
+            code=${first%% *}
+            if [[ "$code" != "000" ]]; then
+                break
+            fi
+        fi
+        sleep 0.05
+    done
+    local ready=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    local reported
+    reported=$(sed -n 's/.*Started ProjectApplication in \([0-9.]*\) seconds.*/\1/p' "$LOG" | head -n 1)
+    awk -v ready="$ready" -v request="${first##* }" -v reported="${reported:-0}" \
+        'BEGIN { printf "%d %.1f %.0f\n", ready, request * 1000, reported * 1000 }'
+}
+
+measure() {
+    local name=$1
+    shift
+    local results=()
+    run_once "$@" >/dev/null # warm the file system cache
+    for ((i = 0; i < RUNS; i++)); do
+        results+=("$(run_once "$@")")
+    done
+    printf '%-22s %10s %14s %12s\n' "$name" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $3 }' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)"
+}
+
+printf '%-22s %10s %14s %12s\n' "configuration" "started ms" "first resp ms" "request ms"
+measure "default"
+measure "startup profile" -Dspring.profiles.active=startup
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+    measure "startup profile + CDS" -XX:SharedArchiveFile=application.jsa -Dspring.profiles.active=startup
+fi
+if unzip -l "$JAR" 2>/dev/null | grep -q '__ApplicationContextInitializer'; then
+    measure "startup + CDS + AOT" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=startup
+fi
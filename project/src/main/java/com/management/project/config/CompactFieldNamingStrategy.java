@@ -0,0 +1,34 @@
+package com.management.project.config;
+
+import java.util.Map;
+
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.model.FieldNamingStrategy;
+import org.springframework.data.mapping.model.PropertyNameFieldNamingStrategy;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Field naming strategy that stores ProductInformation properties under short
+ * field names. Other entities keep their property names.
+ */
+public class CompactFieldNamingStrategy implements FieldNamingStrategy {
+
+    private static final Map<String, String> PRODUCT_FIELDS = Map.of(
+            "name", CompactStorageCodec.NAME,
+            "description", CompactStorageCodec.DESCRIPTION,
+            "price", CompactStorageCodec.PRICE,
+            "lastModified", CompactStorageCodec.LAST_MODIFIED,
+            "vendorId", CompactStorageCodec.VENDOR);
+
+    @Override
+    public String getFieldName(PersistentProperty<?> property) {
+        if (ProductInformation.class.equals(property.getOwner().getType())) {
+            String shortName = PRODUCT_FIELDS.get(property.getName());
+            if (shortName != null) {
+                return shortName;
+            }
+        }
+        return PropertyNameFieldNamingStrategy.INSTANCE.getFieldName(property);
+    }
+}
@@ -0,0 +1,85 @@
+package com.management.project.config;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+
+/**
+ * Encoding helpers for the compact product storage layout.
+ */
+public final class CompactStorageCodec {
+
+    public static final String NAME = "n";
+    public static final String DESCRIPTION = "d";
+    public static final String PRICE = "p";
+    public static final String LAST_MODIFIED = "m";
+    public static final String VENDOR = "v";
+
+    private static final double MINOR_UNITS = 100.0;
+
+    private CompactStorageCodec() {
+    }
+
+    /**
+     * Encodes a UUID string id as a 16 byte binary value. Ids that are not UUIDs
+     * in their canonical lower case form are stored unchanged, since they would
+     * not decode to the same string.
+     *
+     * @param id the product id
+     * @return the stored form of the id
+     */
+    public static Object encodeId(String id) {
+        if (id == null) {
+            return null;
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return id;
+        }
+        if (!uuid.toString().equals(id)) {
+            return id;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        return new Binary(BsonBinarySubType.UUID_STANDARD, buffer.array());
+    }
+
+    /**
+     * Decodes a stored id back to its string form.
+     *
+     * @param stored the stored id
+     * @return the product id
+     */
+    public static String decodeId(Object stored) {
+        if (stored instanceof Binary binary && binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()) {
+            ByteBuffer buffer = ByteBuffer.wrap(binary.getData());
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+        return stored == null ? null : stored.toString();
+    }
+
+    /**
+     * Converts a price to integer minor units.
+     *
+     * @param price the price
+     * @return the price in minor units
+     */
+    public static long toMinorUnits(double price) {
+        return Math.round(price * MINOR_UNITS);
+    }
+
+    /**
+     * Converts integer minor units back to a price.
+     *
+     * @param minorUnits the price in minor units
+     * @return the price
+     */
+    public static double fromMinorUnits(long minorUnits) {
+        return minorUnits / MINOR_UNITS;
+    }
+}
@@ -0,0 +1,79 @@
+package com.management.project.config;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Opt-in compact persistence mapping for ProductInformation. Enabled with the
+ * {@code compact} profile: prices are stored as integer minor units, fields use
+ * short names (see {@link CompactFieldNamingStrategy}) and UUID ids are stored
+ * as binary values. The JSON shape of the API is unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.storage.compact", havingValue = "true")
+public class CompactStorageConfiguration {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter -> {
+            adapter.registerConverters(List.of(BinaryToStringConverter.INSTANCE));
+            adapter.configurePropertyConversions(registrar -> registrar
+                    .registerConverter(ProductInformation.class, "price", new PriceConverter()));
+        });
+    }
+
+    @Bean
+    public BeforeSaveCallback<ProductInformation> compactProductIdCallback() {
+        return (product, document, collection) -> {
+            encodeId(document);
+            return product;
+        };
+    }
+
+    private static void encodeId(Document document) {
+        Object id = document.get("_id");
+        if (id instanceof String value) {
+            document.put("_id", CompactStorageCodec.encodeId(value));
+        }
+    }
+
+    /**
+     * Stores prices as integer minor units. Also applied to query values, so
+     * price range queries keep working against the compact field.
+     */
+    static class PriceConverter implements MongoValueConverter<Double, Number> {
+
+        @Override
+        public Double read(Number value, MongoConversionContext context) {
+            return CompactStorageCodec.fromMinorUnits(value.longValue());
+        }
+
+        @Override
+        public Number write(Double value, MongoConversionContext context) {
+            return CompactStorageCodec.toMinorUnits(value);
+        }
+    }
+
+    @ReadingConverter
+    enum BinaryToStringConverter implements Converter<Binary, String> {
+        INSTANCE;
+
+        @Override
+        public String convert(Binary source) {
+            return CompactStorageCodec.decodeId(source);
+        }
+    }
+}
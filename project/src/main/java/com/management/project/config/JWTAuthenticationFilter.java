@@ -13,8 +13,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.management.project.service.JwtService;
+import com.management.project.service.TokenRevocationService;
 import com.management.project.service.UserService;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,9 +30,13 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserService userService;
 
-    public JWTAuthenticationFilter(JwtService jwtService, UserService userService) {
+    private final TokenRevocationService tokenRevocationService;
+
+    public JWTAuthenticationFilter(JwtService jwtService, UserService userService,
+            TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @SuppressWarnings("null")
@@ -46,8 +53,11 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        if (StringUtils.isNotEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
+        final Claims claims = jwtService.extractAllClaims(jwt);
+        userEmail = claims.getSubject();
+        if (StringUtils.isNotEmpty(userEmail) && !JwtService.isRefreshToken(claims)
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims)) {
             UserDetails userDetails = userService.userDetailsService().loadUserByUsername(userEmail);
 
             if (jwtService.isTokenValis(jwt, userDetails)) {
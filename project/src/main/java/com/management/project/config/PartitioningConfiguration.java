@@ -0,0 +1,80 @@
+package com.management.project.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.PartitionedProductRepository;
+import com.management.project.repository.ProductRepository;
+import com.management.project.repository.ProductRepositoryImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in partitioning of products over several databases, enabled with
+ * {@code product.partitions.enabled=true}. {@code product.partitions.uris}
+ * lists one connection string per partition, naming its database; the order
+ * must not change once products are stored. The partitioned repository
+ * replaces the default one wherever a {@link ProductRepository} is injected.
+ * Each partition gets the main database's indexes, unless
+ * {@code spring.data.mongodb.auto-index-creation} is off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.partitions.enabled", havingValue = "true")
+public class PartitioningConfiguration {
+
+    private final List<SimpleMongoClientDatabaseFactory> connections = new ArrayList<>();
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public PartitionedProductRepository partitionedProductRepository(MongoTemplate mongoTemplate,
+            ApplicationContext applicationContext, MeterRegistry meterRegistry,
+            @Value("${product.partitions.uris}") String[] uris,
+            @Value("${product.partitions.timeout:2s}") Duration timeout,
+            @Value("${product.partitions.threads:16}") int threads,
+            @Value("${product.storage.compact:false}") boolean compact,
+            @Value("${spring.data.mongodb.auto-index-creation:false}") boolean autoIndexCreation) {
+        List<ProductRepository> partitions = new ArrayList<>(uris.length);
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+                (MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+        for (String uri : uris) {
+            SimpleMongoClientDatabaseFactory connection = new SimpleMongoClientDatabaseFactory(uri.trim());
+            connections.add(connection);
+            MongoTemplate partition = new MongoTemplate(connection, mongoTemplate.getConverter());
+            // save callbacks such as the compact id encoding, and the indexes the main database gets
+            partition.setApplicationContext(applicationContext);
+            if (autoIndexCreation) {
+                IndexOperations indexes = partition.indexOps(ProductInformation.class);
+                indexResolver.resolveIndexFor(ProductInformation.class).forEach(indexes::ensureIndex);
+                new ProductVendorIndexes(partition).ensureIndexes();
+            }
+            partitions.add(new MongoRepositoryFactory(partition).getRepository(ProductRepository.class,
+                    RepositoryFragments.just(new ProductRepositoryImpl(partition, compact))));
+        }
+        return new PartitionedProductRepository(partitions, timeout, threads, meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (SimpleMongoClientDatabaseFactory connection : connections) {
+            connection.destroy();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.management.project.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Creates the compound indexes behind vendor-scoped queries. Each leads with
+ * the vendor, so a vendor's listing or search only walks that vendor's keys
+ * however large the rest of the catalog is. They are created here rather than
+ * with {@code @CompoundIndex} so the keys go through the field mapping and
+ * match the compact layout too. Like the mapped indexes, they are only created
+ * at startup when {@code spring.data.mongodb.auto-index-creation} is on.
+ */
+@Component
+public class ProductVendorIndexes {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final boolean autoIndexCreation;
+
+    @Autowired
+    public ProductVendorIndexes(MongoTemplate mongoTemplate,
+            @Value("${spring.data.mongodb.auto-index-creation:false}") boolean autoIndexCreation) {
+        this.mongoTemplate = mongoTemplate;
+        this.autoIndexCreation = autoIndexCreation;
+    }
+
+    public ProductVendorIndexes(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (autoIndexCreation) {
+            ensureIndexes();
+        }
+    }
+
+    public void ensureIndexes() {
+        IndexOperations indexes = mongoTemplate.indexOps(ProductInformation.class);
+        indexes.ensureIndex(new Index().on("vendorId", Sort.Direction.ASC).on("name", Sort.Direction.ASC)
+                .named("vendor_name"));
+        indexes.ensureIndex(new Index().on("vendorId", Sort.Direction.ASC).on("price", Sort.Direction.ASC)
+                .named("vendor_price"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.management.project.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limit settings. Routes are matched on the exact request path, e.g.
+ * {@code rate-limit.routes[/api/product/search/name].capacity=20}.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Limit defaultLimit;
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Limit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(Limit defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Returns the limit for a route, or the default limit if the route has none.
+     *
+     * @param route the request path
+     * @return the limit, or null if the route is not limited
+     */
+    public Limit limitFor(String route) {
+        Limit limit = routes.get(route);
+        return limit != null ? limit : defaultLimit;
+    }
+
+    /**
+     * Checks every configured limit, so a bad setting fails at startup rather
+     * than on the first request to its route.
+     *
+     * @throws IllegalArgumentException if a limit is invalid
+     */
+    public void validate() {
+        if (defaultLimit != null) {
+            defaultLimit.validate("rate-limit.default-limit");
+        }
+        for (Map.Entry<String, Limit> route : routes.entrySet()) {
+            route.getValue().validate("rate-limit.routes[" + route.getKey() + "]");
+        }
+    }
+
+    public static class Limit {
+
+        private int capacity;
+
+        private double refillPerSecond;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        void validate(String name) {
+            try {
+                new TokenBucket(capacity, refillPerSecond, 0);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
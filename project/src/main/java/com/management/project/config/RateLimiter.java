@@ -0,0 +1,64 @@
+package com.management.project.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one token bucket per subject and route.
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        properties.validate();
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token for the subject on the given route.
+     *
+     * @param subject the JWT subject, or the client address for anonymous calls
+     * @param route   the request path
+     * @return 0 if the request is allowed, otherwise the nanoseconds to wait
+     */
+    public long tryAcquire(String subject, String route) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        RateLimitProperties.Limit limit = properties.limitFor(route);
+        if (limit == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        String key = subject + ' ' + route;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
@@ -0,0 +1,73 @@
+package com.management.project.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import com.management.project.repository.ProductRepository;
+import com.management.project.repository.ProductRepositoryImpl;
+import com.management.project.service.ProductReadRouting;
+import com.mongodb.ReadPreference;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in routing of product searches and listings to replicas, enabled with
+ * {@code product.read-routing.enabled=true}. Replica reads use
+ * {@code secondaryPreferred} with a max staleness, on the main connection or
+ * on {@code product.read-routing.uri}, for example analytics nodes. MongoDB
+ * does not accept a max staleness below 90 seconds.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.read-routing.enabled", havingValue = "true")
+public class ReadRoutingConfiguration {
+
+    // the connection to read-routing.uri, owned here since it is not a bean
+    private SimpleMongoClientDatabaseFactory replicaConnection;
+
+    @Bean
+    public ProductReadRouting productReadRouting(ProductRepository productRepository, MongoTemplate mongoTemplate,
+            MongoDatabaseFactory mongoDatabaseFactory, MeterRegistry meterRegistry,
+            @Value("${product.read-routing.uri:}") String uri,
+            @Value("${product.read-routing.max-staleness:90s}") Duration maxStaleness,
+            @Value("${product.read-routing.max-callers:10000}") int maxCallers,
+            @Value("${product.storage.compact:false}") boolean compact) {
+        MongoDatabaseFactory replicaFactory = mongoDatabaseFactory;
+        if (!uri.isBlank()) {
+            replicaConnection = new SimpleMongoClientDatabaseFactory(uri);
+            replicaFactory = replicaConnection;
+        }
+        MongoTemplate replicaTemplate = new MongoTemplate(replicaFactory, mongoTemplate.getConverter());
+        replicaTemplate.setReadPreference(
+                ReadPreference.secondaryPreferred(maxStaleness.toSeconds(), TimeUnit.SECONDS));
+        ProductRepository replica = new MongoRepositoryFactory(replicaTemplate).getRepository(ProductRepository.class,
+                RepositoryFragments.just(new ProductRepositoryImpl(replicaTemplate, compact)));
+
+        ProductReadRouting routing = new ProductReadRouting(productRepository, replica, maxStaleness, maxCallers,
+                Clock.systemUTC());
+        FunctionCounter.builder("product.read-routing.reads", routing, ProductReadRouting::primaryReads)
+                .tag("target", "primary").register(meterRegistry);
+        FunctionCounter.builder("product.read-routing.reads", routing, ProductReadRouting::replicaReads)
+                .tag("target", "replica").register(meterRegistry);
+        return routing;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (replicaConnection != null) {
+            replicaConnection.destroy();
+        }
+    }
+}
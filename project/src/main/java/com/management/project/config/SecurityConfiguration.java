@@ -1,6 +1,7 @@
 package com.management.project.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,9 +29,16 @@ public class SecurityConfiguration {
 
     private final UserService userService;
 
-    public SecurityConfiguration(JWTAuthenticationFilter jwtAuthenticationFilter, UserService userService) {
+    private final RateLimiter rateLimiter;
+
+    private final int bcryptStrength;
+
+    public SecurityConfiguration(JWTAuthenticationFilter jwtAuthenticationFilter, UserService userService,
+            RateLimiter rateLimiter, @Value("${auth.bcrypt.strength:10}") int bcryptStrength) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userService = userService;
+        this.rateLimiter = rateLimiter;
+        this.bcryptStrength = bcryptStrength;
     }
 
     @SuppressWarnings({ "deprecation", "removal" })
@@ -38,11 +46,16 @@ public class SecurityConfiguration {
     public SecurityFilterChain securityFilterChain(HttpSecurity http ) throws Exception {
         http.csrf().disable()
         .authorizeRequests(requests -> requests.requestMatchers("/api/auth/**").permitAll()
+         .requestMatchers("/api/admin/**").hasAuthority(Role.ADMIN.name())
+         // catalog-wide feeds and aggregates, not scoped to a vendor
+         .requestMatchers("/api/product/changes", "/api/product/changes/**", "/api/product/stats",
+                 "/api/product/suggest").hasAuthority(Role.ADMIN.name())
          .requestMatchers("/api/product/**").hasAnyAuthority(Role.ADMIN.name(), Role.VENDOR.name())
         .anyRequest().authenticated())
 
         .sessionManagement(manager-> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-        .authenticationProvider(authenticationProvider()).addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        .authenticationProvider(authenticationProvider()).addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterAfter(new RateLimitFilter(rateLimiter), JWTAuthenticationFilter.class);
         return http.build();
     }
 
@@ -57,7 +70,7 @@ public class SecurityConfiguration {
 
     @Bean
     public PasswordEncoder setPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -0,0 +1,32 @@
+package com.management.project.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.management.project.search.ProductIndex;
+
+/**
+ * Keeps beans that work on their own eager when the {@code startup} profile
+ * turns on lazy initialization. A lazy {@code @Scheduled} bean would never be
+ * scheduled, and the product indexes have to be listening before the first
+ * write so the loader can fill them when the application is ready.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (ProductIndex.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method -> AnnotatedElementUtils.hasAnnotation(method,
+                        Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package com.management.project.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The state is a single theoretical arrival time, so a
+ * request costs one read and at most a few compare-and-set attempts.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity        the most tokens the bucket holds
+     * @param refillPerSecond the tokens added per second
+     * @param nowNanos        the current {@link System#nanoTime()}
+     * @throws IllegalArgumentException if the capacity or the refill rate is not positive, or the time to
+     *                                  refill the bucket does not fit in a long
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        if (!(refillPerSecond > 0) || refillPerSecond > 1_000_000_000L) {
+            throw new IllegalArgumentException("Refill must be positive and at most one token per nanosecond, was "
+                    + refillPerSecond);
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        try {
+            // also leaves room for adding an interval to a time within the burst
+            this.burstNanos = Math.multiplyExact(emissionIntervalNanos, (long) capacity + 1) - emissionIntervalNanos;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("A capacity of " + capacity + " at " + refillPerSecond
+                    + " per second takes too long to refill");
+        }
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle once it has refilled completely and has not been used for
+     * the given time. Dropping it then loses no state.
+     *
+     * @param nowNanos    the current {@link System#nanoTime()}
+     * @param idleNanos   how long a full bucket may stay unused
+     * @return true if the bucket can be evicted
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < nowNanos;
+    }
+}
@@ -0,0 +1,35 @@
+package com.management.project.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ProductNotFoundException;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.exception.StoreUnavailableException;
+
+/**
+ * Maps the exceptions that controllers let through to responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    public ResponseEntity<?> notFound(ProductNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(BadRequest.class)
+    public ResponseEntity<?> badRequest(BadRequest e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler({ ServiceUnavailable.class, StoreUnavailableException.class })
+    public ResponseEntity<?> serviceUnavailable(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
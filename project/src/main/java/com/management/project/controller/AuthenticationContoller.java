@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,6 +14,8 @@ import com.management.project.dto.RefreshTokenRequest;
 import com.management.project.dto.SignInRequest;
 import com.management.project.dto.SignUpRequest;
 import com.management.project.entity.User;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
 import com.management.project.exception.UserNotFoundException;
 import com.management.project.service.AuthenticationService;
 
@@ -26,7 +29,7 @@ public class AuthenticationContoller {
     private AuthenticationService userService;
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signUp(@RequestBody SignUpRequest request)  {
+    public ResponseEntity<?> signUp(@RequestBody SignUpRequest request) throws ServiceUnavailable  {
        User user= userService.registerUser(request);
          if(user==null){
               return new ResponseEntity<>("User already exists", HttpStatus.BAD_REQUEST);
@@ -35,7 +38,7 @@ public class AuthenticationContoller {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody SignInRequest user) throws UserNotFoundException {
+    public ResponseEntity<?> login(@RequestBody SignInRequest user) throws UserNotFoundException, ServiceUnavailable {
         return new ResponseEntity<>(userService.loginInUser(user), HttpStatus.OK);
     }
 
@@ -43,5 +46,14 @@ public class AuthenticationContoller {
     public ResponseEntity<?> refreshToken(@RequestBody  RefreshTokenRequest refreshToken) {
         return new ResponseEntity<>(userService.refreshToken(refreshToken), HttpStatus.OK);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshTokenRequest token,
+            @RequestHeader(value = "Authorization", required = false) String authorization) throws BadRequest {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        userService.logout(token, accessToken);
+        return new ResponseEntity<>("Token revoked", HttpStatus.OK);
+    }
     
 }
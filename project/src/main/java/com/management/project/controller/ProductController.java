@@ -1,24 +1,45 @@
 package com.management.project.controller;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.management.project.dto.PriceHistogram;
 import com.management.project.entity.ProductInformation;
 import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.service.IdempotencyService;
+import com.management.project.service.PriceHistoryService;
+import com.management.project.service.ProductChangeFeed;
+import com.management.project.service.ProductFacetService;
+import com.management.project.service.ProductImportService;
+import com.management.project.service.ProductSearchService;
+import com.management.project.service.ProductSyncService;
 import com.management.project.service.ProductService;
 
 /**
- * REST controller for managing product information.
+ * REST controller for managing product information. Failures are thrown and
+ * mapped to responses by {@link ApiExceptionHandler}.
  */
 @RestController
 @RequestMapping("/api/product")
@@ -27,6 +48,27 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductFacetService facetService;
+
+    @Autowired
+    private ProductSearchService searchService;
+
+    @Autowired
+    private ProductChangeFeed changeFeed;
+
+    @Autowired
+    private ProductSyncService syncService;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
     /**
      * Retrieves a list of all products.
      *
@@ -34,15 +76,11 @@ public class ProductController {
      */
     @GetMapping("/products")
     public ResponseEntity<?> getAllProducts() {
-        try {
-            List<ProductInformation> product = service.getAllProducts();
-            if (product.isEmpty()) {
-                return ResponseEntity.noContent().build();
-            }
-            return ResponseEntity.ok().body(product);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+        List<ProductInformation> product = service.getAllProducts();
+        if (product.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
+        return ResponseEntity.ok().body(product);
     }
 
     /**
@@ -53,37 +91,59 @@ public class ProductController {
      */
     @GetMapping("/product")
     public ResponseEntity<?> getProductById(@RequestParam String productId) {
-        try {
-            ProductInformation product = service.getProductById(productId).get();
-            if (product == null) {
-                return ResponseEntity.noContent().build();
-            }
-            return ResponseEntity.ok().body(product);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
-
+        // a miss is the common case under scanner traffic, so it is answered without an exception
+        return service.getProductById(productId).<ResponseEntity<?>>map(product -> ResponseEntity.ok().body(product))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Product not found with ID: " + productId));
     }
 
     /**
      * Adds a new product.
      *
-     * @param product the product to be added
+     * @param product        the product to be added
+     * @param idempotencyKey optional key; a retry with the same key returns the first response
      * @return the added ProductInformation object
-     * @throws BadRequest if the product details are invalid
+     * @throws BadRequest         if the product details are invalid
+     * @throws ServiceUnavailable if the product cannot be written now
      */
     @PostMapping("/add")
-    public ResponseEntity<?> addProduct(@RequestBody @Validated ProductInformation request) {
-        try {
+    public ResponseEntity<?> addProduct(@RequestBody @Validated ProductInformation request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey)
+            throws BadRequest, ServiceUnavailable {
+        // the id is generated on every deserialization, so a retry is recognized by the details only
+        Object fingerprint = Arrays.asList(request.getName(), request.getDescription(), request.getPrice());
+        return idempotencyService.execute(idempotencyKey, "add", fingerprint, () -> {
             if (service.validateProduct(request)) {
-                return ResponseEntity.badRequest().body("Product details are missing or invalid");
+                throw new BadRequest("Product details are missing or invalid");
             }
-            ProductInformation product = service.addProduct(request);
-            return ResponseEntity.ok().body(product);
-        } catch (BadRequest e) {
-            return ResponseEntity.ok().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return ResponseEntity.ok().body(service.addProduct(request));
+        });
+    }
+
+    /**
+     * Imports products from a CSV file sent as the request body. The first row
+     * names the columns: name, description, price and optionally id. The
+     * response streams one JSON line per rejected row, then a summary line.
+     *
+     * @param request  the request carrying the CSV
+     * @param response the response the report is streamed to
+     * @return nothing, the report is written to the response
+     * @throws BadRequest         if the header is invalid or the upload cannot be read
+     * @throws ServiceUnavailable if too many imports are running
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importProducts(HttpServletRequest request, HttpServletResponse response)
+            throws BadRequest, ServiceUnavailable {
+        try (ProductImportService.CsvImport csvImport = importService.open(request.getInputStream())) {
+            response.setContentType("application/x-ndjson");
+            csvImport.run(response.getOutputStream());
+            return null;
+        } catch (IOException e) {
+            // once the report has started its status is sent, the client sees the report end early
+            if (response.isCommitted()) {
+                return null;
+            }
+            throw new BadRequest(e.getMessage());
         }
     }
 
@@ -92,17 +152,20 @@ public class ProductController {
      *
      * @param productId      the ID of the product to be updated
      * @param productDetails the updated product details
+     * @param idempotencyKey optional key; a retry with the same key returns the first response
      * @return the updated ProductInformation object
+     * @throws BadRequest         if the product does not exist or the details are invalid
+     * @throws ServiceUnavailable if the store cannot be reached
      */
     @PostMapping("/update")
     public ResponseEntity<?> updateProduct(@RequestParam String productId,
-            @RequestBody ProductInformation productDetails) {
-        try {
-            ProductInformation productInformation = service.updateProduct(productId, productDetails);
-            return ResponseEntity.ok().body(productInformation);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+            @RequestBody ProductInformation productDetails,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey)
+            throws BadRequest, ServiceUnavailable {
+        Object fingerprint = Arrays.asList(productId, productDetails.getName(), productDetails.getDescription(),
+                productDetails.getPrice());
+        return idempotencyService.execute(idempotencyKey, "update", fingerprint,
+                () -> ResponseEntity.ok().body(service.updateProduct(productId, productDetails)));
     }
 
     /**
@@ -110,35 +173,32 @@ public class ProductController {
      *
      * @param productId the ID of the product to be deleted
      * @return a message indicating the result of the operation
+     * @throws BadRequest if the product does not exist or cannot be deleted
      */
 
     @DeleteMapping("/delete")
-    public ResponseEntity<?> deleteProduct(@RequestParam String productId) {
-        try {
-            service.deleteProduct(productId);
-            return ResponseEntity.ok().body("Product deleted successfully");
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+    public ResponseEntity<?> deleteProduct(@RequestParam String productId) throws BadRequest {
+        service.deleteProduct(productId);
+        return ResponseEntity.ok().body("Product deleted successfully");
     }
 
     /**
      * Searches products by name.
      *
-     * @param name the name of the product
+     * @param name  the name of the product
+     * @param sort  the sort, e.g. {@code price,desc}
+     * @param limit the maximum number of results
      * @return a list of matching ProductInformation objects
+     * @throws BadRequest if the sort or limit is invalid or the search fails
      */
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchByName(@RequestParam String name) {
-        try {
-            List<ProductInformation> result = service.searchByName(name);
-            if (result.isEmpty()) {
-                return ResponseEntity.noContent().build();
-            }
-            return ResponseEntity.ok().body(result);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+    public ResponseEntity<?> searchByName(@RequestParam String name, @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) throws BadRequest {
+        List<ProductInformation> result = service.searchByName(name, service.resultPage(sort, limit));
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
+        return ResponseEntity.ok().body(result);
     }
 
     /**
@@ -146,19 +206,21 @@ public class ProductController {
      *
      * @param minPrice the minimum price
      * @param maxPrice the maximum price
+     * @param sort     the sort, e.g. {@code price,desc}
+     * @param limit    the maximum number of results
      * @return a list of matching ProductInformation objects
+     * @throws BadRequest if the sort or limit is invalid or the search fails
      */
     @GetMapping("/search/price")
-    public ResponseEntity<?> searchByPriceRange(@RequestParam double minPrice, @RequestParam double maxPrice) {
-        try {
-            List<ProductInformation> result = service.searchByPriceRange(minPrice, maxPrice);
-            if (result.isEmpty()) {
-                return ResponseEntity.noContent().build();
-            }
-            return ResponseEntity.ok().body(result);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+    public ResponseEntity<?> searchByPriceRange(@RequestParam double minPrice, @RequestParam double maxPrice,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) Integer limit)
+            throws BadRequest {
+        List<ProductInformation> result = service.searchByPriceRange(minPrice, maxPrice,
+                service.resultPage(sort, limit));
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
+        return ResponseEntity.ok().body(result);
     }
 
     /**
@@ -167,20 +229,151 @@ public class ProductController {
      * @param name     the name of the product
      * @param minPrice the minimum price
      * @param maxPrice the maximum price
+     * @param sort     the sort, e.g. {@code price,desc}
+     * @param limit    the maximum number of results
      * @return a list of matching ProductInformation objects
+     * @throws BadRequest if the sort or limit is invalid or the search fails
      */
     @GetMapping("/search")
     public ResponseEntity<?> searchByNameAndPrice(@RequestParam String name, @RequestParam double minPrice,
-            @RequestParam double maxPrice) {
-        try {
-            List<ProductInformation> result = service.searchByNameAndPrice(name, minPrice, maxPrice);
-            if (result.isEmpty()) {
-                return ResponseEntity.noContent().build();
-            }
-            return ResponseEntity.ok().body(result);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            @RequestParam double maxPrice, @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) throws BadRequest {
+        List<ProductInformation> result = service.searchByNameAndPrice(name, minPrice, maxPrice,
+                service.resultPage(sort, limit));
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().body(result);
+    }
+
+    /**
+     * Returns a price histogram for products matching an optional name filter.
+     *
+     * @param name     the name filter
+     * @param buckets  the number of buckets
+     * @param minPrice the lower bound of the histogram
+     * @param maxPrice the upper bound of the histogram
+     * @return the bucketed price counts
+     * @throws BadRequest if the buckets or bounds are invalid
+     */
+    @GetMapping("/facets/price")
+    public ResponseEntity<?> priceFacets(@RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "10") int buckets, @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice) throws BadRequest {
+        PriceHistogram histogram = facetService.priceHistogram(name, buckets, minPrice, maxPrice);
+        return ResponseEntity.ok().body(histogram);
+    }
+
+    /**
+     * Returns the products changed and deleted since a watermark, for mirrors of
+     * the catalog. Start without a watermark, then pass the returned one until
+     * {@code hasMore} is false.
+     *
+     * @param since the watermark returned by the previous call
+     * @param limit the maximum number of changes
+     * @return the changes and the next watermark
+     * @throws BadRequest if the watermark or the limit is invalid
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(@RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) throws BadRequest {
+        return ResponseEntity.ok().body(syncService.changesSince(since, limit));
+    }
+
+    /**
+     * Streams product changes as Server-Sent Events. A reconnecting client sends
+     * the id of the last event it received to pick up where it left off.
+     *
+     * @param lastEventId the Last-Event-ID header, sent by EventSource on reconnect
+     * @param since       the same, for clients that cannot set headers
+     * @return the event stream
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changeStream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String since) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * Returns the price changes of a product, oldest first.
+     *
+     * @param productId the ID of the product
+     * @param from      the start of the time range, ISO-8601
+     * @param to        the end of the time range, ISO-8601
+     * @param limit     the maximum number of changes
+     * @return the price changes made in the range
+     * @throws BadRequest if the range or the limit is invalid
+     */
+    @GetMapping("/price-history")
+    public ResponseEntity<?> priceHistory(@RequestParam String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) throws BadRequest {
+        return ResponseEntity.ok().body(priceHistoryService.history(productId, from, to, limit));
+    }
+
+    /**
+     * Returns price statistics of the whole catalog.
+     *
+     * @return the count, min, max, mean and percentile prices
+     * @throws ServiceUnavailable if the statistics are disabled or still loading
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> statistics() throws ServiceUnavailable {
+        return ResponseEntity.ok().body(facetService.statistics());
+    }
+
+    /**
+     * Suggests product names for a typed prefix.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of suggestions
+     * @return the suggested names, most common first
+     * @throws BadRequest         if the limit is invalid
+     * @throws ServiceUnavailable if suggestions are disabled or still loading
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit)
+            throws BadRequest, ServiceUnavailable {
+        return ResponseEntity.ok().body(searchService.suggest(prefix, limit));
+    }
+
+    /**
+     * Searches products by name, tolerating typos.
+     *
+     * @param name        the name as typed
+     * @param maxDistance the largest edit distance to accept
+     * @param limit       the maximum number of products
+     * @return the matching products, closest names first
+     * @throws BadRequest         if the limit or distance is invalid
+     * @throws ServiceUnavailable if fuzzy search is disabled or still loading
+     */
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<?> fuzzySearch(@RequestParam String name, @RequestParam(required = false) Integer maxDistance,
+            @RequestParam(defaultValue = "20") int limit) throws BadRequest, ServiceUnavailable {
+        List<ProductInformation> result = searchService.fuzzySearch(name, maxDistance, limit);
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
         }
+        return ResponseEntity.ok().body(result);
+    }
 
+    /**
+     * Ranked text search over product names and descriptions.
+     *
+     * @param query the query text
+     * @param limit the maximum number of products
+     * @return the matching products, best first
+     * @throws BadRequest         if the limit is invalid
+     * @throws ServiceUnavailable if text search is disabled or still loading
+     */
+    @GetMapping("/search/text")
+    public ResponseEntity<?> textSearch(@RequestParam String query, @RequestParam(defaultValue = "20") int limit)
+            throws BadRequest, ServiceUnavailable {
+        List<ProductInformation> result = searchService.textSearch(query, limit);
+        if (result.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().body(result);
     }
 }
@@ -0,0 +1,37 @@
+package com.management.project.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.management.project.service.ProductReadBreaker;
+
+/**
+ * Marks responses built from stale product data with {@code Warning: 110}.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ProductReadBreaker.STALE_ATTRIBUTE) != null) {
+            response.getHeaders().add("Warning", STALE_WARNING);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,39 @@
+package com.management.project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.management.project.exception.UserNotFoundException;
+import com.management.project.service.AuthenticationService;
+
+/**
+ * REST controller for administrative token operations.
+ */
+@RestController
+@RequestMapping("/api/admin/tokens")
+public class TokenAdminController {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    /**
+     * Revokes every token issued to a user so far.
+     *
+     * @param email the user's email
+     * @return a message indicating the result of the operation
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revokeUserTokens(@RequestParam String email) {
+        try {
+            authenticationService.revokeAllTokens(email);
+            return new ResponseEntity<>("Tokens revoked", HttpStatus.OK);
+        } catch (UserNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+}
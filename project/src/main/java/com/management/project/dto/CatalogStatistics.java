@@ -0,0 +1,82 @@
+package com.management.project.dto;
+
+import java.util.Map;
+
+
+public class CatalogStatistics {
+
+    private long count;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double meanPrice;
+    private Map<String, Double> percentiles;
+    private double relativeAccuracy;
+
+    public CatalogStatistics() {
+    }
+
+    public CatalogStatistics(long count, Double minPrice, Double maxPrice, Double meanPrice,
+            Map<String, Double> percentiles, double relativeAccuracy) {
+        this.count = count;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.meanPrice = meanPrice;
+        this.percentiles = percentiles;
+        this.relativeAccuracy = relativeAccuracy;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Double getMinPrice() {
+        return this.minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return this.maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMeanPrice() {
+        return this.meanPrice;
+    }
+
+    public void setMeanPrice(Double meanPrice) {
+        this.meanPrice = meanPrice;
+    }
+
+    public Map<String, Double> getPercentiles() {
+        return this.percentiles;
+    }
+
+    public void setPercentiles(Map<String, Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public double getRelativeAccuracy() {
+        return this.relativeAccuracy;
+    }
+
+    public void setRelativeAccuracy(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+    }
+
+    public String toString() {
+        return "CatalogStatistics(count=" + this.getCount() + ", minPrice=" + this.getMinPrice() + ", maxPrice="
+                + this.getMaxPrice() + ", meanPrice=" + this.getMeanPrice() + ", percentiles="
+                + this.getPercentiles() + ", relativeAccuracy=" + this.getRelativeAccuracy() + ")";
+    }
+
+}
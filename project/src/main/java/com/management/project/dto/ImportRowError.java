@@ -0,0 +1,37 @@
+package com.management.project.dto;
+
+
+public class ImportRowError {
+
+    private long line;
+    private String error;
+
+    public ImportRowError() {
+    }
+
+    public ImportRowError(long line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    public long getLine() {
+        return this.line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String toString() {
+        return "ImportRowError(line=" + this.getLine() + ", error=" + this.getError() + ")";
+    }
+
+}
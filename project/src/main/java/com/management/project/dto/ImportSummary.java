@@ -0,0 +1,48 @@
+package com.management.project.dto;
+
+
+public class ImportSummary {
+
+    private long rows;
+    private long imported;
+    private long failed;
+
+    public ImportSummary() {
+    }
+
+    public ImportSummary(long rows, long imported, long failed) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+    }
+
+    public long getRows() {
+        return this.rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return this.imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return this.failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public String toString() {
+        return "ImportSummary(rows=" + this.getRows() + ", imported=" + this.getImported() + ", failed="
+                + this.getFailed() + ")";
+    }
+
+}
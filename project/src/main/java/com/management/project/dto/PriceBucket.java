@@ -0,0 +1,47 @@
+package com.management.project.dto;
+
+
+public class PriceBucket {
+
+    private double min;
+    private double max;
+    private long count;
+
+    public PriceBucket() {
+    }
+
+    public PriceBucket(double min, double max, long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public double getMin() {
+        return this.min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return this.max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public String toString() {
+        return "PriceBucket(min=" + this.getMin() + ", max=" + this.getMax() + ", count=" + this.getCount() + ")";
+    }
+
+}
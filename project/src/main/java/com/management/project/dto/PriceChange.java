@@ -0,0 +1,50 @@
+package com.management.project.dto;
+
+import java.util.Date;
+
+
+public class PriceChange {
+
+    private Date at;
+    private double price;
+    private Double previousPrice;
+
+    public PriceChange() {
+    }
+
+    public PriceChange(Date at, double price, Double previousPrice) {
+        this.at = at;
+        this.price = price;
+        this.previousPrice = previousPrice;
+    }
+
+    public Date getAt() {
+        return this.at;
+    }
+
+    public void setAt(Date at) {
+        this.at = at;
+    }
+
+    public double getPrice() {
+        return this.price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public Double getPreviousPrice() {
+        return this.previousPrice;
+    }
+
+    public void setPreviousPrice(Double previousPrice) {
+        this.previousPrice = previousPrice;
+    }
+
+    public String toString() {
+        return "PriceChange(at=" + this.getAt() + ", price=" + this.getPrice() + ", previousPrice="
+                + this.getPreviousPrice() + ")";
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.management.project.dto;
+
+import java.util.List;
+
+
+public class PriceHistogram {
+
+    private List<PriceBucket> buckets;
+    private long total;
+
+    public PriceHistogram() {
+    }
+
+    public PriceHistogram(List<PriceBucket> buckets, long total) {
+        this.buckets = buckets;
+        this.total = total;
+    }
+
+    public List<PriceBucket> getBuckets() {
+        return this.buckets;
+    }
+
+    public void setBuckets(List<PriceBucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public String toString() {
+        return "PriceHistogram(buckets=" + this.getBuckets() + ", total=" + this.getTotal() + ")";
+    }
+
+}
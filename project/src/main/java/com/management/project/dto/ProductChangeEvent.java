@@ -0,0 +1,73 @@
+package com.management.project.dto;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.enums.ChangeType;
+
+
+public class ProductChangeEvent {
+
+    private long sequence;
+    private ChangeType type;
+    private String productId;
+    private ProductInformation product;
+    private long timestamp;
+
+    public ProductChangeEvent() {
+    }
+
+    public ProductChangeEvent(long sequence, ChangeType type, String productId, ProductInformation product,
+            long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public ChangeType getType() {
+        return this.type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public String getProductId() {
+        return this.productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public ProductInformation getProduct() {
+        return this.product;
+    }
+
+    public void setProduct(ProductInformation product) {
+        this.product = product;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String toString() {
+        return "ProductChangeEvent(sequence=" + this.getSequence() + ", type=" + this.getType() + ", productId="
+                + this.getProductId() + ", product=" + this.getProduct() + ", timestamp=" + this.getTimestamp()
+                + ")";
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.management.project.dto;
+
+import java.util.List;
+
+import com.management.project.entity.ProductInformation;
+
+
+public class ProductChangeSet {
+
+    private List<ProductInformation> updated;
+    private List<String> deleted;
+    private String watermark;
+    private boolean hasMore;
+
+    public ProductChangeSet() {
+    }
+
+    public ProductChangeSet(List<ProductInformation> updated, List<String> deleted, String watermark,
+            boolean hasMore) {
+        this.updated = updated;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    public List<ProductInformation> getUpdated() {
+        return this.updated;
+    }
+
+    public void setUpdated(List<ProductInformation> updated) {
+        this.updated = updated;
+    }
+
+    public List<String> getDeleted() {
+        return this.deleted;
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getWatermark() {
+        return this.watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return this.hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String toString() {
+        return "ProductChangeSet(updated=" + this.getUpdated() + ", deleted=" + this.getDeleted() + ", watermark="
+                + this.getWatermark() + ", hasMore=" + this.isHasMore() + ")";
+    }
+
+}
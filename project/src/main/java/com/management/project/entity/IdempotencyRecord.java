@@ -0,0 +1,81 @@
+package com.management.project.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * The stored response of a request made with an Idempotency-Key header. A
+ * record without a status belongs to a request that is still running.
+ */
+@Document(collection = "idempotency_key")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+    private String requestHash;
+    private Integer status;
+    private String contentType;
+    private String body;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String id, String requestHash, Date expiresAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
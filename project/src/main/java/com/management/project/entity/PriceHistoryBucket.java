@@ -0,0 +1,106 @@
+package com.management.project.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.management.project.dto.PriceChange;
+
+/**
+ * Up to a fixed number of consecutive price changes of one product, in the
+ * order they were recorded. The buckets of a product are numbered from 0 and
+ * identified by {@code productId:seq}, so two instances cannot open the same
+ * bucket twice, and one is only opened once the previous one is full. A change
+ * recorded late goes to the open bucket, so buckets may overlap in time; a time
+ * range reads every bucket with {@code last} at or after its start and
+ * {@code first} at or before its end, scanning {@code productId, last}.
+ */
+@Document(collection = "product_price_history")
+@CompoundIndexes({
+        @CompoundIndex(name = "product_last", def = "{'productId': 1, 'last': 1}"),
+        // finds the last bucket, the one appended to
+        @CompoundIndex(name = "product_seq", def = "{'productId': 1, 'seq': -1}")
+})
+public class PriceHistoryBucket {
+
+    @Id
+    private String id;
+    private String productId;
+    private String vendorId;
+    private int seq;
+    private Date first;
+    private Date last;
+    private int count;
+    private List<PriceChange> changes;
+
+    public PriceHistoryBucket() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getVendorId() {
+        return vendorId;
+    }
+
+    public void setVendorId(String vendorId) {
+        this.vendorId = vendorId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public Date getFirst() {
+        return first;
+    }
+
+    public void setFirst(Date first) {
+        this.first = first;
+    }
+
+    public Date getLast() {
+        return last;
+    }
+
+    public void setLast(Date last) {
+        this.last = last;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<PriceChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<PriceChange> changes) {
+        this.changes = changes;
+    }
+}
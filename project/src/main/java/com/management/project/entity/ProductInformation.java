@@ -1,10 +1,14 @@
 package com.management.project.entity;
 
+import java.util.Date;
 import java.util.UUID;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 @Document(collection = "product_information")
 public class ProductInformation {
     
@@ -12,7 +16,14 @@ public class ProductInformation {
     private String id = UUID.randomUUID().toString();
     private String name;
     private String description;
+    @Indexed
     private double price;
+    @Indexed
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Date lastModified;
+    // the JWT subject of the owning vendor, see ProductVendorIndexes for its indexes
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String vendorId;
 
     public ProductInformation(String id,String name, String description,  double price) {
         this.id = id;
@@ -53,4 +64,20 @@ public class ProductInformation {
     public void setPrice(double price) {
         this.price = price;
     }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getVendorId() {
+        return vendorId;
+    }
+
+    public void setVendorId(String vendorId) {
+        this.vendorId = vendorId;
+    }
 }
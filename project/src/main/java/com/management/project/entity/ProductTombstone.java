@@ -0,0 +1,48 @@
+package com.management.project.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Marks a deleted product so that delta sync can report the delete. Tombstones
+ * expire after {@link #RETENTION}; a mirror that has not synced for longer has
+ * to reload the whole catalog.
+ */
+@Document(collection = "product_tombstone")
+public class ProductTombstone {
+
+    public static final String RETENTION = "30d";
+    public static final long RETENTION_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+    @Id
+    private String id;
+    @Indexed(expireAfter = RETENTION)
+    private Date deletedAt;
+
+    public ProductTombstone() {
+    }
+
+    public ProductTombstone(String id, Date deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,73 @@
+package com.management.project.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * All refresh tokens descending from one login. Only the latest token of a
+ * family may be used; presenting an older one revokes the family.
+ */
+@Document(collection = "refresh_token_family")
+public class RefreshTokenFamily {
+
+    @Id
+    private String id;
+    private String username;
+    private String currentTokenId;
+    private boolean revoked;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public RefreshTokenFamily() {
+    }
+
+    public RefreshTokenFamily(String id, String username, String currentTokenId, Date expiresAt) {
+        this.id = id;
+        this.username = username;
+        this.currentTokenId = currentTokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getCurrentTokenId() {
+        return currentTokenId;
+    }
+
+    public void setCurrentTokenId(String currentTokenId) {
+        this.currentTokenId = currentTokenId;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.management.project.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A revoked token id, or a per-user watermark before which all tokens are
+ * revoked. Entries expire once the tokens they cover would have expired.
+ */
+@Document(collection = "revoked_token")
+public class RevokedToken {
+
+    public static final String TOKEN_PREFIX = "jti:";
+    public static final String USER_PREFIX = "user:";
+
+    @Id
+    private String id;
+    private Date issuedBefore;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String id, Date issuedBefore, Date expiresAt) {
+        this.id = id;
+        this.issuedBefore = issuedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public void setIssuedBefore(Date issuedBefore) {
+        this.issuedBefore = issuedBefore;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,5 @@
+package com.management.project.enums;
+
+public enum ChangeType {
+    ADDED, UPDATED, DELETED
+}
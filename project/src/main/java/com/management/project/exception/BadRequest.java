@@ -1,14 +1,18 @@
 package com.management.project.exception;
 
+/**
+ * A request that cannot be served as sent. Client errors are routine, so no
+ * stack trace is captured.
+ */
 public class BadRequest extends Exception {
 
     private static final long serialVersionUID = 1L;
 
     public BadRequest() {
-        super();
+        this(null);
     }
     public BadRequest(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
 }
@@ -0,0 +1,14 @@
+package com.management.project.exception;
+
+public class ProductNotFoundException extends BadRequest {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProductNotFoundException() {
+        super();
+    }
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+    
+}
@@ -0,0 +1,18 @@
+package com.management.project.exception;
+
+/**
+ * The service is overloaded or not ready. Raised when shedding load, so no
+ * stack trace is captured.
+ */
+public class ServiceUnavailable extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailable() {
+        this(null);
+    }
+    public ServiceUnavailable(String message) {
+        super(message, null, false, false);
+    }
+    
+}
@@ -0,0 +1,15 @@
+package com.management.project.exception;
+
+/**
+ * Products cannot be read because the store is degraded and there is no
+ * earlier result to fall back on. Unchecked so it can leave a repository call;
+ * answered with 503.
+ */
+public class StoreUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public StoreUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,720 @@
+package com.management.project.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.management.project.entity.ProductInformation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link ProductRepository} over several stores, each holding the products
+ * whose id hashes to it. Operations on known ids go straight to their
+ * partition. Queries are sent to every partition in parallel and the results
+ * merged; a sorted, limited query asks each partition for its own top results
+ * and keeps the best of them. A partition that does not answer within the
+ * timeout fails the query rather than leaving its products out.
+ * <p>
+ * Changing the number of partitions moves most products, so the stores have
+ * to be repartitioned offline.
+ */
+public class PartitionedProductRepository implements ProductRepository {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final List<ProductRepository> partitions;
+
+    private final long timeoutNanos;
+
+    private final ExecutorService executor;
+
+    private final List<Timer> succeeded = new ArrayList<>();
+
+    private final List<Timer> failed = new ArrayList<>();
+
+    private final List<Counter> timeouts = new ArrayList<>();
+
+    /**
+     * @param partitions the stores, in a fixed order
+     * @param timeout    how long each partition may take to answer a query
+     * @param threads    the threads querying partitions, shared by all queries
+     * @param registry   the registry for the per-partition metrics
+     */
+    public PartitionedProductRepository(List<ProductRepository> partitions, Duration timeout, int threads,
+            MeterRegistry registry) {
+        this.partitions = List.copyOf(partitions);
+        this.timeoutNanos = timeout.toNanos();
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("product-partition-"));
+        for (int i = 0; i < partitions.size(); i++) {
+            String partition = Integer.toString(i);
+            succeeded.add(Timer.builder("product.partition.requests").tag("partition", partition)
+                    .tag("outcome", "success").register(registry));
+            failed.add(Timer.builder("product.partition.requests").tag("partition", partition)
+                    .tag("outcome", "error").register(registry));
+            timeouts.add(Counter.builder("product.partition.timeouts").tag("partition", partition)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param id a product id
+     * @return the index of the partition holding the product
+     */
+    public int partitionOf(String id) {
+        // spread the string hash, whose low bits are weak for ids sharing a prefix
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return Math.floorMod(hash, partitions.size());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ---- operations on known ids, sent to one partition
+
+    @Override
+    public <S extends ProductInformation> S save(S entity) {
+        return on(entity, repository -> repository.save(entity));
+    }
+
+    @Override
+    public <S extends ProductInformation> S insert(S entity) {
+        return on(entity, repository -> repository.insert(entity));
+    }
+
+    @Override
+    public Optional<ProductInformation> findById(String id) {
+        return on(partitionOf(id), repository -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return on(partitionOf(id), repository -> repository.existsById(id));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        on(partitionOf(id), repository -> {
+            repository.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(ProductInformation entity) {
+        on(entity, repository -> {
+            repository.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public <S extends ProductInformation> List<S> saveAll(Iterable<S> entities) {
+        return byPartition(entities, (repository, group) -> repository.saveAll(group));
+    }
+
+    @Override
+    public <S extends ProductInformation> List<S> insert(Iterable<S> entities) {
+        return byPartition(entities, (repository, group) -> repository.insert(group));
+    }
+
+    @Override
+    public List<ProductInformation> findAllById(Iterable<String> ids) {
+        List<List<String>> groups = group(ids, id -> id);
+        return concat(scatter(partition -> groups.get(partition).isEmpty() ? List.of()
+                : partitions.get(partition).findAllById(groups.get(partition))));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        List<List<String>> groups = group(ids, id -> id);
+        scatter(partition -> {
+            if (!groups.get(partition).isEmpty()) {
+                partitions.get(partition).deleteAllById(groups.get(partition));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends ProductInformation> entities) {
+        List<List<ProductInformation>> groups = group(entities, this::idOf);
+        scatter(partition -> {
+            if (!groups.get(partition).isEmpty()) {
+                partitions.get(partition).deleteAll(groups.get(partition));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<ProductInformation> products) {
+        List<List<Integer>> positions = new ArrayList<>();
+        List<List<ProductInformation>> groups = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            positions.add(new ArrayList<>());
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < products.size(); i++) {
+            int partition = partitionOf(idOf(products.get(i)));
+            positions.get(partition).add(i);
+            groups.get(partition).add(products.get(i));
+        }
+        List<Map<Integer, String>> results = scatter(partition -> groups.get(partition).isEmpty() ? Map.of()
+                : partitions.get(partition).insertAll(groups.get(partition)));
+        // errors come back by position within the partition's batch
+        Map<Integer, String> errors = new HashMap<>();
+        for (int partition = 0; partition < results.size(); partition++) {
+            for (Map.Entry<Integer, String> error : results.get(partition).entrySet()) {
+                errors.put(positions.get(partition).get(error.getKey()), error.getValue());
+            }
+        }
+        return errors;
+    }
+
+    // ---- queries, scattered to every partition
+
+    @Override
+    public List<ProductInformation> findAll() {
+        return concat(scatter(partition -> partitions.get(partition).findAll()));
+    }
+
+    @Override
+    public List<ProductInformation> findAll(Sort sort) {
+        return merge(scatter(partition -> partitions.get(partition).findAll(sort)), Pageable.unpaged(sort));
+    }
+
+    @Override
+    public Page<ProductInformation> findAll(Pageable pageable) {
+        List<Page<ProductInformation>> pages = scatter(partition -> partitions.get(partition).findAll(topOf(pageable)));
+        return page(pages, pageable);
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (long partitionCount : scatter(partition -> partitions.get(partition).count())) {
+            count += partitionCount;
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteAll() {
+        scatter(partition -> {
+            partitions.get(partition).deleteAll();
+            return null;
+        });
+    }
+
+    @Override
+    public List<ProductInformation> findByNameAndPrice(String name, double price) {
+        return concat(scatter(partition -> partitions.get(partition).findByNameAndPrice(name, price)));
+    }
+
+    @Override
+    public List<ProductInformation> findByNameIgnoreCaseContaining(String name) {
+        return concat(scatter(partition -> partitions.get(partition).findByNameIgnoreCaseContaining(name)));
+    }
+
+    @Override
+    public List<ProductInformation> findByPriceBetween(double minPrice, double maxPrice) {
+        return concat(scatter(partition -> partitions.get(partition).findByPriceBetween(minPrice, maxPrice)));
+    }
+
+    @Override
+    public List<ProductInformation> findByNameAndPriceRange(String name, double minPrice, double maxPrice) {
+        return concat(scatter(partition -> partitions.get(partition).findByNameAndPriceRange(name, minPrice,
+                maxPrice)));
+    }
+
+    @Override
+    public List<ProductInformation> findByNameIgnoreCaseContaining(String name, Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition).findByNameIgnoreCaseContaining(name,
+                topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findByPriceBetween(double minPrice, double maxPrice, Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition).findByPriceBetween(minPrice, maxPrice,
+                topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findByNameAndPriceRange(String name, double minPrice, double maxPrice,
+            Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition).findByNameAndPriceRange(name, minPrice, maxPrice,
+                topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorId(String vendorId) {
+        return concat(scatter(partition -> partitions.get(partition).findByVendorId(vendorId)));
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorIdAndNameIgnoreCaseContaining(String vendorId, String name) {
+        return concat(scatter(partition -> partitions.get(partition)
+                .findByVendorIdAndNameIgnoreCaseContaining(vendorId, name)));
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorIdAndNameIgnoreCaseContaining(String vendorId, String name,
+            Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition)
+                .findByVendorIdAndNameIgnoreCaseContaining(vendorId, name, topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorIdAndPriceBetween(String vendorId, double minPrice, double maxPrice) {
+        return concat(scatter(partition -> partitions.get(partition)
+                .findByVendorIdAndPriceBetween(vendorId, minPrice, maxPrice)));
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorIdAndPriceBetween(String vendorId, double minPrice, double maxPrice,
+            Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition)
+                .findByVendorIdAndPriceBetween(vendorId, minPrice, maxPrice, topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorAndNameAndPriceRange(String vendorId, String name, double minPrice,
+            double maxPrice) {
+        return concat(scatter(partition -> partitions.get(partition)
+                .findByVendorAndNameAndPriceRange(vendorId, name, minPrice, maxPrice)));
+    }
+
+    @Override
+    public List<ProductInformation> findByVendorAndNameAndPriceRange(String vendorId, String name, double minPrice,
+            double maxPrice, Pageable pageable) {
+        return merge(scatter(partition -> partitions.get(partition)
+                .findByVendorAndNameAndPriceRange(vendorId, name, minPrice, maxPrice, topOf(pageable))), pageable);
+    }
+
+    @Override
+    public List<ProductInformation> findModifiedAfter(Date after, String afterId, Date until, int limit) {
+        List<List<ProductInformation>> results = scatter(partition -> partitions.get(partition)
+                .findModifiedAfter(after, afterId, until, limit));
+        return merge(results, PageRequest.of(0, limit, Sort.by("lastModified", "id")));
+    }
+
+    @Override
+    public Stream<ProductInformation> streamAllBy() {
+        // one partition at a time, each cursor closed before the next is opened
+        return partitions.stream().flatMap(ProductRepository::streamAllBy);
+    }
+
+    @Override
+    public <S extends ProductInformation> Optional<S> findOne(Example<S> example) {
+        List<S> found = new ArrayList<>();
+        for (Optional<S> result : scatter(partition -> partitions.get(partition).findOne(example))) {
+            result.ifPresent(found::add);
+        }
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public <S extends ProductInformation> List<S> findAll(Example<S> example) {
+        return concat(scatter(partition -> partitions.get(partition).findAll(example)));
+    }
+
+    @Override
+    public <S extends ProductInformation> List<S> findAll(Example<S> example, Sort sort) {
+        return merge(scatter(partition -> partitions.get(partition).findAll(example, sort)), Pageable.unpaged(sort));
+    }
+
+    @Override
+    public <S extends ProductInformation> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(scatter(partition -> partitions.get(partition).findAll(example, topOf(pageable))), pageable);
+    }
+
+    @Override
+    public <S extends ProductInformation> long count(Example<S> example) {
+        long count = 0;
+        for (long partitionCount : scatter(partition -> partitions.get(partition).count(example))) {
+            count += partitionCount;
+        }
+        return count;
+    }
+
+    @Override
+    public <S extends ProductInformation> boolean exists(Example<S> example) {
+        return scatter(partition -> partitions.get(partition).exists(example)).contains(true);
+    }
+
+    @Override
+    public <S extends ProductInformation, R> R findBy(Example<S> example,
+            Function<FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ScatteredQuery<>(example, Sort.unsorted(), 0, List.of(), null));
+    }
+
+    // ---- routing and merging
+
+    private <R> R on(ProductInformation entity, Function<ProductRepository, R> operation) {
+        return on(partitionOf(idOf(entity)), operation);
+    }
+
+    private <R> R on(int partition, Function<ProductRepository, R> operation) {
+        long start = System.nanoTime();
+        try {
+            R result = operation.apply(partitions.get(partition));
+            succeeded.get(partition).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            failed.get(partition).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a query on every partition in parallel. Each partition has the
+     * timeout from the moment its call starts; a call still waiting for a
+     * thread after the timeout fails the query too.
+     *
+     * @return the result of each partition, by partition
+     * @throws QueryTimeoutException if a partition does not answer in time
+     */
+    private <R> List<R> scatter(PartitionQuery<R> query) {
+        List<Future<R>> futures = new ArrayList<>(partitions.size());
+        AtomicLongArray started = new AtomicLongArray(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            started.set(i, NOT_STARTED);
+        }
+        long submitted = System.nanoTime();
+        for (int i = 0; i < partitions.size(); i++) {
+            int partition = i;
+            futures.add(executor.submit(() -> {
+                started.set(partition, System.nanoTime());
+                return on(partition, repository -> query.run(partition));
+            }));
+        }
+        List<R> results = new ArrayList<>(partitions.size());
+        try {
+            for (int partition = 0; partition < futures.size(); partition++) {
+                try {
+                    results.add(await(futures.get(partition), started, submitted, partition));
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause
+                            : new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the partitions");
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private <R> R await(Future<R> future, AtomicLongArray started, long submitted, int partition)
+            throws InterruptedException, ExecutionException {
+        while (true) {
+            long start = started.get(partition);
+            long deadline = (start != NOT_STARTED ? start : submitted) + timeoutNanos;
+            try {
+                return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // a call that started while queued gets its own timeout from its start
+                if (start == NOT_STARTED && started.get(partition) != NOT_STARTED) {
+                    continue;
+                }
+                timeouts.get(partition).increment();
+                throw new QueryTimeoutException("Partition " + partition
+                        + (start == NOT_STARTED ? " was not queried within " : " did not answer within ")
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+            }
+        }
+    }
+
+    private interface PartitionQuery<R> {
+        R run(int partition);
+    }
+
+    private interface GroupOperation<S> {
+        List<S> run(ProductRepository repository, List<S> group);
+    }
+
+    private <S extends ProductInformation> List<S> byPartition(Iterable<S> entities, GroupOperation<S> operation) {
+        List<List<S>> groups = group(entities, this::idOf);
+        return concat(scatter(partition -> groups.get(partition).isEmpty() ? List.of()
+                : operation.run(partitions.get(partition), groups.get(partition))));
+    }
+
+    private <T> List<List<T>> group(Iterable<? extends T> values, Function<T, String> id) {
+        List<List<T>> groups = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (T value : values) {
+            groups.get(partitionOf(id.apply(value))).add(value);
+        }
+        return groups;
+    }
+
+    // saving without an id would let the store pick one that hashes elsewhere
+    private String idOf(ProductInformation product) {
+        if (product.getId() == null) {
+            product.setId(UUID.randomUUID().toString());
+        }
+        return product.getId();
+    }
+
+    private static <T> List<T> concat(List<? extends List<T>> results) {
+        List<T> all = new ArrayList<>();
+        for (List<T> result : results) {
+            all.addAll(result);
+        }
+        return all;
+    }
+
+    // each partition returns its first offset + size results, the page is cut from their merge
+    private static Pageable topOf(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()),
+                pageable.getSort());
+    }
+
+    private static <T extends ProductInformation> List<T> merge(List<? extends List<T>> results, Pageable pageable) {
+        List<T> merged = concat(results);
+        if (pageable.getSort().isSorted()) {
+            merged.sort(comparator(pageable.getSort()));
+        }
+        if (pageable.isUnpaged()) {
+            return merged;
+        }
+        int from = (int) Math.min(merged.size(), pageable.getOffset());
+        int to = Math.min(merged.size(), from + pageable.getPageSize());
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    private static <T extends ProductInformation> Page<T> page(List<Page<T>> pages, Pageable pageable) {
+        List<List<T>> contents = new ArrayList<>(pages.size());
+        long total = 0;
+        for (Page<T> page : pages) {
+            contents.add(page.getContent());
+            total += page.getTotalElements();
+        }
+        return new PageImpl<>(merge(contents, pageable), pageable, total);
+    }
+
+    /**
+     * A fluent query by example sent to every partition with the same settings,
+     * each returning its own first results, merged like the other queries.
+     * Sorted results are merged by the entity fields, so a sorted query can only
+     * be projected to product types.
+     *
+     * @param <S> the type of the probe
+     * @param <T> the type of the results
+     */
+    private class ScatteredQuery<S extends ProductInformation, T> implements FetchableFluentQuery<T> {
+
+        private final Example<S> example;
+
+        private final Sort sort;
+
+        // 0 for no limit
+        private final int limit;
+
+        private final List<String> properties;
+
+        // null to keep the probe's type
+        private final Class<T> resultType;
+
+        ScatteredQuery(Example<S> example, Sort sort, int limit, List<String> properties, Class<T> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.properties = properties;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ScatteredQuery<>(example, this.sort.and(sort), limit, properties, resultType);
+        }
+
+        @Override
+        public FetchableFluentQuery<T> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ScatteredQuery<>(example, sort, limit, properties, resultType);
+        }
+
+        @Override
+        public <R> FetchableFluentQuery<R> as(Class<R> resultType) {
+            return new ScatteredQuery<>(example, sort, limit, properties, resultType);
+        }
+
+        @Override
+        public FetchableFluentQuery<T> project(Collection<String> properties) {
+            List<String> all = new ArrayList<>(this.properties);
+            all.addAll(properties);
+            return new ScatteredQuery<>(example, sort, limit, all, resultType);
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> found = new ArrayList<>();
+            for (T result : each(FetchableFluentQuery::oneValue)) {
+                if (result != null) {
+                    found.add(result);
+                }
+            }
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            List<T> first = new ScatteredQuery<>(example, sort, 1, properties, resultType).all();
+            return first.isEmpty() ? null : first.get(0);
+        }
+
+        @Override
+        public List<T> all() {
+            List<T> merged = sorted(concat(each(FetchableFluentQuery::all)), sort);
+            return limit > 0 && merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                List<T> all = all();
+                return new PageImpl<>(all, pageable, all.size());
+            }
+            Sort order = pageable.getSort().isSorted() ? pageable.getSort() : sort;
+            List<T> merged = new ArrayList<>();
+            long total = 0;
+            for (Page<T> page : each(query -> query.page(topOf(pageable)))) {
+                merged.addAll(page.getContent());
+                total += page.getTotalElements();
+            }
+            sorted(merged, order);
+            int from = (int) Math.min(merged.size(), pageable.getOffset());
+            int to = Math.min(merged.size(), from + pageable.getPageSize());
+            return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+        }
+
+        // merging needs every partition's results, so they are read before streaming
+        @Override
+        public Stream<T> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            long count = 0;
+            for (long partitionCount : each(FetchableFluentQuery::count)) {
+                count += partitionCount;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean exists() {
+            return each(FetchableFluentQuery::exists).contains(true);
+        }
+
+        private <V> List<V> each(Function<FetchableFluentQuery<T>, V> terminal) {
+            return scatter(partition -> partitions.get(partition).findBy(example,
+                    query -> terminal.apply(configure(query))));
+        }
+
+        @SuppressWarnings("unchecked")
+        private FetchableFluentQuery<T> configure(FetchableFluentQuery<S> query) {
+            FetchableFluentQuery<S> configured = query.sortBy(sort);
+            if (limit > 0) {
+                configured = configured.limit(limit);
+            }
+            if (!properties.isEmpty()) {
+                configured = configured.project(properties);
+            }
+            return resultType == null ? (FetchableFluentQuery<T>) configured : configured.as(resultType);
+        }
+
+        private List<T> sorted(List<T> results, Sort order) {
+            if (order.isSorted()) {
+                Comparator<ProductInformation> comparator = comparator(order);
+                results.sort((a, b) -> comparator.compare(product(a), product(b)));
+            }
+            return results;
+        }
+
+        private ProductInformation product(T result) {
+            if (result instanceof ProductInformation product) {
+                return product;
+            }
+            throw new IllegalArgumentException("Cannot merge sorted results of type " + result.getClass().getName());
+        }
+    }
+
+    /**
+     * Orders products the way Mongo sorts them, for the fields results are sorted by.
+     */
+    static Comparator<ProductInformation> comparator(Sort sort) {
+        Comparator<ProductInformation> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductInformation> field = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(ProductInformation::getName, Comparator.nullsFirst(
+                        order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder()));
+                case "description" -> Comparator.comparing(ProductInformation::getDescription,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparingDouble(ProductInformation::getPrice);
+                case "lastModified" -> Comparator.comparing(ProductInformation::getLastModified,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "id" -> Comparator.comparing(ProductInformation::getId);
+                default -> throw new IllegalArgumentException("Cannot merge results sorted by " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                field = field.reversed();
+            }
+            comparator = comparator == null ? field : comparator.thenComparing(field);
+        }
+        return comparator;
+    }
+}
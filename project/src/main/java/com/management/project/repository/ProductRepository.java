@@ -1,7 +1,9 @@
 package com.management.project.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,7 +11,7 @@ import org.springframework.stereotype.Repository;
 import com.management.project.entity.ProductInformation;
 
 @Repository
-public interface ProductRepository extends MongoRepository<ProductInformation, String> {
+public interface ProductRepository extends MongoRepository<ProductInformation, String>, ProductRepositoryCustom {
 
     List<ProductInformation> findByNameAndPrice(String name, double price);
 
@@ -23,5 +25,36 @@ public interface ProductRepository extends MongoRepository<ProductInformation, S
     @Query("{'name': {$regex: ?0, $options: 'i'}, 'price': {$gte: ?1, $lte: ?2}}")
     List<ProductInformation> findByNameAndPriceRange(String name, double minPrice, double maxPrice);
 
+    // Sorted and limited variants, the sort and limit are applied by Mongo
+    List<ProductInformation> findByNameIgnoreCaseContaining(String name, Pageable pageable);
+
+    List<ProductInformation> findByPriceBetween(double minPrice, double maxPrice, Pageable pageable);
+
+    @Query("{'name': {$regex: ?0, $options: 'i'}, 'price': {$gte: ?1, $lte: ?2}}")
+    List<ProductInformation> findByNameAndPriceRange(String name, double minPrice, double maxPrice, Pageable pageable);
+
+    // Vendor-scoped variants, served by the vendor-led indexes in ProductVendorIndexes
+    List<ProductInformation> findByVendorId(String vendorId);
+
+    List<ProductInformation> findByVendorIdAndNameIgnoreCaseContaining(String vendorId, String name);
+
+    List<ProductInformation> findByVendorIdAndNameIgnoreCaseContaining(String vendorId, String name, Pageable pageable);
+
+    List<ProductInformation> findByVendorIdAndPriceBetween(String vendorId, double minPrice, double maxPrice);
+
+    List<ProductInformation> findByVendorIdAndPriceBetween(String vendorId, double minPrice, double maxPrice,
+            Pageable pageable);
+
+    @Query("{'vendorId': ?0, 'name': {$regex: ?1, $options: 'i'}, 'price': {$gte: ?2, $lte: ?3}}")
+    List<ProductInformation> findByVendorAndNameAndPriceRange(String vendorId, String name, double minPrice,
+            double maxPrice);
+
+    @Query("{'vendorId': ?0, 'name': {$regex: ?1, $options: 'i'}, 'price': {$gte: ?2, $lte: ?3}}")
+    List<ProductInformation> findByVendorAndNameAndPriceRange(String vendorId, String name, double minPrice,
+            double maxPrice, Pageable pageable);
+
+    // Streams the whole collection with a cursor, for building in-memory indexes
+    Stream<ProductInformation> streamAllBy();
+
     
 }
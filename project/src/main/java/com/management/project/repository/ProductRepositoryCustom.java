@@ -0,0 +1,42 @@
+package com.management.project.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Id based operations that need to know how product ids are stored.
+ */
+public interface ProductRepositoryCustom {
+
+    Optional<ProductInformation> findById(String id);
+
+    boolean existsById(String id);
+
+    List<ProductInformation> findAllById(Iterable<String> ids);
+
+    void deleteById(String id);
+
+    /**
+     * Finds products modified after a watermark, oldest first, ties broken by id.
+     *
+     * @param after   the modification time of the watermark
+     * @param afterId the id of the watermark, or an empty string
+     * @param until   the latest modification time to include
+     * @param limit   the maximum number of products
+     * @return the products
+     */
+    List<ProductInformation> findModifiedAfter(Date after, String afterId, Date until, int limit);
+
+    /**
+     * Inserts products with one unordered bulk write, so one bad document does
+     * not stop the others.
+     *
+     * @param products the products to insert
+     * @return the error message of each product that was not inserted, by position
+     */
+    Map<Integer, String> insertAll(List<ProductInformation> products);
+}
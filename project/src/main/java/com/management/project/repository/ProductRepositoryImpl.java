@@ -0,0 +1,132 @@
+package com.management.project.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.entity.ProductInformation;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+/**
+ * Implementation of {@link ProductRepositoryCustom}. With compact storage the id
+ * is stored in binary form, so lookups go through the collection directly
+ * instead of the query mapper.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final boolean compact;
+
+    public ProductRepositoryImpl(MongoTemplate mongoTemplate,
+            @Value("${product.storage.compact:false}") boolean compact) {
+        this.mongoTemplate = mongoTemplate;
+        this.compact = compact;
+    }
+
+    @Override
+    public Optional<ProductInformation> findById(String id) {
+        if (!compact) {
+            return Optional.ofNullable(mongoTemplate.findById(id, ProductInformation.class));
+        }
+        Document document = collection().find(Filters.eq("_id", CompactStorageCodec.encodeId(id))).first();
+        if (document == null) {
+            return Optional.empty();
+        }
+        return Optional.of(mongoTemplate.getConverter().read(ProductInformation.class, document));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        if (!compact) {
+            return mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), ProductInformation.class);
+        }
+        return collection().countDocuments(Filters.eq("_id", CompactStorageCodec.encodeId(id))) > 0;
+    }
+
+    @Override
+    public List<ProductInformation> findAllById(Iterable<String> ids) {
+        List<Object> storedIds = new ArrayList<>();
+        for (String id : ids) {
+            storedIds.add(compact ? CompactStorageCodec.encodeId(id) : id);
+        }
+        if (!compact) {
+            return mongoTemplate.find(Query.query(Criteria.where("_id").in(storedIds)), ProductInformation.class);
+        }
+        List<ProductInformation> products = new ArrayList<>(storedIds.size());
+        for (Document document : collection().find(Filters.in("_id", storedIds))) {
+            products.add(mongoTemplate.getConverter().read(ProductInformation.class, document));
+        }
+        return products;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (!compact) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), ProductInformation.class);
+            return;
+        }
+        collection().deleteOne(Filters.eq("_id", CompactStorageCodec.encodeId(id)));
+    }
+
+    @Override
+    public List<ProductInformation> findModifiedAfter(Date after, String afterId, Date until, int limit) {
+        if (!compact) {
+            Criteria criteria = new Criteria().andOperator(
+                    new Criteria().orOperator(Criteria.where("lastModified").gt(after),
+                            Criteria.where("lastModified").is(after).and("_id").gt(afterId)),
+                    Criteria.where("lastModified").lte(until));
+            Query query = Query.query(criteria)
+                    .with(Sort.by(Sort.Order.asc("lastModified"), Sort.Order.asc("_id")))
+                    .limit(limit);
+            return mongoTemplate.find(query, ProductInformation.class);
+        }
+        String field = CompactStorageCodec.LAST_MODIFIED;
+        Bson filter = Filters.and(
+                Filters.or(Filters.gt(field, after),
+                        Filters.and(Filters.eq(field, after), Filters.gt("_id", CompactStorageCodec.encodeId(afterId)))),
+                Filters.lte(field, until));
+        List<ProductInformation> products = new ArrayList<>(limit);
+        for (Document document : collection().find(filter).sort(Sorts.ascending(field, "_id")).limit(limit)) {
+            products.add(mongoTemplate.getConverter().read(ProductInformation.class, document));
+        }
+        return products;
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<ProductInformation> products) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (products.isEmpty()) {
+            return errors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, ProductInformation.class).insert(products).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ProductInformation.class));
+    }
+}
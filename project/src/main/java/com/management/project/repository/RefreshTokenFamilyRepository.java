@@ -0,0 +1,10 @@
+package com.management.project.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.management.project.entity.RefreshTokenFamily;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends MongoRepository<RefreshTokenFamily, String> {
+}
@@ -0,0 +1,14 @@
+package com.management.project.repository;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.management.project.entity.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    Stream<RevokedToken> streamAllBy();
+}
@@ -0,0 +1,289 @@
+package com.management.project.search;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.dto.CatalogStatistics;
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.PartitionedProductRepository;
+import com.management.project.repository.ProductRepository;
+import com.management.project.util.QuantileSketch;
+
+/**
+ * Price statistics over the catalog, updated on every product write. Percentiles
+ * come from a {@link QuantileSketch}, so a read never touches the collection.
+ * Each product's counted price is kept by id, and a write is applied against it
+ * rather than against the previous state the event carries.
+ * The aggregates are reconciled against the collection periodically: exact
+ * count, sum, min and max are read with one aggregation, and the sketch is
+ * rebuilt from a scan only when they disagree by more than the writes made
+ * during the aggregation explain. With partitioning the collection the
+ * aggregation reads holds no products, so there is no reconciliation and
+ * other instances' writes are only picked up when the index is next loaded.
+ */
+@Component
+@ConditionalOnProperty(name = "product.index.stats.enabled", havingValue = "true")
+public class CatalogStatisticsIndex implements ProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatisticsIndex.class);
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.95, 0.99 };
+
+    private final ProductRepository productRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final double relativeAccuracy;
+
+    private final boolean compact;
+
+    // the aggregation reads the main database, which holds no products once they are partitioned
+    private final boolean reconciled;
+
+    // the counted price of each product, so a replayed or out-of-date event is not counted twice
+    private Map<String, Double> priceById = new HashMap<>();
+
+    private QuantileSketch sketch;
+
+    private long count;
+
+    private double sum;
+
+    private double min = Double.POSITIVE_INFINITY;
+
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // false once the min or max product was deleted; the sketch estimates it until the next reconcile
+    private boolean exactBounds = true;
+
+    // the number of applied writes and how far they moved the sum, to tell what a reconcile may have missed
+    private long writes;
+
+    private double moved;
+
+    // the writes applied while a rebuild scans the collection, null otherwise
+    private Map<String, Double> rebuildWrites;
+
+    private volatile CatalogStatistics snapshot;
+
+    private volatile boolean ready;
+
+    public CatalogStatisticsIndex(ProductRepository productRepository, MongoTemplate mongoTemplate,
+            @Value("${product.index.stats.relative-accuracy:0.01}") double relativeAccuracy,
+            @Value("${product.storage.compact:false}") boolean compact) {
+        this.productRepository = productRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.relativeAccuracy = relativeAccuracy;
+        this.compact = compact;
+        this.reconciled = !(productRepository instanceof PartitionedProductRepository);
+        this.sketch = new QuantileSketch(relativeAccuracy);
+    }
+
+    @Override
+    public synchronized void productSaved(ProductInformation previous, ProductInformation current) {
+        record(current.getId(), current.getPrice());
+    }
+
+    @Override
+    public synchronized void productDeleted(ProductInformation product) {
+        record(product.getId(), null);
+    }
+
+    private void record(String id, Double price) {
+        if (rebuildWrites != null) {
+            rebuildWrites.put(id, price);
+        }
+        apply(id, price);
+    }
+
+    // sets or, for a null price, removes the counted price of a product
+    private void apply(String id, Double price) {
+        Double old = price == null ? priceById.remove(id) : priceById.put(id, price);
+        if (old == null ? price == null : price != null && old.doubleValue() == price) {
+            return;
+        }
+        if (old != null) {
+            remove(old);
+        }
+        if (price != null) {
+            add(price);
+        }
+        writes++;
+        moved += Math.abs((price == null ? 0 : price) - (old == null ? 0 : old));
+        snapshot = null;
+    }
+
+    private void add(double price) {
+        sketch.add(price);
+        count++;
+        sum += price;
+        min = Math.min(min, price);
+        max = Math.max(max, price);
+    }
+
+    private void remove(double price) {
+        sketch.remove(price);
+        count--;
+        sum -= price;
+        if (price <= min || price >= max) {
+            exactBounds = false;
+        }
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the current statistics. The result is cached until the next
+     * write, and computing it is bounded by the sketch size, not the catalog.
+     *
+     * @return the statistics
+     */
+    public CatalogStatistics statistics() {
+        CatalogStatistics current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = compute();
+            }
+            return snapshot;
+        }
+    }
+
+    private CatalogStatistics compute() {
+        if (count <= 0) {
+            return new CatalogStatistics(0, null, null, null, Map.of(), relativeAccuracy);
+        }
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + Math.round(percentile * 100), sketch.quantile(percentile));
+        }
+        double low = exactBounds ? min : sketch.quantile(0);
+        double high = exactBounds ? max : sketch.quantile(1);
+        return new CatalogStatistics(count, low, high, sum / count, percentiles, relativeAccuracy);
+    }
+
+    /**
+     * Compares the aggregates with the collection and corrects any drift, such
+     * as writes made by other instances or directly in the database.
+     */
+    @Scheduled(fixedDelayString = "${product.index.stats.reconcile-interval:300000}",
+            initialDelayString = "${product.index.stats.reconcile-interval:300000}")
+    public void reconcile() {
+        if (!ready || !reconciled) {
+            return;
+        }
+        long countBefore;
+        double sumBefore;
+        long writesBefore;
+        double movedBefore;
+        synchronized (this) {
+            countBefore = count;
+            sumBefore = sum;
+            writesBefore = writes;
+            movedBefore = moved;
+        }
+        TypedAggregation<ProductInformation> aggregation = Aggregation.newAggregation(ProductInformation.class,
+                Aggregation.group().count().as("count").sum("price").as("sum").min("price").as("min")
+                        .max("price").as("max"));
+        Document totals = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        long storedCount = totals == null ? 0 : ((Number) totals.get("count")).longValue();
+        double storedSum = totals == null ? 0 : price(totals.get("sum"));
+
+        synchronized (this) {
+            // the aggregate may or may not include the writes applied while it ran, so it is compared
+            // with the counters from before it started, allowing for what those writes changed
+            long concurrent = writes - writesBefore;
+            boolean drifted = Math.abs(storedCount - countBefore) > concurrent
+                    || Math.abs(storedSum - sumBefore) > moved - movedBefore
+                            + Math.max(1e-6, Math.abs(storedSum) * 1e-9);
+            if (!drifted) {
+                if (concurrent == 0) {
+                    if (storedCount > 0) {
+                        min = price(totals.get("min"));
+                        max = price(totals.get("max"));
+                    }
+                    exactBounds = true;
+                    snapshot = null;
+                }
+                return;
+            }
+            log.info("Catalog statistics drifted (count {} vs {}), rebuilding", countBefore, storedCount);
+        }
+        rebuild();
+    }
+
+    private void rebuild() {
+        synchronized (this) {
+            rebuildWrites = new HashMap<>();
+        }
+        try {
+            QuantileSketch rebuilt = new QuantileSketch(relativeAccuracy);
+            Map<String, Double> rebuiltPrices = new HashMap<>();
+            long rebuiltCount = 0;
+            double rebuiltSum = 0;
+            double rebuiltMin = Double.POSITIVE_INFINITY;
+            double rebuiltMax = Double.NEGATIVE_INFINITY;
+            try (Stream<ProductInformation> products = productRepository.streamAllBy()) {
+                Iterator<ProductInformation> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    ProductInformation product = iterator.next();
+                    double price = product.getPrice();
+                    if (rebuiltPrices.putIfAbsent(product.getId(), price) != null) {
+                        continue;
+                    }
+                    rebuilt.add(price);
+                    rebuiltCount++;
+                    rebuiltSum += price;
+                    rebuiltMin = Math.min(rebuiltMin, price);
+                    rebuiltMax = Math.max(rebuiltMax, price);
+                }
+            }
+            synchronized (this) {
+                priceById = rebuiltPrices;
+                sketch = rebuilt;
+                count = rebuiltCount;
+                sum = rebuiltSum;
+                min = rebuiltMin;
+                max = rebuiltMax;
+                exactBounds = true;
+                snapshot = null;
+                // the scan may have read these before they landed; other instances' writes wait for a reconcile
+                rebuildWrites.forEach(this::apply);
+            }
+        } finally {
+            synchronized (this) {
+                rebuildWrites = null;
+            }
+        }
+    }
+
+    private double price(Object stored) {
+        double value = ((Number) stored).doubleValue();
+        return compact ? CompactStorageCodec.fromMinorUnits((long) value) : value;
+    }
+}
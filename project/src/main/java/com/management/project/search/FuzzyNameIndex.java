@@ -0,0 +1,227 @@
+package com.management.project.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Typo-tolerant name lookup. Distinct normalized names are kept in a BK-tree
+ * keyed by Levenshtein distance, so a query only visits subtrees that can hold
+ * names within the distance bound. Names whose last product is removed stay in
+ * the tree as dead entries until they outnumber the live ones, at which point
+ * the tree is rebuilt.
+ */
+@Component
+@ConditionalOnProperty(name = "product.index.fuzzy.enabled", havingValue = "true")
+public class FuzzyNameIndex implements ProductIndex {
+
+    private final Map<String, Set<String>> idsByName = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root;
+
+    private int deadNames;
+
+    private volatile boolean ready;
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        String oldName = previous == null ? null : SuggestionIndex.normalize(previous.getName());
+        String newName = SuggestionIndex.normalize(current.getName());
+        if (oldName != null && oldName.equals(newName)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (oldName != null) {
+                remove(oldName, current.getId());
+            }
+            if (newName != null) {
+                add(newName, current.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(ProductInformation product) {
+        String name = SuggestionIndex.normalize(product.getName());
+        if (name == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(name, product.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds names within an edit distance of the query.
+     *
+     * @param query       the name as typed
+     * @param maxDistance the largest edit distance to accept
+     * @param limit       the maximum number of names to return
+     * @return the matches, closest first
+     */
+    public List<Match> search(String query, int maxDistance, int limit) {
+        String key = SuggestionIndex.normalize(query);
+        if (key == null) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root == null) {
+                return List.of();
+            }
+            List<Node> pending = new ArrayList<>();
+            pending.add(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                int distance = distance(key, node.name);
+                if (distance <= maxDistance) {
+                    Set<String> ids = idsByName.get(node.name);
+                    if (ids != null) {
+                        matches.add(new Match(node.name, distance, List.copyOf(ids)));
+                    }
+                }
+                if (node.children != null) {
+                    for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                        Node child = node.children.get(d);
+                        if (child != null) {
+                            pending.add(child);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::name));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private void add(String name, String id) {
+        Set<String> ids = idsByName.get(name);
+        if (ids != null) {
+            ids.add(id);
+            return;
+        }
+        ids = new HashSet<>(2);
+        ids.add(id);
+        idsByName.put(name, ids);
+        if (!insert(name)) {
+            // the name was still in the tree as a dead entry
+            deadNames--;
+        }
+    }
+
+    private void remove(String name, String id) {
+        Set<String> ids = idsByName.get(name);
+        if (ids == null || !ids.remove(id) || !ids.isEmpty()) {
+            return;
+        }
+        idsByName.remove(name);
+        if (++deadNames > idsByName.size()) {
+            rebuild();
+        }
+    }
+
+    private boolean insert(String name) {
+        if (root == null) {
+            root = new Node(name);
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(name, node.name);
+            if (distance == 0) {
+                return false;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(name));
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    private void rebuild() {
+        root = null;
+        deadNames = 0;
+        for (String name : idsByName.keySet()) {
+            insert(name);
+        }
+    }
+
+    /**
+     * Levenshtein distance with two rolling rows.
+     */
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * A matching name, its distance from the query and the products using it.
+     */
+    public record Match(String name, int distance, List<String> productIds) {
+    }
+
+    private static final class Node {
+        final String name;
+        Map<Integer, Node> children;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.management.project.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.management.project.dto.PriceBucket;
+import com.management.project.dto.PriceHistogram;
+import com.management.project.entity.ProductInformation;
+
+/**
+ * In-memory index of product ids ordered by price. Reads are lock-free; writes
+ * are serialized so both maps stay consistent.
+ */
+@Component
+@ConditionalOnProperty(name = "product.index.price.enabled", havingValue = "true")
+public class PriceIndex implements ProductIndex {
+
+    private final ConcurrentSkipListMap<Double, Set<String>> idsByPrice = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<String, Double> priceById = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public synchronized void productSaved(ProductInformation previous, ProductInformation current) {
+        Double old = priceById.put(current.getId(), current.getPrice());
+        if (old != null) {
+            if (old == current.getPrice()) {
+                return;
+            }
+            remove(old, current.getId());
+        }
+        idsByPrice.computeIfAbsent(current.getPrice(), price -> ConcurrentHashMap.newKeySet()).add(current.getId());
+    }
+
+    @Override
+    public synchronized void productDeleted(ProductInformation product) {
+        Double old = priceById.remove(product.getId());
+        if (old != null) {
+            remove(old, product.getId());
+        }
+    }
+
+    private void remove(double price, String id) {
+        Set<String> ids = idsByPrice.get(price);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByPrice.remove(price);
+            }
+        }
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the number of indexed products
+     */
+    public long size() {
+        return priceById.size();
+    }
+
+    /**
+     * Returns the ids of the cheapest (or most expensive) products in a price
+     * range, walking the index in price order and stopping after the limit.
+     * Both bounds are excluded, as in the repository's price range queries.
+     *
+     * @param minPrice   the minimum price, exclusive
+     * @param maxPrice   the maximum price, exclusive
+     * @param descending true to start from the most expensive product
+     * @param limit      the maximum number of ids
+     * @return the ids in price order
+     */
+    public List<String> idsInPriceOrder(double minPrice, double maxPrice, boolean descending, int limit) {
+        if (minPrice >= maxPrice) {
+            return List.of();
+        }
+        NavigableMap<Double, Set<String>> range = idsByPrice.subMap(minPrice, false, maxPrice, false);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        List<String> ids = new ArrayList<>(Math.min(limit, 1024));
+        for (Set<String> atPrice : range.values()) {
+            for (String id : atPrice) {
+                if (ids.size() == limit) {
+                    return ids;
+                }
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Builds a price histogram. With bounds the range is split into buckets of
+     * equal width; without bounds the catalog is split into buckets holding
+     * roughly the same number of products, like {@code $bucketAuto}.
+     *
+     * @param buckets  the number of buckets
+     * @param minPrice the lower bound, inclusive, or null
+     * @param maxPrice the upper bound, inclusive, or null
+     * @return the histogram
+     */
+    public PriceHistogram histogram(int buckets, Double minPrice, Double maxPrice) {
+        if (minPrice != null && maxPrice != null) {
+            return equalWidth(buckets, minPrice, maxPrice);
+        }
+        return equalCount(buckets);
+    }
+
+    private PriceHistogram equalWidth(int buckets, double minPrice, double maxPrice) {
+        double width = (maxPrice - minPrice) / buckets;
+        long[] counts = new long[buckets];
+        long total = 0;
+        for (Map.Entry<Double, Set<String>> entry : idsByPrice.subMap(minPrice, true, maxPrice, true).entrySet()) {
+            int bucket = width == 0 ? 0 : (int) Math.min(buckets - 1, (entry.getKey() - minPrice) / width);
+            int size = entry.getValue().size();
+            counts[bucket] += size;
+            total += size;
+        }
+        List<PriceBucket> result = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            double lower = minPrice + i * width;
+            double upper = i == buckets - 1 ? maxPrice : lower + width;
+            result.add(new PriceBucket(lower, upper, counts[i]));
+        }
+        return new PriceHistogram(result, total);
+    }
+
+    private PriceHistogram equalCount(int buckets) {
+        NavigableMap<Double, Set<String>> prices = idsByPrice;
+        long total = size();
+        long perBucket = Math.max(1, (total + buckets - 1) / buckets);
+        List<PriceBucket> result = new ArrayList<>(buckets);
+        double lower = 0;
+        double last = 0;
+        long count = 0;
+        long seen = 0;
+        for (Map.Entry<Double, Set<String>> entry : prices.entrySet()) {
+            if (count == 0) {
+                lower = entry.getKey();
+            } else if (count >= perBucket && result.size() < buckets - 1) {
+                result.add(new PriceBucket(lower, entry.getKey(), count));
+                lower = entry.getKey();
+                count = 0;
+            }
+            int size = entry.getValue().size();
+            count += size;
+            seen += size;
+            last = entry.getKey();
+        }
+        if (count > 0) {
+            result.add(new PriceBucket(lower, last, count));
+        }
+        return new PriceHistogram(result, seen);
+    }
+}
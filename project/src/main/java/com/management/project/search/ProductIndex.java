@@ -0,0 +1,27 @@
+package com.management.project.search;
+
+import com.management.project.service.ProductChangeListener;
+
+/**
+ * An in-memory structure over the catalog. It is filled by
+ * {@link ProductIndexLoader} at startup, which replays every stored product
+ * through {@link #productSaved}, and is kept current by product writes.
+ * <p>
+ * While the loader runs, a write can reach the index before or after the
+ * cursor replays the same product, so an index keys what it holds by product
+ * id and applies each event against its own copy: saving a product it already
+ * holds replaces it, and deleting or updating one it never saw must not undo
+ * anything else.
+ */
+public interface ProductIndex extends ProductChangeListener {
+
+    /**
+     * Called once every stored product has been replayed.
+     */
+    void loaded();
+
+    /**
+     * @return true once the index holds the whole catalog
+     */
+    boolean isReady();
+}
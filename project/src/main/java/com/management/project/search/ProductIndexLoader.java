@@ -0,0 +1,126 @@
+package com.management.project.search;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.ProductRepository;
+import com.management.project.service.ProductChangeListener;
+
+/**
+ * Fills every {@link ProductIndex} with one pass over the collection.
+ * <p>
+ * The service takes writes while the pass runs, and the indexes apply them as
+ * they happen. This loader hears about each write first and remembers, per id,
+ * the version the indexes were given; a row the cursor read before that write
+ * is then skipped instead of overwriting it with older data or bringing back a
+ * deleted product. A row read after its write but replayed before the write is
+ * marked is harmless, as every index keys its contents by id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProductIndexLoader implements ProductChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexLoader.class);
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+
+    private final List<ProductIndex> indexes;
+
+    // the newest version of each id written while loading, null when not loading
+    private volatile Map<String, Long> written;
+
+    private final Object[] locks = new Object[64];
+
+    public ProductIndexLoader(ProductRepository productRepository, ObjectProvider<ProductIndex> indexes) {
+        this.productRepository = productRepository;
+        this.indexes = indexes.orderedStream().toList();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long count = 0;
+        long skipped = 0;
+        written = new ConcurrentHashMap<>();
+        try (Stream<ProductInformation> products = productRepository.streamAllBy()) {
+            Iterator<ProductInformation> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductInformation product = iterator.next();
+                if (replay(product)) {
+                    count++;
+                } else {
+                    skipped++;
+                }
+            }
+        } finally {
+            written = null;
+        }
+        indexes.forEach(ProductIndex::loaded);
+        log.info("Loaded {} products into {} indexes in {} ms, {} rows skipped for newer writes", count,
+                indexes.size(), System.currentTimeMillis() - start, skipped);
+    }
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        markWritten(current.getId(), version(current));
+    }
+
+    @Override
+    public void productDeleted(ProductInformation product) {
+        markWritten(product.getId(), DELETED);
+    }
+
+    private boolean replay(ProductInformation product) {
+        // under the id's lock, so a write is either marked before the check or applied after the replay
+        synchronized (lockFor(product.getId())) {
+            Map<String, Long> marks = written;
+            Long mark = marks == null ? null : marks.get(product.getId());
+            if (mark != null && mark >= version(product)) {
+                return false;
+            }
+            for (ProductIndex index : indexes) {
+                index.productSaved(null, product);
+            }
+            return true;
+        }
+    }
+
+    private void markWritten(String id, long version) {
+        Map<String, Long> marks = written;
+        if (marks == null) {
+            return;
+        }
+        synchronized (lockFor(id)) {
+            marks.merge(id, version, Math::max);
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[Math.floorMod(id.hashCode(), locks.length)];
+    }
+
+    private static long version(ProductInformation product) {
+        return product.getLastModified() == null ? 0 : product.getLastModified().getTime();
+    }
+}
@@ -0,0 +1,381 @@
+package com.management.project.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Prefix suggestions over product names, backed by a compressed trie. Every node
+ * keeps its top completions (most common names first), so a lookup is a walk
+ * down the prefix followed by a copy of a precomputed list. Writes update the
+ * completions along the changed path only. Each product's indexed name is kept
+ * by id, and a write is applied against it rather than against the previous
+ * state the event carries. The size metrics come from a walk of the whole trie,
+ * so they are refreshed at most every 30 seconds.
+ */
+@Component
+@ConditionalOnProperty(name = "product.index.suggest.enabled", havingValue = "true")
+public class SuggestionIndex implements ProductIndex {
+
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+
+    private static final long STATS_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final int topK;
+
+    private final Node root = new Node("");
+
+    // the indexed name of each product, so a replayed or out-of-date event is not counted twice
+    private final Map<String, String> nameById = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    private volatile Stats cachedStats;
+
+    private volatile long statsComputedAt;
+
+    public SuggestionIndex(@Value("${product.index.suggest.top-k:10}") int topK, MeterRegistry meterRegistry) {
+        this.topK = topK;
+        Gauge.builder("product.suggest.names", this, index -> index.cachedStats().names()).register(meterRegistry);
+        Gauge.builder("product.suggest.nodes", this, index -> index.cachedStats().nodes()).register(meterRegistry);
+        Gauge.builder("product.suggest.memory", this, index -> index.cachedStats().estimatedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        String newName = normalize(current.getName());
+        lock.writeLock().lock();
+        try {
+            String oldName = newName == null ? nameById.remove(current.getId())
+                    : nameById.put(current.getId(), newName);
+            if (Objects.equals(oldName, newName)) {
+                return;
+            }
+            if (oldName != null) {
+                remove(oldName);
+            }
+            if (newName != null) {
+                add(newName, current.getName().trim());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(ProductInformation product) {
+        lock.writeLock().lock();
+        try {
+            String name = nameById.remove(product.getId());
+            if (name != null) {
+                remove(name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the most common product names starting with a prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of suggestions, at most the configured top-K
+     * @return the suggested names
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null) {
+            key = "";
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children == null ? null : node.children.get(key.charAt(position));
+                if (child == null) {
+                    return List.of();
+                }
+                int matched = commonPrefix(child.label, key, position);
+                if (position + matched == key.length()) {
+                    node = child;
+                    break;
+                }
+                if (matched < child.label.length()) {
+                    return List.of();
+                }
+                position += matched;
+                node = child;
+            }
+            int count = Math.min(limit, node.top.length);
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(node.top[i].display);
+            }
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the trie and estimates its heap footprint.
+     *
+     * @return the size of the trie
+     */
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[3];
+            measure(root, totals);
+            return new Stats(totals[0], totals[1], totals[2]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the stats of a recent walk, shared by the gauges of one scrape
+     */
+    Stats cachedStats() {
+        Stats stats = cachedStats;
+        long now = System.nanoTime();
+        if (stats == null || now - statsComputedAt > STATS_MAX_AGE_NANOS) {
+            synchronized (this) {
+                stats = cachedStats;
+                if (stats == null || now - statsComputedAt > STATS_MAX_AGE_NANOS) {
+                    stats = stats();
+                    cachedStats = stats;
+                    statsComputedAt = System.nanoTime();
+                }
+            }
+        }
+        return stats;
+    }
+
+    private void add(String key, String display) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            char next = key.charAt(position);
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.children.put(next, child);
+                node = child;
+                position = key.length();
+            } else {
+                int matched = commonPrefix(child.label, key, position);
+                if (matched < child.label.length()) {
+                    child = split(node, child, matched);
+                }
+                node = child;
+                position += matched;
+            }
+            path.add(node);
+        }
+        if (node.completion == null) {
+            node.completion = new Completion(display);
+        }
+        node.completion.count++;
+        refresh(path);
+    }
+
+    private void remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.children == null ? null : node.children.get(key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                return;
+            }
+            position += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        if (node.completion == null) {
+            return;
+        }
+        if (--node.completion.count == 0) {
+            node.completion = null;
+            prune(path);
+        }
+        refresh(path);
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children = new HashMap<>(4);
+        middle.children.put(child.label.charAt(0), child);
+        middle.top = child.top;
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    /**
+     * Removes a leaf that no longer completes any name and merges a node left with
+     * a single child into that child.
+     */
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.completion != null) {
+                return;
+            }
+            int children = node.children == null ? 0 : node.children.size();
+            if (children == 0) {
+                parent.children.remove(node.label.charAt(0));
+                path.remove(i);
+                continue;
+            }
+            if (children == 1) {
+                Node only = node.children.values().iterator().next();
+                only.label = node.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                path.set(i, only);
+            }
+            return;
+        }
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            node.top = topCompletions(node);
+        }
+    }
+
+    private Completion[] topCompletions(Node node) {
+        List<Completion> candidates = new ArrayList<>();
+        if (node.completion != null) {
+            candidates.add(node.completion);
+        }
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                for (Completion completion : child.top) {
+                    candidates.add(completion);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return NO_COMPLETIONS;
+        }
+        candidates.sort(null);
+        return candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_COMPLETIONS);
+    }
+
+    private void measure(Node node, long[] totals) {
+        totals[1]++;
+        // object header and fields, label string, top array
+        long bytes = 32 + 40 + 2L * node.label.length() + 16 + 4L * node.top.length;
+        if (node.completion != null) {
+            totals[0]++;
+            bytes += 24 + 40 + 2L * node.completion.display.length();
+        }
+        if (node.children != null) {
+            bytes += 64 + 48L * node.children.size();
+            for (Node child : node.children.values()) {
+                measure(child, totals);
+            }
+        }
+        totals[2] += bytes;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.length() == 0 ? null : normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The number of distinct names, trie nodes and the estimated heap size.
+     */
+    public record Stats(long names, long nodes, long estimatedBytes) {
+    }
+
+    private static final class Node {
+        String label;
+        Map<Character, Node> children;
+        Completion completion;
+        Completion[] top = NO_COMPLETIONS;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Completion implements Comparable<Completion> {
+        final String display;
+        int count;
+
+        Completion(String display) {
+            this.display = display;
+        }
+
+        @Override
+        public int compareTo(Completion other) {
+            int byCount = Integer.compare(other.count, count);
+            return byCount != 0 ? byCount : display.compareTo(other.display);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.management.project.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Inverted index over product names and descriptions with BM25 ranking. Name
+ * terms count twice as much as description terms. Queries are evaluated term
+ * at a time, highest-impact terms first; once the remaining terms cannot lift a
+ * new product into the top results, only already-seen products are scored
+ * (MaxScore early termination).
+ */
+@Component
+@ConditionalOnProperty(name = "product.index.text.enabled", havingValue = "true")
+public class TextIndex implements ProductIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+
+    private final Map<String, Map<String, Integer>> termsByProduct = new HashMap<>();
+
+    private final Map<String, Integer> lengthByProduct = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        Map<String, Integer> terms = termFrequencies(current);
+        lock.writeLock().lock();
+        try {
+            remove(current.getId());
+            add(current.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(ProductInformation product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ranks products against a free text query.
+     *
+     * @param query the query text
+     * @param limit the number of results
+     * @return the best matching products, best first
+     */
+    public List<Hit> search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        lock.readLock().lock();
+        try {
+            int documents = lengthByProduct.size();
+            if (documents == 0 || queryTerms.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents;
+
+            List<Term> terms = new ArrayList<>();
+            for (String token : queryTerms) {
+                Map<String, Integer> list = postings.get(token);
+                if (list != null) {
+                    double idf = Math.log(1 + (documents - list.size() + 0.5) / (list.size() + 0.5));
+                    terms.add(new Term(list, idf, idf * (K1 + 1)));
+                }
+            }
+            terms.sort(Comparator.comparingDouble(Term::upperBound).reversed());
+            double remaining = 0;
+            for (Term term : terms) {
+                remaining += term.upperBound();
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            double threshold = 0;
+            for (Term term : terms) {
+                remaining = Math.max(0, remaining - term.upperBound());
+                // a product not seen yet can score at most this term plus the rest
+                boolean admitNew = scores.size() < limit || threshold < term.upperBound() + remaining;
+                if (admitNew) {
+                    for (Map.Entry<String, Integer> posting : term.postings().entrySet()) {
+                        scores.merge(posting.getKey(), score(term, posting.getValue(),
+                                lengthByProduct.get(posting.getKey()), averageLength), Double::sum);
+                    }
+                } else {
+                    for (Map.Entry<String, Double> candidate : scores.entrySet()) {
+                        Integer frequency = term.postings().get(candidate.getKey());
+                        if (frequency != null) {
+                            candidate.setValue(candidate.getValue()
+                                    + score(term, frequency, lengthByProduct.get(candidate.getKey()), averageLength));
+                        }
+                    }
+                }
+                threshold = kthScore(scores, limit);
+                if (scores.size() > limit) {
+                    // drop products that can no longer reach the top results
+                    double ceiling = remaining;
+                    double floor = threshold;
+                    scores.values().removeIf(score -> score + ceiling < floor);
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(String productId, Map<String, Integer> terms) {
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(productId, term.getValue());
+            length += term.getValue();
+        }
+        termsByProduct.put(productId, terms);
+        lengthByProduct.put(productId, length);
+        totalLength += length;
+    }
+
+    private void remove(String productId) {
+        Map<String, Integer> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<String, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengthByProduct.remove(productId);
+    }
+
+    private static double score(Term term, int frequency, int length, double averageLength) {
+        double norm = K1 * (1 - B + B * length / averageLength);
+        return term.idf() * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private static double kthScore(Map<String, Double> scores, int k) {
+        if (scores.size() < k) {
+            return 0;
+        }
+        PriorityQueue<Double> heap = new PriorityQueue<>(k);
+        for (double score : scores.values()) {
+            if (heap.size() < k) {
+                heap.add(score);
+            } else if (score > heap.peek()) {
+                heap.poll();
+                heap.add(score);
+            }
+        }
+        return heap.peek();
+    }
+
+    private static List<Hit> top(Map<String, Double> scores, int k) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::score));
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            heap.add(new Hit(entry.getKey(), entry.getValue()));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits;
+    }
+
+    private static Map<String, Integer> termFrequencies(ProductInformation product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(product.getDescription())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A ranked product id.
+     */
+    public record Hit(String productId, double score) {
+    }
+
+    private record Term(Map<String, Integer> postings, double idf, double upperBound) {
+    }
+}
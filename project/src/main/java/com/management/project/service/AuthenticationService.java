@@ -1,11 +1,10 @@
 package com.management.project.service;
 
 
-import java.util.HashMap;
+import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.management.project.dto.JwtResponse;
@@ -13,10 +12,16 @@ import com.management.project.dto.RefreshTokenRequest;
 import com.management.project.dto.SignInRequest;
 import com.management.project.dto.SignUpRequest;
 import com.management.project.entity.User;
+import com.management.project.exception.BadRequest;
 import com.management.project.enums.Role;
+import com.management.project.exception.ServiceUnavailable;
 import com.management.project.exception.UserNotFoundException;
 import com.management.project.repository.UserRepository;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
 
 
 @Service
@@ -25,17 +30,24 @@ public class AuthenticationService {
     @Autowired
     UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
 
     private final JwtService jwtService;
 
-    public AuthenticationService(PasswordEncoder passwordEncoder,JwtService jwtService) {
-        this.passwordEncoder = passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+
+    private final RefreshTokenService refreshTokenService;
+
+    public AuthenticationService(PasswordHashingService passwordHashingService,JwtService jwtService,
+            TokenRevocationService tokenRevocationService, RefreshTokenService refreshTokenService) {
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
     }
 
-    public User registerUser(SignUpRequest user)  {
+    public User registerUser(SignUpRequest user) throws ServiceUnavailable {
       try{
       User exist=  userRepository.findByEmail(user.getEmail());
         if(exist!=null){
@@ -44,28 +56,30 @@ public class AuthenticationService {
         User newUser = new User();
         newUser.setEmail(user.getEmail());
         newUser.setName(user.getFirstName() + " " + user.getLastName());
-        newUser.setPassword(passwordEncoder.encode(user.getPassword()));
+        newUser.setPassword(passwordHashingService.encode(user.getPassword()));
         if(user.getRole()!=null){
             newUser.setRole(user.getRole().equals("ADMIN") ? Role.ADMIN : Role.VENDOR);
         }
         userRepository.save(newUser);
         return newUser;
+    }catch(ServiceUnavailable e){
+        throw e;
     }catch(Exception e){
         return null;
     }
     }
 
 
-    public JwtResponse loginInUser(SignInRequest user) throws UserNotFoundException{
+    public JwtResponse loginInUser(SignInRequest user) throws UserNotFoundException, ServiceUnavailable{
             User userOptional = userRepository.findByEmail(user.getUsername());
-            if (!passwordEncoder.matches(user.getPassword(), userOptional.getPassword())) {
-                throw new UsernameNotFoundException("User not found");
-            }
             if (userOptional == null) {
                 throw new UserNotFoundException("User not found");
             }
+            if (!passwordHashingService.matches(user.getPassword(), userOptional.getPassword())) {
+                throw new UsernameNotFoundException("User not found");
+            }
             String token = jwtService.generateToken(userOptional);
-            String refreshToken = jwtService.generateRefreshToken(new HashMap<>(), userOptional);
+            String refreshToken = refreshTokenService.issue(userOptional);
 
             JwtResponse jwtResponse = new JwtResponse();
             jwtResponse.setToken(token);
@@ -75,18 +89,62 @@ public class AuthenticationService {
     }
 
     public JwtResponse refreshToken(RefreshTokenRequest refreshTokenRequest){
-        String username = jwtService.extractUsername(refreshTokenRequest.getToken());
-        User user = userRepository.findByEmail(username);
-        if(jwtService.isTokenValis(refreshTokenRequest.getToken(),user)){
+        Claims claims = jwtService.extractAllClaims(refreshTokenRequest.getToken());
+        User user = userRepository.findByEmail(claims.getSubject());
+        if(user != null && jwtService.isTokenValis(refreshTokenRequest.getToken(),user)
+                && !tokenRevocationService.isRevoked(claims)){
             String newToken = jwtService.generateToken(user);
 
             JwtResponse jwtResponse = new JwtResponse();
             jwtResponse.setToken(newToken);
-            jwtResponse.setRefreshToken(refreshTokenRequest.getToken());
+            jwtResponse.setRefreshToken(refreshTokenService.rotate(claims, user));
             return jwtResponse;
         }
         throw new UsernameNotFoundException("User not found");
     }
 
-    
+    /**
+     * Ends a session: revokes the refresh token and its family, and the access
+     * token when one is given. Without the access token it stays valid until it
+     * expires.
+     *
+     * @param refreshTokenRequest the refresh token of the session
+     * @param accessToken         the access token of the session, or null
+     * @throws BadRequest if the refresh token is malformed
+     */
+    public void logout(RefreshTokenRequest refreshTokenRequest, String accessToken) throws BadRequest {
+        Claims claims;
+        boolean expired = false;
+        try {
+            claims = jwtService.extractAllClaims(refreshTokenRequest.getToken());
+        } catch (ExpiredJwtException e) {
+            // the token itself is unusable, but newer tokens of its family are not
+            claims = e.getClaims();
+            expired = true;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadRequest("Invalid refresh token");
+        }
+        if (!expired) {
+            tokenRevocationService.revokeToken(claims);
+        }
+        String familyId = claims.get(RefreshTokenService.FAMILY_CLAIM, String.class);
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId);
+        }
+        if (accessToken != null) {
+            try {
+                tokenRevocationService.revokeToken(jwtService.extractAllClaims(accessToken));
+            } catch (JwtException | IllegalArgumentException e) {
+                // an expired or invalid access token cannot be used anyway
+            }
+        }
+    }
+
+    public void revokeAllTokens(String email) throws UserNotFoundException{
+        if (userRepository.findByEmail(email) == null) {
+            throw new UserNotFoundException("User not found");
+        }
+        tokenRevocationService.revokeUser(email, new Date());
+    }
+
 }
@@ -0,0 +1,225 @@
+package com.management.project.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.management.project.entity.IdempotencyRecord;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.IdempotencyRecordRepository;
+
+/**
+ * Makes retried writes safe. The first request with an Idempotency-Key runs and
+ * its response is stored; a retry with the same key gets the stored response
+ * without running again. Keys are scoped to the caller and the operation.
+ * Only successful responses are stored; after an error response or exception
+ * a retry runs the write again. Stored responses are kept in a TTL collection, with the most recent
+ * ones cached in memory.
+ * <p>
+ * A running request holds its key for a short lease only, so the key of a
+ * request that died with its instance can be reused once the lease runs out.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final long ttlMillis;
+
+    private final long leaseMillis;
+
+    private final Map<String, IdempotencyRecord> recent;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.lease:1m}") Duration lease,
+            @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.leaseMillis = lease.toMillis();
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * A write run under a key. The exceptions it throws reach the caller.
+     */
+    @FunctionalInterface
+    public interface Write {
+
+        ResponseEntity<?> run() throws BadRequest, ServiceUnavailable;
+    }
+
+    /**
+     * Runs a write at most once per key.
+     *
+     * @param key       the Idempotency-Key header, or null to just run the write
+     * @param operation the operation, so one key cannot replay another endpoint
+     * @param request   the request, a retry must send the same one
+     * @param write     the write, returning its response
+     * @return the response of the write, or the stored response for a retry
+     * @throws BadRequest         if the write throws it
+     * @throws ServiceUnavailable if the write throws it
+     */
+    public ResponseEntity<?> execute(String key, String operation, Object request, Write write)
+            throws BadRequest, ServiceUnavailable {
+        if (key == null || key.isBlank()) {
+            return write.run();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = caller() + ":" + operation + ":" + key;
+        String requestHash = hash(request);
+
+        IdempotencyRecord stored = recent.get(id);
+        Date leaseUntil = new Date(System.currentTimeMillis() + leaseMillis);
+        if (stored == null || stored.getExpiresAt().getTime() < System.currentTimeMillis()) {
+            try {
+                repository.insert(new IdempotencyRecord(id, requestHash, leaseUntil));
+                stored = null;
+            } catch (DuplicateKeyException e) {
+                if (takeOverExpired(id, requestHash, leaseUntil)) {
+                    stored = null;
+                } else {
+                    Optional<IdempotencyRecord> existing = repository.findById(id);
+                    if (existing.isEmpty()) {
+                        // expired between the insert and the read
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body("Please retry the request");
+                    }
+                    stored = existing.get();
+                }
+            }
+        }
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = write.run();
+        } catch (BadRequest | ServiceUnavailable | RuntimeException e) {
+            release(id, leaseUntil);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            // only successes are replayed, a retry after an error runs the write again
+            release(id, leaseUntil);
+            return response;
+        }
+        IdempotencyRecord record = new IdempotencyRecord(id, requestHash,
+                new Date(System.currentTimeMillis() + ttlMillis));
+        record.setStatus(response.getStatusCode().value());
+        Object body = response.getBody();
+        if (body instanceof String text) {
+            record.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            record.setBody(text);
+        } else if (body != null) {
+            record.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            record.setBody(toJson(body));
+        }
+        repository.save(record);
+        recent.put(id, record);
+        return response;
+    }
+
+    /**
+     * Claims a record the TTL monitor has not removed yet, such as the lease of
+     * a request that never finished.
+     */
+    private boolean takeOverExpired(String id, String requestHash, Date leaseUntil) {
+        Query expired = Query.query(Criteria.where("_id").is(id).and("expiresAt").lt(new Date()));
+        Update claim = Update.update("requestHash", requestHash).set("expiresAt", leaseUntil)
+                .unset("status").unset("contentType").unset("body");
+        return mongoTemplate.findAndModify(expired, claim, IdempotencyRecord.class) != null;
+    }
+
+    // only while the record is still this request's lease, another request may have taken it over
+    private void release(String id, Date leaseUntil) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id).and("status").is(null)
+                .and("expiresAt").is(leaseUntil)), IdempotencyRecord.class);
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(HEADER + " was already used for a different request");
+        }
+        if (stored.getStatus() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A request with this " + HEADER + " is still running");
+        }
+        recent.put(stored.getId(), stored);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.getBody() == null) {
+            return response.build();
+        }
+        return response.contentType(MediaType.parseMediaType(stored.getContentType())).body(stored.getBody());
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
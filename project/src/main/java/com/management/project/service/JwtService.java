@@ -4,6 +4,7 @@ package com.management.project.service;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.UUID;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -19,8 +20,18 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    public static final long REFRESH_TOKEN_VALIDITY_MILLIS = 604800000;
+
+    public static final String TOKEN_TYPE_CLAIM = "type";
+
+    public static final String ACCESS_TOKEN = "access";
+
+    public static final String REFRESH_TOKEN = "refresh";
+
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 //set for one day
@@ -30,10 +41,13 @@ public class JwtService {
     }
 
     public String generateRefreshToken(HashMap<String,Object> claims,UserDetails userDetails) {
-        return Jwts.builder().setClaims(claims)
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .addClaims(claims)
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 604800000))
+                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_VALIDITY_MILLIS))
                 .signWith(getSignatureKey(),SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -42,12 +56,23 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
         final Claims claims = extractAllClaims(token);
         return claimsResolvers.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    /**
+     * @return true if the claims are those of a refresh token
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSignatureKey())
                 .build()
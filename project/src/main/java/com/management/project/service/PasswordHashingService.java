@@ -0,0 +1,126 @@
+package com.management.project.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.management.project.exception.ServiceUnavailable;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing and matching on a small dedicated pool. The request
+ * thread still waits for its hash, but at most {@code threads + queue-capacity}
+ * request threads wait at once, each for at most the timeout; further logins
+ * and signups are rejected right away, so a burst of them cannot take the
+ * request threads that serve the catalog. Keep the queue small: a queued hash
+ * waits for {@code queue-capacity / threads} hashes ahead of it.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchTimer;
+
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:2}") int threads,
+            @Value("${auth.hashing.queue-capacity:4}") int queueCapacity,
+            @Value("${auth.hashing.timeout:2s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hash").tag("operation", "match").register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     * @throws ServiceUnavailable if the hashing pool is saturated
+     */
+    public String encode(String rawPassword) throws ServiceUnavailable {
+        return submit(() -> timed(encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks a raw password against an encoded one.
+     *
+     * @param rawPassword     the password given by the user
+     * @param encodedPassword the stored password
+     * @return true if the passwords match
+     * @throws ServiceUnavailable if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) throws ServiceUnavailable {
+        return submit(() -> timed(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    private static <T> T timed(Timer timer, Supplier<T> operation) {
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T submit(Callable<T> task) throws ServiceUnavailable {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailable("Too many authentication requests, try again later");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailable("Authentication timed out, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailable("Authentication interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,268 @@
+package com.management.project.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.management.project.dto.PriceChange;
+import com.management.project.entity.PriceHistoryBucket;
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the price history of products. Price changes are queued on the writing
+ * thread and appended by a single background writer to bucket documents of up
+ * to {@code product.price-history.bucket-size} changes. A product's buckets are
+ * numbered and only the last one is appended to, so instances writing the same
+ * product fill one bucket before any of them opens the next.
+ * <p>
+ * Recording never holds up the write: a change that does not fit in the queue
+ * is dropped and counted. A failed append is retried until it succeeds or the
+ * service shuts down.
+ */
+@Service
+public class PriceHistoryService implements ProductChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    private static final int MAX_LIMIT = 10000;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+
+    // the open bucket of the products written lately, only used by the writer thread
+    private static final int MAX_OPEN_BUCKETS = 10000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final ExecutorService writer;
+
+    private final int bucketSize;
+
+    private final int batchSize;
+
+    private final Counter dropped;
+
+    private final Map<String, OpenBucket> openBuckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OpenBucket> eldest) {
+            return size() > MAX_OPEN_BUCKETS;
+        }
+    };
+
+    private volatile boolean running = true;
+
+    public PriceHistoryService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${product.price-history.bucket-size:200}") int bucketSize,
+            @Value("${product.price-history.queue-capacity:10000}") int queueCapacity,
+            @Value("${product.price-history.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketSize = bucketSize;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = Counter.builder("product.price-history.dropped").register(meterRegistry);
+        Gauge.builder("product.price-history.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        // one writer keeps each product's changes in order
+        this.writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("product-price-history-"));
+        this.writer.execute(this::writeLoop);
+    }
+
+    private record Pending(String productId, String vendorId, PriceChange change) {
+    }
+
+    // the number of the product's last bucket and how many changes it held when last seen
+    private record OpenBucket(int seq, int count) {
+    }
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        if (previous != null && previous.getPrice() == current.getPrice()) {
+            return;
+        }
+        Date at = current.getLastModified() != null ? current.getLastModified() : new Date();
+        PriceChange change = new PriceChange(at, current.getPrice(), previous == null ? null : previous.getPrice());
+        if (!running || !queue.offer(new Pending(current.getId(), current.getVendorId(), change))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the price changes of a product within a time range, oldest first.
+     *
+     * @param productId the product
+     * @param from      the start of the range, or null for the first change
+     * @param to        the end of the range, or null for now
+     * @param limit     the maximum number of changes
+     * @return the changes made in the range
+     * @throws BadRequest if the range or the limit is invalid
+     */
+    public List<PriceChange> history(String productId, Instant from, Instant to, int limit) throws BadRequest {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        Date start = from == null ? new Date(0) : Date.from(from);
+        Date end = to == null ? new Date() : Date.from(to);
+        if (start.after(end)) {
+            throw new BadRequest("The start of the range must not be after its end");
+        }
+
+        // a change that arrived late lands in a later bucket, so buckets may overlap in time and
+        // every bucket overlapping the range is read
+        Criteria range = Criteria.where("productId").is(productId).and("last").gte(start).and("first").lte(end);
+        String vendor = VendorScope.current();
+        if (vendor != null) {
+            range.and("vendorId").is(vendor);
+        }
+        Query buckets = Query.query(range).with(Sort.by(Sort.Direction.ASC, "last"));
+
+        Comparator<PriceChange> oldestFirst = Comparator.comparing(PriceChange::getAt);
+        List<PriceChange> changes = new ArrayList<>();
+        try (Stream<PriceHistoryBucket> stream = mongoTemplate.stream(buckets, PriceHistoryBucket.class)) {
+            Iterator<PriceHistoryBucket> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                for (PriceChange change : iterator.next().getChanges()) {
+                    if (!change.getAt().before(start) && !change.getAt().after(end)) {
+                        changes.add(change);
+                    }
+                }
+                // only the oldest changes are returned, so a long history is read without holding all of it
+                if (changes.size() > 2 * limit) {
+                    changes.sort(oldestFirst);
+                    changes.subList(limit, changes.size()).clear();
+                }
+            }
+        }
+        changes.sort(oldestFirst);
+        if (changes.size() > limit) {
+            changes.subList(limit, changes.size()).clear();
+        }
+        return changes;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            int recorded = 0;
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Pending pending : batch) {
+                    appendWithRetry(pending);
+                    recorded++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                int lost = batch.size() - recorded + queue.size();
+                log.error("Stopped with {} price changes not recorded", lost);
+                dropped.increment(lost);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // the queue fills up while the store is down, and changes are then dropped
+    private void appendWithRetry(Pending pending) throws InterruptedException {
+        long delay = 100;
+        while (true) {
+            try {
+                append(pending);
+                return;
+            } catch (RuntimeException e) {
+                openBuckets.remove(pending.productId());
+                log.warn("Failed to record the price change of product {}, retrying in {} ms",
+                        pending.productId(), delay, e);
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void append(Pending pending) {
+        Date at = pending.change().getAt();
+        OpenBucket open = openBuckets.get(pending.productId());
+        if (open == null) {
+            open = lastBucket(pending.productId());
+        }
+        while (true) {
+            int seq = open.count() < bucketSize ? open.seq() : open.seq() + 1;
+            try {
+                // a full bucket does not match, so the upsert tries to insert its id again and fails
+                mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(bucketId(pending.productId(), seq))
+                                .and("count").lt(bucketSize)),
+                        new Update().push("changes", pending.change())
+                                .inc("count", 1)
+                                .min("first", at)
+                                .max("last", at)
+                                .setOnInsert("productId", pending.productId())
+                                .setOnInsert("vendorId", pending.vendorId())
+                                .setOnInsert("seq", seq),
+                        PriceHistoryBucket.class);
+                int count = seq == open.seq() ? open.count() + 1 : 1;
+                openBuckets.put(pending.productId(), new OpenBucket(seq, count));
+                return;
+            } catch (DuplicateKeyException e) {
+                // filled, or just opened, by another instance
+                open = lastBucket(pending.productId());
+            }
+        }
+    }
+
+    private OpenBucket lastBucket(String productId) {
+        Query last = Query.query(Criteria.where("productId").is(productId))
+                .with(Sort.by(Sort.Direction.DESC, "seq"))
+                .limit(1);
+        last.fields().include("seq", "count");
+        PriceHistoryBucket bucket = mongoTemplate.findOne(last, PriceHistoryBucket.class);
+        return bucket == null ? new OpenBucket(0, 0) : new OpenBucket(bucket.getSeq(), bucket.getCount());
+    }
+
+    static String bucketId(String productId, int seq) {
+        return productId + ":" + seq;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // stop taking changes, then let the writer record what is queued
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.management.project.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.management.project.dto.ProductChangeEvent;
+import com.management.project.entity.ProductInformation;
+import com.management.project.enums.ChangeType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes product writes to Server-Sent Events subscribers. Every event gets a
+ * sequence number and the most recent events are kept in a ring buffer, so a
+ * client that reconnects with its last event id only receives what it missed.
+ * Each subscriber has a bounded queue drained by a small pool; a subscriber
+ * that falls too far behind is disconnected and resumes from its last event.
+ */
+@Service
+public class ProductChangeFeed implements ProductChangeListener {
+
+    // distinguishes ids issued before a restart, whose sequence numbers are gone
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ProductChangeEvent[] ring;
+
+    private long sequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ThreadPoolExecutor executor;
+
+    private final int queueCapacity;
+
+    private final long timeoutMillis;
+
+    private final Counter overflows;
+
+    public ProductChangeFeed(MeterRegistry meterRegistry,
+            @Value("${product.feed.buffer-size:10000}") int bufferSize,
+            @Value("${product.feed.queue-capacity:1000}") int queueCapacity,
+            @Value("${product.feed.threads:4}") int threads,
+            @Value("${product.feed.timeout:1800000}") long timeoutMillis) {
+        this.ring = new ProductChangeEvent[bufferSize];
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("product-feed-"));
+        this.overflows = Counter.builder("product.feed.overflows").register(meterRegistry);
+        Gauge.builder("product.feed.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    @Override
+    public void productSaved(ProductInformation previous, ProductInformation current) {
+        publish(previous == null ? ChangeType.ADDED : ChangeType.UPDATED, current.getId(), current);
+    }
+
+    @Override
+    public void productDeleted(ProductInformation product) {
+        publish(ChangeType.DELETED, product.getId(), null);
+    }
+
+    private synchronized void publish(ChangeType type, String productId, ProductInformation product) {
+        ProductChangeEvent event = new ProductChangeEvent(++sequence, type, productId, product,
+                System.currentTimeMillis());
+        ring[(int) (event.getSequence() % ring.length)] = event;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                overflows.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Opens a subscription. Events after the given id are replayed first when
+     * they are still buffered; otherwise the client gets a {@code reset} event
+     * and should reload the catalog before applying further events.
+     *
+     * @param lastEventId the id of the last event the client received, or null to start from now
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        String resetTo = null;
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long after = resumeFrom(lastEventId);
+                if (after < 0) {
+                    resetTo = id(sequence);
+                } else {
+                    for (long next = after + 1; next <= sequence; next++) {
+                        subscriber.queue.add(ring[(int) (next % ring.length)]);
+                    }
+                }
+            }
+            // a long replay must not count as falling behind
+            subscriber.capacity = queueCapacity + subscriber.queue.size();
+            subscriber.scheduled = true;
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        if (resetTo != null) {
+            try {
+                emitter.send(SseEmitter.event().id(resetTo).name("reset").data(resetTo));
+            } catch (IOException e) {
+                subscriber.close();
+                return emitter;
+            }
+        }
+        executor.execute(subscriber::drain);
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * @return the sequence to resume after, or -1 if the events are no longer buffered
+     */
+    private long resumeFrom(String lastEventId) {
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (after > sequence || after < sequence - ring.length) {
+            return -1;
+        }
+        return after;
+    }
+
+    private String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sends a comment to idle subscribers, so proxies keep the connection open
+     * and dead connections are noticed.
+     */
+    @Scheduled(fixedDelayString = "${product.feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        executor.shutdown();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final ArrayDeque<ProductChangeEvent> queue = new ArrayDeque<>();
+
+        private int capacity;
+
+        private boolean scheduled;
+
+        private boolean heartbeatDue;
+
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized boolean offer(ProductChangeEvent event) {
+            if (closed) {
+                return true;
+            }
+            if (queue.size() >= capacity) {
+                return false;
+            }
+            queue.add(event);
+            schedule();
+            return true;
+        }
+
+        private synchronized void heartbeat() {
+            if (!closed) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<ProductChangeEvent> batch;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (closed || (queue.isEmpty() && !heartbeatDue)) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(queue);
+                    queue.clear();
+                    sendHeartbeat = batch.isEmpty() && heartbeatDue;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    for (ProductChangeEvent event : batch) {
+                        emitter.send(SseEmitter.event().id(id(event.getSequence()))
+                                .name(event.getType().name().toLowerCase()).data(event, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.management.project.service;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * Callback for components that follow product writes made through
+ * {@link ProductService}. Listeners run on the writing thread after the write
+ * has been acknowledged, so they must be quick.
+ */
+public interface ProductChangeListener {
+
+    /**
+     * Called after a product was added or updated.
+     *
+     * @param previous the product before the write, or null if it was added
+     * @param current  the product as saved
+     */
+    default void productSaved(ProductInformation previous, ProductInformation current) {
+    }
+
+    /**
+     * Called after a product was deleted.
+     *
+     * @param product the deleted product
+     */
+    default void productDeleted(ProductInformation product) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.MongoRegexCreator;
+import org.springframework.stereotype.Service;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.dto.CatalogStatistics;
+import com.management.project.dto.PriceBucket;
+import com.management.project.dto.PriceHistogram;
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.PartitionedProductRepository;
+import com.management.project.repository.ProductRepository;
+import com.management.project.search.CatalogStatisticsIndex;
+import com.management.project.search.PriceIndex;
+
+/**
+ * Service class for price facets and catalog statistics.
+ */
+@Service
+public class ProductFacetService {
+
+    private static final int MAX_BUCKETS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ProductRepository productRepository;
+
+    private final ObjectProvider<PriceIndex> priceIndex;
+
+    private final ObjectProvider<CatalogStatisticsIndex> statisticsIndex;
+
+    private final boolean compact;
+
+    public ProductFacetService(MongoTemplate mongoTemplate, ProductRepository productRepository,
+            ObjectProvider<PriceIndex> priceIndex,
+            ObjectProvider<CatalogStatisticsIndex> statisticsIndex,
+            @Value("${product.storage.compact:false}") boolean compact) {
+        this.mongoTemplate = mongoTemplate;
+        this.productRepository = productRepository;
+        this.priceIndex = priceIndex;
+        this.statisticsIndex = statisticsIndex;
+        this.compact = compact;
+    }
+
+    /**
+     * Returns the price statistics of the whole catalog.
+     *
+     * @return the statistics
+     * @throws ServiceUnavailable if the statistics are disabled or still loading
+     */
+    public CatalogStatistics statistics() throws ServiceUnavailable {
+        CatalogStatisticsIndex index = statisticsIndex.getIfAvailable();
+        if (index == null || !index.isReady()) {
+            throw new ServiceUnavailable("Catalog statistics are not available yet");
+        }
+        return index.statistics();
+    }
+
+    /**
+     * Builds a price histogram for the products matching an optional name filter,
+     * only the caller's own when the caller is a vendor. For the whole catalog
+     * without a name filter the in-memory price index answers, if it is loaded;
+     * otherwise a single aggregation runs in Mongo. With partitioning the
+     * aggregation would read the empty main database, so the matching prices
+     * are read through the partitions instead.
+     *
+     * @param name     the name filter, or null
+     * @param buckets  the number of buckets
+     * @param minPrice the lower bound, or null for equal-count buckets
+     * @param maxPrice the upper bound, or null for equal-count buckets
+     * @return the histogram
+     * @throws BadRequest if the parameters are invalid
+     */
+    public PriceHistogram priceHistogram(String name, int buckets, Double minPrice, Double maxPrice)
+            throws BadRequest {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new BadRequest("Buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        if ((minPrice == null) != (maxPrice == null) || (minPrice != null && minPrice > maxPrice)) {
+            throw new BadRequest("Provide both minPrice and maxPrice, with minPrice not above maxPrice");
+        }
+        if (minPrice != null && minPrice.equals(maxPrice)) {
+            buckets = 1;
+        }
+        String vendor = VendorScope.current();
+        PriceIndex index = priceIndex.getIfAvailable();
+        if (vendor == null && (name == null || name.isBlank()) && index != null && index.isReady()) {
+            return index.histogram(buckets, minPrice, maxPrice);
+        }
+        if (productRepository instanceof PartitionedProductRepository) {
+            return partitioned(vendor, name, buckets, minPrice, maxPrice);
+        }
+        return aggregate(vendor, name, buckets, minPrice, maxPrice);
+    }
+
+    /**
+     * Loads the matching prices from every partition into a throwaway price
+     * index and builds the histogram from it, the same way as from a loaded one.
+     */
+    private PriceHistogram partitioned(String vendor, String name, int buckets, Double minPrice,
+            Double maxPrice) {
+        PriceIndex prices = new PriceIndex();
+        boolean named = name != null && !name.isBlank();
+        if (vendor != null) {
+            List<ProductInformation> products = named
+                    ? productRepository.findByVendorIdAndNameIgnoreCaseContaining(vendor, name)
+                    : productRepository.findByVendorId(vendor);
+            products.forEach(product -> prices.productSaved(null, product));
+        } else if (named) {
+            productRepository.findByNameIgnoreCaseContaining(name)
+                    .forEach(product -> prices.productSaved(null, product));
+        } else {
+            try (Stream<ProductInformation> products = productRepository.streamAllBy()) {
+                products.forEach(product -> prices.productSaved(null, product));
+            }
+        }
+        return prices.histogram(buckets, minPrice, maxPrice);
+    }
+
+    private PriceHistogram aggregate(String vendor, String name, int buckets, Double minPrice, Double maxPrice) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        Criteria criteria = new Criteria();
+        if (vendor != null) {
+            criteria.and("vendorId").is(vendor);
+        }
+        if (name != null && !name.isBlank()) {
+            criteria.and("name").regex(MongoRegexCreator.INSTANCE.toRegularExpression(name,
+                    MongoRegexCreator.MatchMode.CONTAINING), "i");
+        }
+        if (minPrice != null) {
+            criteria.and("price").gte(minPrice).lte(maxPrice);
+        }
+        operations.add(Aggregation.match(criteria));
+        double width = 0;
+        if (minPrice != null) {
+            width = (maxPrice - minPrice) / buckets;
+            // $bucket boundaries are exclusive at the top, keep maxPrice in the last bucket
+            Object top = compact ? (Object) (CompactStorageCodec.toMinorUnits(maxPrice) + 1)
+                    : (Object) Math.nextUp(maxPrice);
+            operations.add(Aggregation.bucket("price").withBoundaries(boundaries(minPrice, width, buckets, top))
+                    .andOutputCount().as("count"));
+        } else {
+            operations.add(Aggregation.bucketAuto("price", buckets).andOutputCount().as("count"));
+        }
+        TypedAggregation<ProductInformation> aggregation = Aggregation.newAggregation(ProductInformation.class,
+                operations);
+        List<Document> results = mongoTemplate.aggregate(aggregation, Document.class).getMappedResults();
+
+        if (minPrice == null) {
+            List<PriceBucket> result = new ArrayList<>(results.size());
+            long total = 0;
+            for (Document bucket : results) {
+                Document bounds = bucket.get("_id", Document.class);
+                long count = ((Number) bucket.get("count")).longValue();
+                result.add(new PriceBucket(price(bounds.get("min")), price(bounds.get("max")), count));
+                total += count;
+            }
+            return new PriceHistogram(result, total);
+        }
+
+        // $bucket omits empty buckets, so lay out every bucket and fill in the counts
+        long[] counts = new long[buckets];
+        long total = 0;
+        for (Document bucket : results) {
+            int index = (int) Math.min(buckets - 1,
+                    width == 0 ? 0 : Math.round((price(bucket.get("_id")) - minPrice) / width));
+            long count = ((Number) bucket.get("count")).longValue();
+            counts[index] += count;
+            total += count;
+        }
+        List<PriceBucket> result = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            double lower = minPrice + i * width;
+            result.add(new PriceBucket(lower, i == buckets - 1 ? maxPrice : lower + width, counts[i]));
+        }
+        return new PriceHistogram(result, total);
+    }
+
+    /**
+     * Lower bounds of the buckets, as stored, and the top. Buckets narrower than
+     * the stored precision round to the same bound, and $bucket needs strictly
+     * increasing boundaries, so repeated bounds are left out; their products are
+     * counted in the bucket the bound rounds to.
+     */
+    Object[] boundaries(double minPrice, double width, int buckets, Object top) {
+        List<Object> boundaries = new ArrayList<>(buckets + 1);
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i <= buckets; i++) {
+            Object bound = i == buckets ? top : stored(minPrice + i * width);
+            double value = ((Number) bound).doubleValue();
+            if (value > previous) {
+                boundaries.add(bound);
+                previous = value;
+            }
+        }
+        return boundaries.toArray();
+    }
+
+    private Object stored(double price) {
+        return compact ? (Object) CompactStorageCodec.toMinorUnits(price) : (Object) price;
+    }
+
+    private double price(Object stored) {
+        double value = ((Number) stored).doubleValue();
+        return compact ? CompactStorageCodec.fromMinorUnits((long) value) : value;
+    }
+}
@@ -0,0 +1,346 @@
+package com.management.project.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.management.project.dto.ImportRowError;
+import com.management.project.dto.ImportSummary;
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.util.CsvReader;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Imports products from a CSV upload. The file is parsed as a stream and runs
+ * through three stages connected by bounded queues: parsing, parallel
+ * validation, and batched bulk inserts. A full queue blocks the stage before
+ * it, so memory stays flat however large the file is. Rejected rows are
+ * reported while the import is still running.
+ */
+@Service
+public class ProductImportService {
+
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final Row END = new Row(-1, null, null);
+
+    private static final Object END_OF_REPORT = new Object();
+
+    private final ProductService productService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectProvider<ProductReadRouting> readRouting;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            new CustomizableThreadFactory("product-import-"));
+
+    private final Semaphore permits;
+
+    private final int validators;
+
+    private final int queueCapacity;
+
+    private final int batchSize;
+
+    public ProductImportService(ProductService productService, ObjectMapper objectMapper,
+            ObjectProvider<ProductReadRouting> readRouting,
+            @Value("${product.import.max-concurrent:2}") int maxConcurrent,
+            @Value("${product.import.validators:4}") int validators,
+            @Value("${product.import.queue-capacity:1000}") int queueCapacity,
+            @Value("${product.import.batch-size:500}") int batchSize) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.readRouting = readRouting;
+        this.permits = new Semaphore(maxConcurrent);
+        this.validators = validators;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts an import by reading the header row. The first row must name the
+     * columns; {@code name}, {@code description} and {@code price} are required
+     * and {@code id} is optional.
+     *
+     * @param input the CSV upload
+     * @return the import, to be run and closed by the caller
+     * @throws BadRequest         if the header is missing or incomplete
+     * @throws ServiceUnavailable if too many imports are running
+     * @throws IOException        if the upload cannot be read
+     */
+    public CsvImport open(InputStream input) throws BadRequest, ServiceUnavailable, IOException {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailable("Too many imports are running, please retry later");
+        }
+        try {
+            CsvReader csv = new CsvReader(new BufferedReader(
+                    new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024), MAX_RECORD_LENGTH);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new BadRequest("The file is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            for (String required : List.of("name", "description", "price")) {
+                if (!columns.containsKey(required)) {
+                    throw new BadRequest("The header row has no " + required + " column");
+                }
+            }
+            return new CsvImport(csv, columns);
+        } catch (BadRequest | IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Row(long line, List<String> fields, ProductInformation product) {
+    }
+
+    /**
+     * A running import. Closing it stops any stage still running.
+     */
+    public final class CsvImport implements AutoCloseable {
+
+        private final CsvReader csv;
+
+        private final Map<String, Integer> columns;
+
+        // the pipeline threads have no security context, so the owner is taken when the import is opened
+        private final String vendor = VendorScope.current();
+
+        private final BlockingQueue<Row> parsed = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final BlockingQueue<Row> valid = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final BlockingQueue<Object> report = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicInteger runningValidators = new AtomicInteger(validators);
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private final AtomicLong imported = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final List<Future<?>> stages = new ArrayList<>();
+
+        private boolean closed;
+
+        private CsvImport(CsvReader csv, Map<String, Integer> columns) {
+            this.csv = csv;
+            this.columns = columns;
+        }
+
+        /**
+         * Runs the import, writing one JSON line per rejected row and a summary
+         * line at the end.
+         *
+         * @param out the report output
+         * @return the summary
+         * @throws IOException if the report cannot be written
+         */
+        public ImportSummary run(OutputStream out) throws IOException {
+            stages.add(executor.submit(this::parse));
+            for (int i = 0; i < validators; i++) {
+                stages.add(executor.submit(this::validate));
+            }
+            stages.add(executor.submit(this::write));
+            try {
+                while (true) {
+                    Object entry = report.take();
+                    if (entry == END_OF_REPORT) {
+                        break;
+                    }
+                    writeLine(out, entry);
+                    if (report.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            }
+            // the rows were written off the request thread, so the caller is recorded here
+            readRouting.ifAvailable(ProductReadRouting::recordWrite);
+            ImportSummary summary = new ImportSummary(rows.get(), imported.get(), failed.get());
+            writeLine(out, summary);
+            out.flush();
+            return summary;
+        }
+
+        private void writeLine(OutputStream out, Object entry) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+        }
+
+        private void parse() {
+            try {
+                try {
+                    List<String> fields;
+                    while ((fields = csv.next()) != null) {
+                        rows.incrementAndGet();
+                        parsed.put(new Row(csv.recordLine(), fields, null));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    report.put(new ImportRowError(csv.recordLine(), "Stopped reading the file: " + e.getMessage()));
+                }
+                for (int i = 0; i < validators; i++) {
+                    parsed.put(END);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void validate() {
+            try {
+                while (true) {
+                    Row row = parsed.take();
+                    if (row == END) {
+                        break;
+                    }
+                    String error;
+                    try {
+                        ProductInformation product = toProduct(row.fields());
+                        error = productService.validateProduct(product) ? "Product details are missing or invalid"
+                                : null;
+                        if (error == null) {
+                            valid.put(new Row(row.line(), null, product));
+                        }
+                    } catch (RuntimeException e) {
+                        error = e.getMessage() != null ? e.getMessage() : "Invalid row";
+                    }
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        report.put(new ImportRowError(row.line(), error));
+                    }
+                }
+                if (runningValidators.decrementAndGet() == 0) {
+                    valid.put(END);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private ProductInformation toProduct(List<String> fields) {
+            if (fields.size() < columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+            }
+            String price = fields.get(columns.get("price")).trim();
+            double value;
+            try {
+                value = Double.parseDouble(price);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+            // parseDouble accepts NaN, Infinity and overflowing values like 1e999
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+            Integer idColumn = columns.get("id");
+            String id = idColumn == null ? "" : fields.get(idColumn).trim();
+            ProductInformation product = new ProductInformation(id.isEmpty() ? UUID.randomUUID().toString() : id,
+                    blankToNull(fields.get(columns.get("name"))), blankToNull(fields.get(columns.get("description"))),
+                    value);
+            product.setVendorId(vendor);
+            return product;
+        }
+
+        private void write() {
+            try {
+                List<Row> batch = new ArrayList<>(batchSize);
+                while (true) {
+                    Row row = valid.take();
+                    if (row == END) {
+                        break;
+                    }
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        flush(batch);
+                    }
+                }
+                flush(batch);
+                report.put(END_OF_REPORT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void flush(List<Row> batch) throws InterruptedException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ProductInformation> products = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                products.add(row.product());
+            }
+            Map<Integer, String> errors;
+            try {
+                errors = productService.addProducts(products);
+            } catch (BadRequest | RuntimeException e) {
+                errors = new HashMap<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    errors.put(i, e.getMessage());
+                }
+            }
+            imported.addAndGet(batch.size() - errors.size());
+            failed.addAndGet(errors.size());
+            for (Map.Entry<Integer, String> error : errors.entrySet()) {
+                report.put(new ImportRowError(batch.get(error.getKey()).line(), error.getValue()));
+            }
+            batch.clear();
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // stops the stages if the report could not be written
+            for (Future<?> stage : stages) {
+                stage.cancel(true);
+            }
+            permits.release();
+        }
+    }
+
+    private static String blankToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,162 @@
+package com.management.project.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.management.project.exception.StoreUnavailableException;
+import com.management.project.util.CircuitBreaker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Guards {@link ProductService} reads with a circuit breaker. Slow or failing
+ * reads open the breaker; while it is open, or when a read fails, the last
+ * result read for the same query is served instead and the request is marked
+ * stale (see {@code StaleResponseAdvice}). Without an earlier result the read
+ * fails fast with {@link StoreUnavailableException}.
+ */
+@Component
+@ConditionalOnProperty(name = "product.read-breaker.enabled", havingValue = "true")
+public class ProductReadBreaker {
+
+    /** Request attribute set when a response includes stale data. */
+    public static final String STALE_ATTRIBUTE = ProductReadBreaker.class.getName() + ".stale";
+
+    private final CircuitBreaker breaker;
+
+    private final LinkedHashMap<String, Object> lastResults = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maxWeight;
+
+    private long weight;
+
+    private final LongAdder staleReads = new LongAdder();
+
+    private final LongAdder rejectedReads = new LongAdder();
+
+    public ProductReadBreaker(MeterRegistry meterRegistry,
+            @Value("${product.read-breaker.slow-call:500ms}") Duration slowCall,
+            @Value("${product.read-breaker.bad-call-rate:0.5}") double badCallRate,
+            @Value("${product.read-breaker.window-size:50}") int windowSize,
+            @Value("${product.read-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${product.read-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${product.read-breaker.probes:3}") int probes,
+            @Value("${product.read-breaker.max-weight:100000}") long maxWeight) {
+        this.breaker = new CircuitBreaker(slowCall.toNanos(), badCallRate, windowSize, minimumCalls,
+                openDuration.toNanos(), probes);
+        this.maxWeight = maxWeight;
+        Gauge.builder("product.read-breaker.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+        FunctionCounter.builder("product.read-breaker.stale", staleReads, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("product.read-breaker.rejected", rejectedReads, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a read through the breaker.
+     *
+     * @param key     identifies the query, results are kept per key
+     * @param read    the read
+     * @param onStale called when an earlier result is served instead
+     * @return the result of the read, or the last result for the key
+     * @throws StoreUnavailableException if the read is rejected or fails and there is no earlier result
+     */
+    public <T> T read(String key, Supplier<T> read, Runnable onStale) {
+        return readResult(key, read, onStale).get();
+    }
+
+    /**
+     * Runs a read through the breaker without marking the current request. For
+     * reads shared by several requests, each of which calls {@link Result#get()}.
+     *
+     * @see #read(String, Supplier, Runnable)
+     */
+    public <T> Result<T> readResult(String key, Supplier<T> read, Runnable onStale) {
+        if (!breaker.tryAcquire()) {
+            rejectedReads.increment();
+            return lastResult(key, onStale, null);
+        }
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = read.get();
+        } catch (RuntimeException e) {
+            breaker.record(System.nanoTime() - start, true);
+            return lastResult(key, onStale, e);
+        }
+        breaker.record(System.nanoTime() - start, false);
+        remember(key, result);
+        return new Result<>(result, false);
+    }
+
+    /**
+     * The outcome of a read, and whether it is an earlier result served instead.
+     */
+    public record Result<T>(T value, boolean stale) {
+
+        /**
+         * @return the value, marking the current request stale if it is
+         */
+        public T get() {
+            if (stale) {
+                RequestAttributes request = RequestContextHolder.getRequestAttributes();
+                if (request != null) {
+                    request.setAttribute(STALE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+                }
+            }
+            return value;
+        }
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> lastResult(String key, Runnable onStale, RuntimeException failure) {
+        Object result;
+        synchronized (this) {
+            result = lastResults.get(key);
+        }
+        if (result == null) {
+            throw failure != null ? failure
+                    : new StoreUnavailableException("Products cannot be read right now, please retry later");
+        }
+        staleReads.increment();
+        onStale.run();
+        return new Result<>((T) result, true);
+    }
+
+    private synchronized void remember(String key, Object result) {
+        long resultWeight = weigh(result);
+        if (resultWeight > maxWeight / 4) {
+            return;
+        }
+        Object previous = lastResults.put(key, result);
+        if (previous != null) {
+            weight -= weigh(previous);
+        }
+        weight += resultWeight;
+        Iterator<Object> eldest = lastResults.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= weigh(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static long weigh(Object result) {
+        return result instanceof Collection<?> products ? products.size() + 1L : 1;
+    }
+}
@@ -0,0 +1,154 @@
+package com.management.project.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.management.project.repository.ProductRepository;
+
+/**
+ * Chooses where {@link ProductService} searches and listings read from. They go
+ * to a replica whose lag is bounded by the max staleness, except for a caller
+ * who wrote within that bound, who reads from the primary so it sees its own
+ * writes. Point reads and writes always use the primary.
+ * <p>
+ * Recent writers are remembered per instance. Behind a load balancer without
+ * sticky sessions, clients echo the {@value #LAST_WRITE_HEADER} header of their
+ * last write response on later reads, which any instance honours.
+ */
+public class ProductReadRouting {
+
+    /** Response header with the time of a write, request header to read one's writes elsewhere. */
+    public static final String LAST_WRITE_HEADER = "Product-Last-Write";
+
+    private final ProductRepository primary;
+
+    private final ProductRepository replica;
+
+    private final long maxStalenessMillis;
+
+    private final Clock clock;
+
+    private final Map<String, Long> lastWrites;
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private volatile long lastWrite;
+
+    /**
+     * @param primary      the repository reading from the primary
+     * @param replica      the repository reading from replicas
+     * @param maxStaleness how far the replica may lag behind the primary
+     * @param maxCallers   how many recent writers to remember
+     * @param clock        the wall clock, shared with other instances through the header
+     */
+    public ProductReadRouting(ProductRepository primary, ProductRepository replica, Duration maxStaleness,
+            int maxCallers, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.clock = clock;
+        this.lastWrite = clock.millis() - maxStalenessMillis;
+        this.lastWrites = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                // forgetting a writer is safe once its window has passed
+                return size() > maxCallers && clock.millis() - eldest.getValue() >= maxStalenessMillis;
+            }
+        });
+    }
+
+    /**
+     * Where a read goes.
+     *
+     * @param repository the repository to read from
+     * @param name       primary or replica, to keep reads from both apart when coalescing
+     * @param cacheable  whether the result is known to include every write so far
+     */
+    public record Route(ProductRepository repository, String name, boolean cacheable) {
+
+        public static Route primary(ProductRepository repository) {
+            return new Route(repository, "primary", true);
+        }
+    }
+
+    /**
+     * @return the route for a search or listing by the current caller
+     */
+    public Route route() {
+        long now = clock.millis();
+        String caller = caller();
+        Long wrote = caller == null ? null : lastWrites.get(caller);
+        if ((wrote != null && now - wrote < maxStalenessMillis) || now - echoedWrite(now) < maxStalenessMillis) {
+            primaryReads.increment();
+            return Route.primary(primary);
+        }
+        replicaReads.increment();
+        // a replica result may miss a write made within the bound, so it is only cached once they have settled
+        return new Route(replica, "replica", now - lastWrite >= maxStalenessMillis);
+    }
+
+    /**
+     * Called after every write, so the caller reads its own writes, here and
+     * through the response header on other instances.
+     */
+    public void recordWrite() {
+        long now = clock.millis();
+        lastWrite = now;
+        String caller = caller();
+        if (caller != null) {
+            lastWrites.put(caller, now);
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request
+                && request.getResponse() != null && !request.getResponse().isCommitted()) {
+            request.getResponse().setHeader(LAST_WRITE_HEADER, Long.toString(now));
+        }
+    }
+
+    /**
+     * The header is set by the client, so a time after now is not trusted: it
+     * could hold a caller on the primary for as long as it likes.
+     *
+     * @param now the current time
+     * @return the write time the client sent back, or 0 if it is missing, malformed or in the future
+     */
+    private static long echoedWrite(long now) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            String header = request.getRequest().getHeader(LAST_WRITE_HEADER);
+            if (header != null) {
+                try {
+                    long wrote = Long.parseLong(header.trim());
+                    return wrote <= now ? wrote : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    public long primaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long replicaReads() {
+        return replicaReads.sum();
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
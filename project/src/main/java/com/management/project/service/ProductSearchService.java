@@ -0,0 +1,199 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.ProductRepository;
+import com.management.project.search.FuzzyNameIndex;
+import com.management.project.search.ProductIndex;
+import com.management.project.search.SuggestionIndex;
+import com.management.project.search.TextIndex;
+
+/**
+ * Service class for searches answered by the in-memory product indexes.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private static final int MAX_DISTANCE = 3;
+
+    // the most candidates fetched from an index to fill a vendor's page
+    private static final int MAX_CANDIDATES = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final ObjectProvider<SuggestionIndex> suggestionIndex;
+
+    private final ObjectProvider<FuzzyNameIndex> fuzzyNameIndex;
+
+    private final ObjectProvider<TextIndex> textIndex;
+
+    public ProductSearchService(ProductRepository productRepository, ObjectProvider<SuggestionIndex> suggestionIndex,
+            ObjectProvider<FuzzyNameIndex> fuzzyNameIndex, ObjectProvider<TextIndex> textIndex) {
+        this.productRepository = productRepository;
+        this.suggestionIndex = suggestionIndex;
+        this.fuzzyNameIndex = fuzzyNameIndex;
+        this.textIndex = textIndex;
+    }
+
+    /**
+     * Suggests product names for a typed prefix.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of suggestions
+     * @return the suggested names, most common first
+     * @throws BadRequest         if the limit is invalid
+     * @throws ServiceUnavailable if the suggestion index is disabled or still loading
+     */
+    public List<String> suggest(String prefix, int limit) throws BadRequest, ServiceUnavailable {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ready(suggestionIndex.getIfAvailable(), "Suggestions").suggest(prefix, limit);
+    }
+
+    /**
+     * Searches products whose name is within an edit distance of the query.
+     *
+     * @param name        the name as typed
+     * @param maxDistance the largest edit distance to accept, or null to pick one from the query length
+     * @param limit       the maximum number of products
+     * @return the matching products, closest names first
+     * @throws BadRequest         if the parameters are invalid
+     * @throws ServiceUnavailable if the fuzzy index is disabled or still loading
+     */
+    public List<ProductInformation> fuzzySearch(String name, Integer maxDistance, int limit)
+            throws BadRequest, ServiceUnavailable {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        int distance = maxDistance != null ? maxDistance : (name.trim().length() <= 4 ? 1 : 2);
+        if (distance < 0 || distance > MAX_DISTANCE) {
+            throw new BadRequest("Max distance must be between 0 and " + MAX_DISTANCE);
+        }
+        FuzzyNameIndex index = ready(fuzzyNameIndex.getIfAvailable(), "Fuzzy search");
+        return visible(candidates -> {
+            List<FuzzyNameIndex.Match> matches = index.search(name, distance, candidates);
+            // a common name can stand for many products, only as many as asked for are taken
+            List<String> ids = new ArrayList<>(candidates);
+            for (FuzzyNameIndex.Match match : matches) {
+                for (String id : match.productIds()) {
+                    if (ids.size() == candidates) {
+                        return new Candidates(ids, false);
+                    }
+                    ids.add(id);
+                }
+            }
+            return new Candidates(ids, matches.size() < candidates);
+        }, limit);
+    }
+
+    /**
+     * Ranks products by how well their name and description match a query.
+     *
+     * @param query the query text
+     * @param limit the maximum number of products
+     * @return the matching products, best first
+     * @throws BadRequest         if the limit is invalid
+     * @throws ServiceUnavailable if the text index is disabled or still loading
+     */
+    public List<ProductInformation> textSearch(String query, int limit) throws BadRequest, ServiceUnavailable {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        TextIndex index = ready(textIndex.getIfAvailable(), "Text search");
+        return visible(candidates -> {
+            List<TextIndex.Hit> hits = index.search(query, candidates);
+            List<String> ids = new ArrayList<>(hits.size());
+            for (TextIndex.Hit hit : hits) {
+                ids.add(hit.productId());
+            }
+            return new Candidates(ids, hits.size() < candidates);
+        }, limit);
+    }
+
+    /**
+     * Ids found by an index, best first, and whether the index has no more.
+     */
+    private record Candidates(List<String> ids, boolean complete) {
+    }
+
+    /**
+     * Returns the best products the caller may see. Every product is visible to
+     * an admin, so only the page is read. The indexes cover the whole catalog,
+     * so for a vendor the candidates are read in chunks no larger than what is
+     * left of the page and filtered before the limit is applied, fetching more
+     * of them from the index while the page is not full.
+     */
+    private List<ProductInformation> visible(IntFunction<Candidates> search, int limit) {
+        String vendor = VendorScope.current();
+        if (vendor == null) {
+            List<String> ids = search.apply(limit).ids();
+            return inOrder(ids.size() > limit ? ids.subList(0, limit) : ids);
+        }
+        List<ProductInformation> products = new ArrayList<>(limit);
+        Set<String> examined = new HashSet<>();
+        int candidates = limit;
+        while (true) {
+            Candidates found = search.apply(candidates);
+            List<String> fresh = new ArrayList<>();
+            for (String id : found.ids()) {
+                if (examined.add(id)) {
+                    fresh.add(id);
+                }
+            }
+            for (int from = 0; from < fresh.size() && products.size() < limit;) {
+                int to = Math.min(fresh.size(), from + limit - products.size());
+                for (ProductInformation product : inOrder(fresh.subList(from, to))) {
+                    if (vendor.equals(product.getVendorId())) {
+                        products.add(product);
+                    }
+                }
+                from = to;
+            }
+            if (products.size() >= limit || found.complete() || candidates >= MAX_CANDIDATES) {
+                return products;
+            }
+            candidates = Math.min(candidates * 4, MAX_CANDIDATES);
+        }
+    }
+
+    /**
+     * Loads products by id, keeping the order of the ids.
+     */
+    private List<ProductInformation> inOrder(List<String> ids) {
+        Map<String, ProductInformation> byId = new HashMap<>();
+        for (ProductInformation product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<ProductInformation> products = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ProductInformation product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private static <T extends ProductIndex> T ready(T index, String feature)
+            throws ServiceUnavailable {
+        if (index == null || !index.isReady()) {
+            throw new ServiceUnavailable(feature + " are not available yet");
+        }
+        return index;
+    }
+}
@@ -1,14 +1,33 @@
 package com.management.project.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.management.project.entity.ProductInformation;
+import com.management.project.entity.ProductTombstone;
 import com.management.project.exception.BadRequest;
+import com.management.project.exception.ProductNotFoundException;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.exception.StoreUnavailableException;
 import com.management.project.repository.ProductRepository;
+import com.management.project.repository.ProductTombstoneRepository;
+import com.management.project.search.PriceIndex;
+import com.management.project.util.SingleFlight;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Service class for managing product information.
@@ -19,38 +38,133 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired(required = false)
+    private List<ProductChangeListener> changeListeners = new ArrayList<>();
+
+    @Autowired(required = false)
+    private PriceIndex priceIndex;
+
+    @Autowired(required = false)
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Autowired(required = false)
+    private ProductWriteBehind writeBehind;
+
+    @Autowired(required = false)
+    private ProductReadRouting readRouting;
+
+    @Autowired(required = false)
+    private ProductReadBreaker readBreaker;
+
+    // identical reads arriving together share one repository call
+    private final SingleFlight<String, ProductReadBreaker.Result<Optional<ProductInformation>>> productLoads =
+            new SingleFlight<>();
+
+    private final SingleFlight<String, ProductReadBreaker.Result<List<ProductInformation>>> nameSearches =
+            new SingleFlight<>();
+
+    private final SearchResultCache searchCache = new SearchResultCache(100_000, Duration.ofSeconds(5));
+
+    // price searches are cached for ranges widened to multiples of this, then filtered
+    private static final double PRICE_BUCKET = 10;
+
+    private static final int MAX_RESULT_LIMIT = 1000;
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "price");
+
+    @Value("${product.search-cache.max-weight:100000}")
+    void setSearchCacheMaxWeight(long maxWeight) {
+        searchCache.setMaxWeight(maxWeight);
+    }
+
+    @Value("${product.search-cache.ttl:5s}")
+    void setSearchCacheTtl(Duration ttl) {
+        searchCache.setTtl(ttl);
+    }
+
     /**
-     * Retrieves all products.
+     * Retrieves all products, only the caller's own when the caller is a vendor.
+     * Like the searches, it may be served by a replica, see {@link ProductReadRouting}.
      *
      * @return a list of ProductInformation objects
      */
     public List<ProductInformation> getAllProducts() {
-        return productRepository.findAll();
+        String vendor = VendorScope.current();
+        ProductRepository reads = readRoute().repository();
+        return guarded(scope(vendor) + "all",
+                () -> vendor == null ? reads.findAll() : reads.findByVendorId(vendor));
     }
 
     /**
-     * Retrieves a product by its ID.
+     * Retrieves a product by its ID. A vendor cannot see other vendors' products.
      *
      * @param productId the ID of the product
      * @return an Optional containing the ProductInformation object, if found
      */
     public Optional<ProductInformation> getProductById(String productId) {
-        return productRepository.findById(productId);
+        String vendor = VendorScope.current();
+        // keyed by generation, so a read that starts after a write never joins one that started before it
+        return productLoads.execute(searchCache.generation() + ":" + productId,
+                () -> guardedResult("id:" + productId, () -> productRepository.findById(productId)))
+                .get().filter(product -> visibleTo(vendor, product));
     }
 
     /**
-     * Adds a new product.
+     * Adds a new product. With write-behind enabled the product is inserted in
+     * a batch with concurrent adds; either way it is stored when this returns.
      *
      * @param product the product to be added
      * @return the added ProductInformation object
-     * @throws BadRequest if the product details are invalid
+     * @throws BadRequest         if the product details are invalid
+     * @throws ServiceUnavailable if the write-behind queue stays full or the batch is not acknowledged in time
      */
-    public ProductInformation addProduct(ProductInformation product) throws BadRequest {
+    public ProductInformation addProduct(ProductInformation product) throws BadRequest, ServiceUnavailable {
+        ProductInformation saved;
+        searchCache.beginWrite();
         try {
-            return productRepository.save(product);
+            product.setLastModified(new Date());
+            product.setVendorId(VendorScope.current());
+            saved = writeBehind != null ? writeBehind.insert(product) : productRepository.save(product);
+        } catch (ServiceUnavailable | StoreUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new BadRequest("Failed to add product: " + e.getMessage());
+        } finally {
+            endWrite();
+        }
+        notifySaved(null, saved);
+        return saved;
+    }
+
+    /**
+     * Adds products in one bulk write. Products that fail, for example because
+     * the id already exists, do not stop the others. Products keep the vendor
+     * they carry, since imports write them off the request thread.
+     *
+     * @param products the products to be added
+     * @return the error message of each product that was not added, by position
+     * @throws BadRequest if the write fails as a whole
+     */
+    public Map<Integer, String> addProducts(List<ProductInformation> products) throws BadRequest {
+        Map<Integer, String> errors;
+        searchCache.beginWrite();
+        try {
+            Date now = new Date();
+            for (ProductInformation product : products) {
+                product.setLastModified(now);
+            }
+            errors = productRepository.insertAll(products);
+        } catch (Exception e) {
+            throw new BadRequest("Failed to add products: " + e.getMessage());
+        } finally {
+            endWrite();
+        }
+        for (int i = 0; i < products.size(); i++) {
+            if (!errors.containsKey(i)) {
+                notifySaved(null, products.get(i));
+            }
         }
+        return errors;
     }
 
     /**
@@ -62,22 +176,33 @@ public class ProductService {
      * @throws BadRequest if the update request is invalid
      */
     public ProductInformation updateProduct(String productId, ProductInformation productDetails) throws BadRequest {
+        ProductInformation previous;
+        ProductInformation saved;
+        searchCache.beginWrite();
         try {
-            Optional<ProductInformation> product = productRepository.findById(productId);
+            Optional<ProductInformation> product = productRepository.findById(productId)
+                    .filter(existing -> visibleTo(VendorScope.current(), existing));
             if (product.isEmpty()) {
-                throw new BadRequest("Product not found with ID: " + productId);
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
             }
             if (productDetails.getPrice() <= 0) {
                 throw new BadRequest("Price cannot be less than or equal to 0");
             }
             ProductInformation existingProduct = product.get();
+            previous = snapshot(existingProduct);
             updateProductDetails(existingProduct, productDetails);
-        return productRepository.save(existingProduct);
+            existingProduct.setLastModified(new Date());
+            saved = productRepository.save(existingProduct);
             
+        } catch (BadRequest e) {
+            throw e;
         } catch (Exception e) {
             throw new BadRequest(e.getMessage());
+        } finally {
+            endWrite();
         }
-        
+        notifySaved(previous, saved);
+        return saved;
     }
 
     /**
@@ -87,15 +212,29 @@ public class ProductService {
      * @throws BadRequest 
      */
     public void deleteProduct(String productId) throws BadRequest {
+        ProductInformation deleted;
+        searchCache.beginWrite();
         try {
-            Optional<ProductInformation> product = productRepository.findById(productId);
+            Optional<ProductInformation> product = productRepository.findById(productId)
+                    .filter(existing -> visibleTo(VendorScope.current(), existing));
             if (product.isEmpty()) {
-                throw new BadRequest("Product not found with ID: " + productId);
+                throw new ProductNotFoundException("Failed to delete product: Product not found with ID: " + productId);
             }
             productRepository.deleteById(productId);
+            if (tombstoneRepository != null) {
+                tombstoneRepository.save(new ProductTombstone(productId, new Date()));
+            }
+            deleted = product.get();
 
+        } catch (BadRequest e) {
+            throw e;
         } catch (Exception e) {
             throw new BadRequest("Failed to delete product: " + e.getMessage());
+        } finally {
+            endWrite();
+        }
+        for (ProductChangeListener listener : changeListeners) {
+            listener.productDeleted(deleted);
         }
     }
 
@@ -108,7 +247,20 @@ public class ProductService {
      */
     public List<ProductInformation> searchByName(String name) throws BadRequest {
         try{
-        return productRepository.findByNameIgnoreCaseContaining(name);
+        // the search ignores case, so names differing only in case share a call and a cache entry
+        String vendor = VendorScope.current();
+        ProductReadRouting.Route route = readRoute();
+        String trimmed = name.trim();
+        String key = scope(vendor) + "name:" + trimmed.toLowerCase();
+        List<ProductInformation> products = cached(route, key,
+                () -> nameSearches.execute(searchCache.generation() + ":" + route.name() + ":" + key,
+                        () -> guardedResult(key, () -> vendor == null
+                                ? route.repository().findByNameIgnoreCaseContaining(trimmed)
+                                : route.repository().findByVendorIdAndNameIgnoreCaseContaining(vendor, trimmed)))
+                        .get());
+        return new ArrayList<>(products);
+        }catch(StoreUnavailableException e){
+            throw e;
         }catch(Exception e){
             throw new BadRequest("Failed to search product by name: " + e.getMessage());
         }
@@ -124,7 +276,18 @@ public class ProductService {
      */
     public List<ProductInformation> searchByPriceRange(double minPrice, double maxPrice) throws BadRequest {
       try{
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        double low = Math.floor(minPrice / PRICE_BUCKET) * PRICE_BUCKET;
+        double high = Math.ceil(maxPrice / PRICE_BUCKET) * PRICE_BUCKET;
+        String vendor = VendorScope.current();
+        ProductReadRouting.Route route = readRoute();
+        String key = scope(vendor) + "price:" + low + ":" + high;
+        List<ProductInformation> products = cached(route, key,
+                () -> guarded(key, () -> vendor == null ? route.repository().findByPriceBetween(low, high)
+                        : route.repository().findByVendorIdAndPriceBetween(vendor, low, high)));
+        // Between excludes both bounds
+        return filter(products, product -> product.getPrice() > minPrice && product.getPrice() < maxPrice);
+      }catch(StoreUnavailableException e){
+          throw e;
       }catch(Exception e){
           throw new BadRequest("Failed to search product by price range: " + e.getMessage());
       }
@@ -141,12 +304,151 @@ public class ProductService {
      */
     public List<ProductInformation> searchByNameAndPrice(String name, double minPrice, double maxPrice) throws BadRequest {
        try{
-        return productRepository.findByNameAndPriceRange(name, minPrice, maxPrice);
+        String trimmed = name.trim();
+        double low = Math.floor(minPrice / PRICE_BUCKET) * PRICE_BUCKET;
+        double high = Math.ceil(maxPrice / PRICE_BUCKET) * PRICE_BUCKET;
+        String vendor = VendorScope.current();
+        ProductReadRouting.Route route = readRoute();
+        String key = scope(vendor) + "name-price:" + regexKey(trimmed) + ":" + low + ":" + high;
+        List<ProductInformation> products = cached(route, key,
+                () -> guarded(key, () -> vendor == null ? route.repository().findByNameAndPriceRange(trimmed, low, high)
+                        : route.repository().findByVendorAndNameAndPriceRange(vendor, trimmed, low, high)));
+        return filter(products, product -> product.getPrice() >= minPrice && product.getPrice() <= maxPrice);
+       }catch(StoreUnavailableException e){
+           throw e;
        }catch(Exception e){
            throw new BadRequest("Failed to search product by name and price range: " + e.getMessage());
        }
     }
 
+    /**
+     * Searches products by name, sorted and limited by the database.
+     *
+     * @param name the name of the product
+     * @param page the sort and limit, or null for all matches in any order
+     * @return a list of matching ProductInformation objects
+     * @throws BadRequest 
+     */
+    public List<ProductInformation> searchByName(String name, Pageable page) throws BadRequest {
+        if (page == null) {
+            return searchByName(name);
+        }
+        try {
+            String vendor = VendorScope.current();
+            ProductRepository reads = readRoute().repository();
+            String trimmed = name.trim();
+            return guarded(scope(vendor) + "name-page:" + trimmed.toLowerCase() + ":" + page,
+                    () -> vendor == null ? reads.findByNameIgnoreCaseContaining(trimmed, page)
+                            : reads.findByVendorIdAndNameIgnoreCaseContaining(vendor, trimmed, page));
+        } catch (StoreUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequest("Failed to search product by name: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Searches products by price range, sorted and limited. A limited search
+     * sorted by price only is answered by walking the in-memory price index
+     * when it is loaded, so only the returned products are read. The index
+     * covers the whole catalog, so vendors are served by the database.
+     *
+     * @param minPrice the minimum price
+     * @param maxPrice the maximum price
+     * @param page     the sort and limit, or null for all matches in any order
+     * @return a list of matching ProductInformation objects
+     * @throws BadRequest 
+     */
+    public List<ProductInformation> searchByPriceRange(double minPrice, double maxPrice, Pageable page)
+            throws BadRequest {
+        if (page == null) {
+            return searchByPriceRange(minPrice, maxPrice);
+        }
+        try {
+            String vendor = VendorScope.current();
+            ProductRepository reads = readRoute().repository();
+            return guarded(scope(vendor) + "price-page:" + minPrice + ":" + maxPrice + ":" + page, () -> {
+                if (vendor != null) {
+                    return reads.findByVendorIdAndPriceBetween(vendor, minPrice, maxPrice, page);
+                }
+                Sort.Order byPrice = page.getSort().getOrderFor("price");
+                if (priceIndex != null && priceIndex.isReady() && page.isPaged() && byPrice != null
+                        && page.getSort().stream().count() == 1) {
+                    List<ProductInformation> products = new ArrayList<>(productRepository.findAllById(priceIndex
+                            .idsInPriceOrder(minPrice, maxPrice, byPrice.isDescending(), page.getPageSize())));
+                    Comparator<ProductInformation> order = Comparator.comparingDouble(ProductInformation::getPrice);
+                    products.sort(byPrice.isDescending() ? order.reversed() : order);
+                    return products;
+                }
+                return reads.findByPriceBetween(minPrice, maxPrice, page);
+            });
+        } catch (StoreUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequest("Failed to search product by price range: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Searches products by name and price range, sorted and limited by the database.
+     *
+     * @param name     the name of the product
+     * @param minPrice the minimum price
+     * @param maxPrice the maximum price
+     * @param page     the sort and limit, or null for all matches in any order
+     * @return a list of matching ProductInformation objects
+     * @throws BadRequest 
+     */
+    public List<ProductInformation> searchByNameAndPrice(String name, double minPrice, double maxPrice,
+            Pageable page) throws BadRequest {
+        if (page == null) {
+            return searchByNameAndPrice(name, minPrice, maxPrice);
+        }
+        try {
+            String vendor = VendorScope.current();
+            ProductRepository reads = readRoute().repository();
+            return guarded(scope(vendor) + "name-price-page:" + name + ":" + minPrice + ":" + maxPrice + ":" + page,
+                    () -> vendor == null ? reads.findByNameAndPriceRange(name, minPrice, maxPrice, page)
+                            : reads.findByVendorAndNameAndPriceRange(vendor, name, minPrice, maxPrice, page));
+        } catch (StoreUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequest("Failed to search product by name and price range: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the sort and limit for a search.
+     *
+     * @param sort  the sort, e.g. {@code price} or {@code price,desc}, or null
+     * @param limit the maximum number of results, or null
+     * @return the page to request, or null if neither is given
+     * @throws BadRequest if the sort field or limit is invalid
+     */
+    public Pageable resultPage(String sort, Integer limit) throws BadRequest {
+        if (sort == null && limit == null) {
+            return null;
+        }
+        Sort order = Sort.unsorted();
+        if (sort != null) {
+            String[] parts = sort.split(",");
+            String field = parts[0].trim();
+            if (!SORTABLE_FIELDS.contains(field)) {
+                throw new BadRequest("Cannot sort by " + field);
+            }
+            Sort.Direction direction = parts.length > 1 ? Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new BadRequest("Invalid sort direction: " + parts[1])) : Sort.Direction.ASC;
+            order = Sort.by(direction, field);
+        }
+        if (limit == null) {
+            return Pageable.unpaged(order);
+        }
+        if (limit < 1 || limit > MAX_RESULT_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_RESULT_LIMIT);
+        }
+        return PageRequest.of(0, limit, order);
+    }
+
     /**
      * Validates the product details.
      *
@@ -154,12 +456,92 @@ public class ProductService {
      * @throws BadRequest if the product details are invalid
      */
     public Boolean validateProduct(ProductInformation product)  {
-        if (product.getDescription() == null || product.getName() == null || product.getPrice() <= 0) {
+        if (product.getDescription() == null || product.getName() == null || product.getPrice() <= 0
+                || !Double.isFinite(product.getPrice())) {
             return true;
         }
         return false;
     }
 
+    private static List<ProductInformation> filter(List<ProductInformation> products,
+            Predicate<ProductInformation> condition) {
+        List<ProductInformation> matching = new ArrayList<>(products.size());
+        for (ProductInformation product : products) {
+            if (condition.test(product)) {
+                matching.add(product);
+            }
+        }
+        return matching;
+    }
+
+    private ProductReadRouting.Route readRoute() {
+        return readRouting == null ? ProductReadRouting.Route.primary(productRepository) : readRouting.route();
+    }
+
+    // results that may miss a recent write are served but not cached
+    private List<ProductInformation> cached(ProductReadRouting.Route route, String key,
+            Supplier<List<ProductInformation>> loader) {
+        return route.cacheable() ? searchCache.get(key, loader) : loader.get();
+    }
+
+    private <T> T guarded(String key, Supplier<T> read) {
+        return guardedResult(key, read).get();
+    }
+
+    // a stale result must not be cached as current, so results loading alongside it are not cached either;
+    // a read shared through a single flight carries its stale flag, so every caller marks its own request
+    private <T> ProductReadBreaker.Result<T> guardedResult(String key, Supplier<T> read) {
+        return readBreaker == null ? new ProductReadBreaker.Result<>(read.get(), false)
+                : readBreaker.readResult(key, read, searchCache::invalidate);
+    }
+
+    private void endWrite() {
+        searchCache.endWrite();
+        if (readRouting != null) {
+            readRouting.recordWrite();
+        }
+    }
+
+    private static boolean visibleTo(String vendor, ProductInformation product) {
+        return vendor == null || vendor.equals(product.getVendorId());
+    }
+
+    // cached results are per vendor, the global view has no prefix
+    private static String scope(String vendor) {
+        return vendor == null ? "" : "vendor:" + vendor + ":";
+    }
+
+    // the name is a case-insensitive regex; lowercasing is only safe without escapes such as \S
+    private static String regexKey(String name) {
+        return name.indexOf('\\') < 0 ? name.toLowerCase() : name;
+    }
+
+    SearchResultCache searchCache() {
+        return searchCache;
+    }
+
+    SingleFlight<String, ProductReadBreaker.Result<Optional<ProductInformation>>> productLoads() {
+        return productLoads;
+    }
+
+    SingleFlight<String, ProductReadBreaker.Result<List<ProductInformation>>> nameSearches() {
+        return nameSearches;
+    }
+
+    private void notifySaved(ProductInformation previous, ProductInformation saved) {
+        for (ProductChangeListener listener : changeListeners) {
+            listener.productSaved(previous, saved);
+        }
+    }
+
+    private static ProductInformation snapshot(ProductInformation product) {
+        ProductInformation copy = new ProductInformation(product.getId(), product.getName(),
+                product.getDescription(), product.getPrice());
+        copy.setLastModified(product.getLastModified());
+        copy.setVendorId(product.getVendorId());
+        return copy;
+    }
+
     /**
      * Updates the details of a product.
      *
@@ -0,0 +1,41 @@
+package com.management.project.service;
+
+import org.springframework.stereotype.Component;
+
+import com.management.project.util.SingleFlight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes how many {@link ProductService} reads were coalesced with an
+ * identical read already in flight, and how the search result cache performs.
+ */
+@Component
+public class ProductServiceMetrics implements MeterBinder {
+
+    private final ProductService productService;
+
+    public ProductServiceMetrics(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "getProductById", productService.productLoads());
+        bind(registry, "searchByName", productService.nameSearches());
+        SearchResultCache cache = productService.searchCache();
+        FunctionCounter.builder("product.search.cache.hits", cache, SearchResultCache::hits).register(registry);
+        FunctionCounter.builder("product.search.cache.misses", cache, SearchResultCache::misses).register(registry);
+        Gauge.builder("product.search.cache.weight", cache, SearchResultCache::weight).register(registry);
+    }
+
+    private static void bind(MeterRegistry registry, String operation, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("product.singleflight.calls", flight, SingleFlight::calls)
+                .tag("operation", operation).register(registry);
+        FunctionCounter.builder("product.singleflight.coalesced", flight, SingleFlight::coalesced)
+                .tag("operation", operation).register(registry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.entity.ProductInformation;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Rewrites product documents stored in the original layout into the compact
+ * layout, in batches. Run once with {@code product.storage.migrate=true} and
+ * the {@code compact} profile active. The migration can be re-run safely after
+ * an interruption.
+ */
+@Component
+@ConditionalOnProperty(name = "product.storage.migrate", havingValue = "true")
+public class ProductStorageMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStorageMigration.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final int batchSize;
+
+    public ProductStorageMigration(MongoTemplate mongoTemplate,
+            @Value("${product.storage.migrate.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MongoCollection<Document> collection = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(ProductInformation.class));
+        long migrated = 0;
+        while (true) {
+            List<Document> batch = collection.find(Filters.exists(CompactStorageCodec.PRICE, false))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            write(collection, batch);
+            migrated += batch.size();
+            log.info("Migrated {} product documents to the compact layout", migrated);
+        }
+        log.info("Compact storage migration finished, {} documents rewritten", migrated);
+    }
+
+    private void write(MongoCollection<Document> collection, List<Document> batch) {
+        List<WriteModel<Document>> writes = new ArrayList<>(batch.size() * 2);
+        for (Document legacy : batch) {
+            Object legacyId = legacy.get("_id");
+            Document compact = toCompact(legacy);
+            if (compact.get("_id").equals(legacyId)) {
+                writes.add(new ReplaceOneModel<>(Filters.eq("_id", legacyId), compact));
+            } else {
+                writes.add(new InsertOneModel<>(compact));
+                writes.add(new DeleteOneModel<>(Filters.eq("_id", legacyId)));
+            }
+        }
+        try {
+            collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // documents inserted by an interrupted earlier run are already migrated
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Document toCompact(Document legacy) {
+        Object id = legacy.get("_id");
+        Document compact = new Document("_id", id instanceof String value ? CompactStorageCodec.encodeId(value) : id);
+        compact.put(CompactStorageCodec.NAME, legacy.get("name"));
+        compact.put(CompactStorageCodec.DESCRIPTION, legacy.get("description"));
+        Number price = legacy.get("price", Number.class);
+        compact.put(CompactStorageCodec.PRICE, CompactStorageCodec.toMinorUnits(price == null ? 0 : price.doubleValue()));
+        if (legacy.containsKey("lastModified")) {
+            compact.put(CompactStorageCodec.LAST_MODIFIED, legacy.get("lastModified"));
+        }
+        if (legacy.containsKey("vendorId")) {
+            compact.put(CompactStorageCodec.VENDOR, legacy.get("vendorId"));
+        }
+        if (legacy.containsKey("_class")) {
+            compact.put("_class", legacy.get("_class"));
+        }
+        return compact;
+    }
+}
@@ -0,0 +1,149 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.management.project.dto.ProductChangeSet;
+import com.management.project.entity.ProductInformation;
+import com.management.project.entity.ProductTombstone;
+import com.management.project.exception.BadRequest;
+import com.management.project.repository.ProductRepository;
+
+/**
+ * Service class for delta sync. Products carry their last modification time
+ * and deletes leave a tombstone, so the changes since a watermark are found
+ * with two index range scans.
+ * <p>
+ * A watermark is {@code <millis>:<id>} of the last change returned. Changes
+ * newer than a short lag are held back, so a write that commits late with an
+ * earlier timestamp is not skipped.
+ */
+@Service
+public class ProductSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSyncService.class);
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final ProductRepository productRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final long lagMillis;
+
+    public ProductSyncService(ProductRepository productRepository, MongoTemplate mongoTemplate,
+            @Value("${product.sync.lag:2000}") long lagMillis) {
+        this.productRepository = productRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.lagMillis = lagMillis;
+    }
+
+    /**
+     * Returns the changes made after a watermark.
+     *
+     * @param watermark the watermark of the previous call, or null for a full sync
+     * @param limit     the maximum number of changes
+     * @return the changed products, deleted ids and the watermark for the next call
+     * @throws BadRequest if the watermark is invalid or older than the tombstone retention
+     */
+    public ProductChangeSet changesSince(String watermark, int limit) throws BadRequest {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        long now = System.currentTimeMillis();
+        Date after = new Date(0);
+        String afterId = "";
+        if (watermark != null && !watermark.isBlank()) {
+            int separator = watermark.indexOf(':');
+            try {
+                after = new Date(Long.parseLong(separator < 0 ? watermark : watermark.substring(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new BadRequest("Invalid watermark: " + watermark);
+            }
+            afterId = separator < 0 ? "" : watermark.substring(separator + 1);
+            if (after.getTime() < now - ProductTombstone.RETENTION_MILLIS) {
+                throw new BadRequest("Watermark is older than the delete history, reload the full catalog");
+            }
+        }
+        Date until = new Date(now - lagMillis);
+
+        List<ProductInformation> products = productRepository.findModifiedAfter(after, afterId, until, limit + 1);
+        Query deletes = Query.query(new Criteria().andOperator(
+                new Criteria().orOperator(Criteria.where("deletedAt").gt(after),
+                        Criteria.where("deletedAt").is(after).and("_id").gt(afterId)),
+                Criteria.where("deletedAt").lte(until)))
+                .with(Sort.by(Sort.Order.asc("deletedAt"), Sort.Order.asc("_id")))
+                .limit(limit + 1);
+        List<ProductTombstone> tombstones = mongoTemplate.find(deletes, ProductTombstone.class);
+
+        // merge both runs in watermark order; the latest change of an id wins
+        Map<String, Object> latest = new LinkedHashMap<>();
+        int p = 0;
+        int t = 0;
+        int taken = 0;
+        String next = watermark;
+        while (taken < limit && (p < products.size() || t < tombstones.size())) {
+            boolean takeProduct = t == tombstones.size() || (p < products.size()
+                    && compare(products.get(p).getLastModified(), products.get(p).getId(),
+                            tombstones.get(t).getDeletedAt(), tombstones.get(t).getId()) <= 0);
+            if (takeProduct) {
+                ProductInformation product = products.get(p++);
+                latest.remove(product.getId());
+                latest.put(product.getId(), product);
+                next = product.getLastModified().getTime() + ":" + product.getId();
+            } else {
+                ProductTombstone tombstone = tombstones.get(t++);
+                latest.remove(tombstone.getId());
+                latest.put(tombstone.getId(), tombstone);
+                next = tombstone.getDeletedAt().getTime() + ":" + tombstone.getId();
+            }
+            taken++;
+        }
+        boolean hasMore = p < products.size() || t < tombstones.size();
+
+        List<ProductInformation> updated = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (Object change : latest.values()) {
+            if (change instanceof ProductInformation product) {
+                updated.add(product);
+            } else {
+                deleted.add(((ProductTombstone) change).getId());
+            }
+        }
+        return new ProductChangeSet(updated, deleted, next != null ? next : after.getTime() + ":" + afterId,
+                hasMore);
+    }
+
+    private static int compare(Date leftTime, String leftId, Date rightTime, String rightId) {
+        int byTime = leftTime.compareTo(rightTime);
+        return byTime != 0 ? byTime : leftId.compareTo(rightId);
+    }
+
+    /**
+     * Gives products stored before delta sync existed a modification time, so
+     * the first full sync picks them up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLastModified() {
+        long updated = mongoTemplate.updateMulti(Query.query(Criteria.where("lastModified").exists(false)),
+                Update.update("lastModified", new Date()), ProductInformation.class).getModifiedCount();
+        if (updated > 0) {
+            log.info("Set the modification time of {} products", updated);
+        }
+    }
+}
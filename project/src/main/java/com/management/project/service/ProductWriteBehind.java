@@ -0,0 +1,194 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Group commit for {@link ProductService#addProduct}. Adds are queued and
+ * written by a few flusher threads as unordered bulk inserts, a batch being
+ * flushed once it is full or its oldest add has waited long enough. Each caller
+ * blocks until the batch holding its product is acknowledged, so an add that
+ * returns is as durable as with a single save. Unlike a save, adding an id
+ * that already exists fails instead of replacing the product.
+ * <p>
+ * A caller waits at most the write timeout. Adds still queued at shutdown, once
+ * the flushers have had their grace period, fail instead of being left waiting.
+ */
+@Component
+@ConditionalOnProperty(name = "product.write-behind.enabled", havingValue = "true")
+public class ProductWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteBehind.class);
+
+    private final ProductRepository productRepository;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final ExecutorService flushers;
+
+    private final int batchSize;
+
+    private final long maxDelayNanos;
+
+    private final long offerTimeoutMillis;
+
+    private final long writeTimeoutMillis;
+
+    private final long shutdownTimeoutMillis;
+
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running = true;
+
+    public ProductWriteBehind(ProductRepository productRepository, MeterRegistry meterRegistry,
+            @Value("${product.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${product.write-behind.batch-size:500}") int batchSize,
+            @Value("${product.write-behind.max-delay:5}") long maxDelayMillis,
+            @Value("${product.write-behind.offer-timeout:1000}") long offerTimeoutMillis,
+            @Value("${product.write-behind.write-timeout:10000}") long writeTimeoutMillis,
+            @Value("${product.write-behind.shutdown-timeout:10000}") long shutdownTimeoutMillis,
+            @Value("${product.write-behind.flushers:2}") int flushers) {
+        this.productRepository = productRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.batchSizes = DistributionSummary.builder("product.write-behind.batch.size").register(meterRegistry);
+        Gauge.builder("product.write-behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushers = Executors.newFixedThreadPool(flushers, new CustomizableThreadFactory("product-write-"));
+        for (int i = 0; i < flushers; i++) {
+            this.flushers.execute(this::flushLoop);
+        }
+    }
+
+    private record Pending(ProductInformation product, CompletableFuture<ProductInformation> result) {
+    }
+
+    /**
+     * Inserts a product with the next batch and waits for the batch to be
+     * acknowledged.
+     *
+     * @param product the product to insert
+     * @return the inserted product
+     * @throws ServiceUnavailable if the queue stays full, or the batch is not acknowledged in time
+     * @throws Exception          the cause if the insert failed
+     */
+    public ProductInformation insert(ProductInformation product) throws Exception {
+        Pending pending = new Pending(product, new CompletableFuture<>());
+        if (!running || !queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new ServiceUnavailable("Too many products are waiting to be written, please retry later");
+        }
+        try {
+            return pending.result().get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new ServiceUnavailable("The product could not be written in time, please retry later");
+            }
+            // already taken by a flusher, so the product may still be written
+            throw new ServiceUnavailable("The product was not acknowledged in time and may have been added");
+        }
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, e);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to write a batch of {} products", batch.size(), e);
+                fail(batch, e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<ProductInformation> products = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            products.add(pending.product());
+        }
+        batchSizes.record(batch.size());
+        Map<Integer, String> errors = productRepository.insertAll(products);
+        for (int i = 0; i < batch.size(); i++) {
+            String error = errors.get(i);
+            if (error == null) {
+                batch.get(i).result().complete(batch.get(i).product());
+            } else {
+                batch.get(i).result().completeExceptionally(new IllegalStateException(error));
+            }
+        }
+    }
+
+    private static void fail(List<Pending> batch, Exception e) {
+        for (Pending pending : batch) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // stop taking adds, then let the flushers write what is queued
+        running = false;
+        flushers.shutdown();
+        if (!flushers.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            flushers.shutdownNow();
+            flushers.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Failing {} products that were not written before shutdown", left.size());
+            fail(left, new ServiceUnavailable("The service is shutting down, please retry"));
+        }
+    }
+}
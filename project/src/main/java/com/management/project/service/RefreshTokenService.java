@@ -0,0 +1,133 @@
+package com.management.project.service;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.management.project.entity.RefreshTokenFamily;
+import com.management.project.repository.RefreshTokenFamilyRepository;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Issues and rotates refresh tokens. Each login starts a token family; every
+ * refresh replaces the family's current token and extends its expiry with a
+ * compare-and-set on the family document, so a refresh costs one indexed write. Presenting a token
+ * that has already been rotated revokes the whole family. Recently revoked
+ * families are kept in a small LRU so their tokens are rejected without
+ * touching the store; whether a token is current is only decided by the
+ * compare-and-set, since the family may have been rotated by another instance.
+ */
+@Service
+public class RefreshTokenService {
+
+    public static final String FAMILY_CLAIM = "fid";
+
+    private final RefreshTokenFamilyRepository familyRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final JwtService jwtService;
+
+    private final Set<String> revokedFamilies;
+
+    public RefreshTokenService(RefreshTokenFamilyRepository familyRepository, MongoTemplate mongoTemplate,
+            JwtService jwtService, @Value("${auth.refresh.cache-size:10000}") int cacheSize) {
+        this.familyRepository = familyRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.jwtService = jwtService;
+        this.revokedFamilies = Collections.synchronizedSet(Collections.newSetFromMap(
+                new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > cacheSize;
+                    }
+                }));
+    }
+
+    /**
+     * Starts a new token family for a login.
+     *
+     * @param user the authenticated user
+     * @return the first refresh token of the family
+     */
+    public String issue(UserDetails user) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        RefreshTokenFamily family = new RefreshTokenFamily(familyId, user.getUsername(), tokenId,
+                new Date(System.currentTimeMillis() + JwtService.REFRESH_TOKEN_VALIDITY_MILLIS));
+        familyRepository.insert(family);
+        return jwtService.generateRefreshToken(claims(familyId, tokenId), user);
+    }
+
+    /**
+     * Replaces a refresh token with the next token of its family.
+     *
+     * @param claims the claims of the presented refresh token
+     * @param user   the token's user
+     * @return the new refresh token
+     * @throws UsernameNotFoundException if the token is not a refresh token, was
+     *                                   already rotated, or its family is revoked or expired
+     */
+    public String rotate(Claims claims, UserDetails user) {
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        if (!JwtService.isRefreshToken(claims) || familyId == null) {
+            throw new UsernameNotFoundException("Not a refresh token");
+        }
+        String tokenId = claims.getId();
+        if (revokedFamilies.contains(familyId)) {
+            throw new UsernameNotFoundException("Refresh token has been revoked");
+        }
+
+        String nextTokenId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        Date expiresAt = new Date(now + JwtService.REFRESH_TOKEN_VALIDITY_MILLIS);
+        // the TTL monitor removes expired families only once a minute
+        Query current = Query.query(Criteria.where("_id").is(familyId)
+                .and("currentTokenId").is(tokenId)
+                .and("revoked").is(false)
+                .and("expiresAt").gt(new Date(now)));
+        RefreshTokenFamily rotated = mongoTemplate.findAndModify(current,
+                new Update().set("currentTokenId", nextTokenId).set("expiresAt", expiresAt),
+                FindAndModifyOptions.options().returnNew(true), RefreshTokenFamily.class);
+        if (rotated == null) {
+            revokeFamily(familyId);
+            throw new UsernameNotFoundException("Refresh token has already been used");
+        }
+        return jwtService.generateRefreshToken(claims(familyId, nextTokenId), user);
+    }
+
+    /**
+     * Revokes every refresh token of a family.
+     *
+     * @param familyId the family id
+     */
+    public void revokeFamily(String familyId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(familyId)),
+                new Update().set("revoked", true), RefreshTokenFamily.class);
+        revokedFamilies.add(familyId);
+    }
+
+    private static HashMap<String, Object> claims(String familyId, String tokenId) {
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(Claims.ID, tokenId);
+        return claims;
+    }
+}
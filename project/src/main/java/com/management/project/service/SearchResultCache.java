@@ -0,0 +1,165 @@
+package com.management.project.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.management.project.entity.ProductInformation;
+
+/**
+ * LRU cache of search results, bounded by the total number of cached products
+ * rather than the number of queries.
+ * <p>
+ * Every write bumps a generation counter before and after it runs, and an entry
+ * is only served while the generation it was loaded in is current. A result
+ * loaded while a write was running is not cached, so once a write has returned
+ * no search can see results from before it.
+ * <p>
+ * The generation only sees writes made through this instance. Writes made by
+ * other instances are picked up once entries expire, so the time to live bounds
+ * how stale a result served in a multi-instance deployment can be.
+ */
+public class SearchResultCache {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongSupplier nanoClock;
+
+    private volatile long maxWeight;
+
+    private volatile long ttlNanos;
+
+    private long weight;
+
+    private long entriesGeneration;
+
+    public SearchResultCache(long maxWeight, Duration ttl) {
+        this(maxWeight, ttl, System::nanoTime);
+    }
+
+    SearchResultCache(long maxWeight, Duration ttl, LongSupplier nanoClock) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    private record Entry(long generation, long loadedAt, List<ProductInformation> products) {
+    }
+
+    /**
+     * Returns the cached result for a key, loading and caching it on a miss.
+     *
+     * @param key    the normalized query
+     * @param loader loads the result
+     * @return the result, shared with other callers, so it must not be modified
+     */
+    public List<ProductInformation> get(String key, Supplier<List<ProductInformation>> loader) {
+        long loadedIn = generation.get();
+        long now = nanoClock.getAsLong();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.generation() == loadedIn && now - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+                return entry.products();
+            }
+        }
+        misses.increment();
+        boolean cacheable = writesInFlight.get() == 0;
+        List<ProductInformation> products = loader.get();
+        if (cacheable) {
+            put(key, loadedIn, now, products);
+        }
+        return products;
+    }
+
+    private synchronized void put(String key, long loadedIn, long loadedAt, List<ProductInformation> products) {
+        if (generation.get() != loadedIn) {
+            return;
+        }
+        if (entriesGeneration != loadedIn) {
+            // nothing cached in an older generation can be served again
+            entries.clear();
+            weight = 0;
+            entriesGeneration = loadedIn;
+        }
+        long entryWeight = products.size() + 1L;
+        if (entryWeight > maxWeight / 4) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(loadedIn, loadedAt, products));
+        if (previous != null) {
+            weight -= previous.products().size() + 1L;
+        }
+        weight += entryWeight;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().products().size() + 1L;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Called before a write; results loaded from now on are not cached.
+     */
+    public void beginWrite() {
+        writesInFlight.incrementAndGet();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Called after a write, whether it succeeded or not.
+     */
+    public void endWrite() {
+        generation.incrementAndGet();
+        writesInFlight.decrementAndGet();
+    }
+
+    /**
+     * Drops every cached result; results being loaded now are not cached.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the current generation, which changes with every write
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+}
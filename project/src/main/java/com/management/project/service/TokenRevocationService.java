@@ -0,0 +1,154 @@
+package com.management.project.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.management.project.entity.RevokedToken;
+import com.management.project.repository.RevokedTokenRepository;
+import com.management.project.util.BloomFilter;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Tracks revoked tokens. Every authenticated request probes an in-memory Bloom
+ * filter of revoked token ids once; the revocation store is only read when the
+ * filter reports a possible match. Per-user watermarks are few and are kept in
+ * memory outright. Both are rebuilt from the store periodically, which also
+ * picks up revocations made on other instances.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final long expectedEntries;
+
+    private volatile Revocations revocations;
+
+    private final Object lock = new Object();
+
+    // revocations made while a rebuild reads the store, added to the rebuilt filter before it is used
+    private List<RevokedToken> pending;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            @Value("${auth.revocation.expected-entries:100000}") long expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.revocations = new Revocations(new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE),
+                new ConcurrentHashMap<>());
+    }
+
+    /**
+     * The revoked token ids and the watermark of each revoked user.
+     */
+    private record Revocations(BloomFilter tokens, Map<String, Date> users) {
+
+        void add(RevokedToken revoked) {
+            if (revoked.getId().startsWith(RevokedToken.USER_PREFIX)) {
+                if (revoked.getIssuedBefore() != null) {
+                    users.merge(revoked.getId().substring(RevokedToken.USER_PREFIX.length()),
+                            revoked.getIssuedBefore(), (a, b) -> a.after(b) ? a : b);
+                }
+            } else {
+                tokens.put(revoked.getId());
+            }
+        }
+    }
+
+    /**
+     * Revokes a single token.
+     *
+     * @param claims the claims of the token
+     */
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            // issued before token ids were added, fall back to the issue time
+            revokeUser(claims.getSubject(), new Date(claims.getIssuedAt().getTime() + 1000));
+            return;
+        }
+        RevokedToken revoked = new RevokedToken(RevokedToken.TOKEN_PREFIX + claims.getId(), null,
+                claims.getExpiration());
+        revokedTokenRepository.save(revoked);
+        remember(revoked);
+    }
+
+    /**
+     * Revokes every token of a user issued before the given time.
+     *
+     * @param username     the token subject
+     * @param issuedBefore tokens issued before this time are revoked
+     */
+    public void revokeUser(String username, Date issuedBefore) {
+        Date expiresAt = new Date(issuedBefore.getTime() + JwtService.REFRESH_TOKEN_VALIDITY_MILLIS);
+        RevokedToken revoked = new RevokedToken(RevokedToken.USER_PREFIX + username, issuedBefore, expiresAt);
+        revokedTokenRepository.save(revoked);
+        remember(revoked);
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param claims the claims of the token
+     * @return true if the token is revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        Revocations current = revocations;
+        Date issuedBefore = current.users().get(claims.getSubject());
+        if (issuedBefore != null && claims.getIssuedAt().before(issuedBefore)) {
+            return true;
+        }
+        if (claims.getId() == null) {
+            return false;
+        }
+        String tokenKey = RevokedToken.TOKEN_PREFIX + claims.getId();
+        return current.tokens().mightContain(tokenKey) && revokedTokenRepository.existsById(tokenKey);
+    }
+
+    private void remember(RevokedToken revoked) {
+        synchronized (lock) {
+            revocations.add(revoked);
+            if (pending != null) {
+                pending.add(revoked);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:60000}",
+            initialDelayString = "${auth.revocation.rebuild-interval:60000}")
+    public synchronized void rebuildFilter() {
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            long count = revokedTokenRepository.count();
+            Revocations rebuilt = new Revocations(
+                    new BloomFilter(Math.max(expectedEntries, count * 2), FALSE_POSITIVE_RATE),
+                    new ConcurrentHashMap<>());
+            try (Stream<RevokedToken> revoked = revokedTokenRepository.streamAllBy()) {
+                revoked.forEach(rebuilt::add);
+            }
+            synchronized (lock) {
+                // the stream may have passed these before they were saved
+                pending.forEach(rebuilt::add);
+                revocations = rebuilt;
+            }
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+}
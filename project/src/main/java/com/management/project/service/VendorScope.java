@@ -0,0 +1,36 @@
+package com.management.project.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.management.project.enums.Role;
+
+/**
+ * Resolves which vendor's products the current request may see. A vendor sees
+ * only the products it owns; admins, and work running outside a request, see
+ * the whole catalog.
+ */
+public final class VendorScope {
+
+    private VendorScope() {
+    }
+
+    /**
+     * @return the JWT subject of the calling vendor, or null for the global view
+     */
+    public static String current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        boolean vendor = false;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (Role.ADMIN.name().equals(authority.getAuthority())) {
+                return null;
+            }
+            vendor |= Role.VENDOR.name().equals(authority.getAuthority());
+        }
+        return vendor ? authentication.getName() : null;
+    }
+}
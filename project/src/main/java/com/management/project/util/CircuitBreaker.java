@@ -0,0 +1,129 @@
+package com.management.project.util;
+
+/**
+ * Circuit breaker tripped by slow or failed calls. While closed, the outcome of
+ * the last calls is kept in a sliding window; once enough of them are bad the
+ * breaker opens and rejects calls. After the open period a few probe calls are
+ * let through: if they are all good the breaker closes, otherwise it opens
+ * again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final long slowCallNanos;
+
+    private final double badCallRate;
+
+    private final int minimumCalls;
+
+    private final long openNanos;
+
+    private final int probes;
+
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+
+    private int calls;
+
+    private int badCalls;
+
+    private int next;
+
+    private long openUntil;
+
+    private int probesStarted;
+
+    private int probesSucceeded;
+
+    /**
+     * @param slowCallNanos a call taking longer than this counts as bad
+     * @param badCallRate   the share of bad calls in the window that opens the breaker
+     * @param windowSize    how many recent calls are considered
+     * @param minimumCalls  how many calls are needed before the breaker can open
+     * @param openNanos     how long the breaker stays open before probing
+     * @param probes        how many probe calls must succeed to close it
+     */
+    public CircuitBreaker(long slowCallNanos, double badCallRate, int windowSize, int minimumCalls, long openNanos,
+            int probes) {
+        this.slowCallNanos = slowCallNanos;
+        this.badCallRate = badCallRate;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = openNanos;
+        this.probes = probes;
+    }
+
+    /**
+     * Asks to make a call. A permitted call must be reported with {@link #record}.
+     *
+     * @return whether the call may be made
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted == probes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Reports a permitted call.
+     *
+     * @param nanos  how long the call took
+     * @param failed whether the call failed
+     */
+    public synchronized void record(long nanos, boolean failed) {
+        boolean bad = failed || nanos > slowCallNanos;
+        switch (state) {
+            case CLOSED -> {
+                if (calls == window.length) {
+                    badCalls -= window[next] ? 1 : 0;
+                } else {
+                    calls++;
+                }
+                window[next] = bad;
+                badCalls += bad ? 1 : 0;
+                next = (next + 1) % window.length;
+                if (calls >= minimumCalls && badCalls >= badCallRate * calls) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                if (bad) {
+                    open();
+                } else if (++probesSucceeded == probes) {
+                    state = State.CLOSED;
+                    calls = 0;
+                    badCalls = 0;
+                    next = 0;
+                }
+            }
+            case OPEN -> {
+                // a call started before the breaker opened
+            }
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = System.nanoTime() + openNanos;
+    }
+}
@@ -0,0 +1,128 @@
+package com.management.project.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV records one at a time, so a file of any size can be
+ * processed with constant memory. Quoted fields may contain commas, doubled
+ * quotes and line breaks. Not thread-safe.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+
+    private final int maxRecordLength;
+
+    private long line = 1;
+
+    private long recordLine;
+
+    private int pushedBack = -2;
+
+    /**
+     * @param reader          the input, ideally buffered
+     * @param maxRecordLength the longest record accepted, in characters
+     */
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @return the line number the last record started on
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields, or null at the end of the input
+     * @throws IOException if the input fails or a record is longer than allowed
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            endOfLine(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IOException("Record on line " + recordLine + " is longer than " + maxRecordLength
+                        + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                    if (c == '\r' || c == '\n') {
+                        endOfLine(c);
+                        if (c == '\r' && pushedBack == -2) {
+                            field.append('\n');
+                        }
+                    }
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    endOfLine(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Counts a line break that started with the given character, consuming the
+     * line feed of a CRLF pair.
+     */
+    private void endOfLine(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int following = read();
+            if (following != '\n') {
+                pushedBack = following;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
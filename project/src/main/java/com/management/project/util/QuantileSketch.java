@@ -0,0 +1,136 @@
+package com.management.project.util;
+
+/**
+ * Mergeable quantile sketch with a relative accuracy guarantee (DDSketch).
+ * Positive values are counted in logarithmic bins, so values can also be
+ * removed and two sketches can be merged by adding their bins. Values too small
+ * to bin, including zero and below, share a single bin that reports 0.
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private final double relativeAccuracy;
+
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double logGamma;
+
+    private long zeroCount;
+
+    private long[] bins = new long[0];
+
+    private int offset;
+
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < MIN_INDEXABLE) {
+            zeroCount++;
+            count++;
+            return;
+        }
+        int index = index(value);
+        ensure(index);
+        bins[index - offset]++;
+        count++;
+    }
+
+    /**
+     * Removes a value that was added before.
+     *
+     * @param value the value
+     */
+    public void remove(double value) {
+        if (value < MIN_INDEXABLE) {
+            if (zeroCount > 0) {
+                zeroCount--;
+                count--;
+            }
+            return;
+        }
+        int index = index(value) - offset;
+        if (index >= 0 && index < bins.length && bins[index] > 0) {
+            bins[index]--;
+            count--;
+        }
+    }
+
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < other.bins.length; i++) {
+            if (other.bins[i] > 0) {
+                int index = i + other.offset;
+                ensure(index);
+                bins[index - offset] += other.bins[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the estimate, within the relative accuracy, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen > rank) {
+                return value(i + offset);
+            }
+        }
+        return value(bins.length - 1 + offset);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        // midpoint of the bin (gamma^(i-1), gamma^i] in relative terms
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    private void ensure(int index) {
+        if (bins.length == 0) {
+            bins = new long[16];
+            offset = index - 8;
+            return;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, bins.length / 2);
+            long[] resized = new long[bins.length + grow];
+            System.arraycopy(bins, 0, resized, grow, bins.length);
+            bins = resized;
+            offset -= grow;
+        } else if (index >= offset + bins.length) {
+            int grow = Math.max(index - offset - bins.length + 1, bins.length / 2);
+            long[] resized = new long[bins.length + grow];
+            System.arraycopy(bins, 0, resized, 0, bins.length);
+            bins = resized;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.management.project.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call
+ * and everyone arriving while it is in flight waits for the same result,
+ * including its exception. Nothing is kept once the call completes.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the call, or joins the call already running for the key.
+     *
+     * @param key  the key identifying the call
+     * @param call the call
+     * @return the result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        calls.increment();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            V value = call.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * @return the number of calls made, coalesced or not
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return the number of calls that joined a call already in flight
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package com.management.project.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import com.management.project.entity.ProductInformation;
+
+public class CompactStorageCodecTest {
+
+    @Test
+    void uuidIdIsStoredAsBinaryAndDecodedBack() {
+        String id = UUID.randomUUID().toString();
+
+        Object stored = CompactStorageCodec.encodeId(id);
+
+        Binary binary = assertInstanceOf(Binary.class, stored);
+        assertEquals(BsonBinarySubType.UUID_STANDARD.getValue(), binary.getType());
+        assertEquals(16, binary.getData().length);
+        assertEquals(id, CompactStorageCodec.decodeId(stored));
+    }
+
+    @Test
+    void idsThatWouldNotDecodeToThemselvesAreStoredUnchanged() {
+        assertEquals("product-42", CompactStorageCodec.encodeId("product-42"));
+        String upperCase = UUID.randomUUID().toString().toUpperCase();
+        assertEquals(upperCase, CompactStorageCodec.encodeId(upperCase));
+        // accepted by UUID.fromString, but printed as 00000001-0002-0003-0004-000000000005
+        assertEquals("1-2-3-4-5", CompactStorageCodec.encodeId("1-2-3-4-5"));
+        assertNull(CompactStorageCodec.encodeId(null));
+    }
+
+    @Test
+    void storedStringIdsAreReadUnchanged() {
+        assertEquals("product-42", CompactStorageCodec.decodeId("product-42"));
+        assertNull(CompactStorageCodec.decodeId(null));
+    }
+
+    @Test
+    void pricesRoundTripThroughMinorUnits() {
+        assertEquals(1999, CompactStorageCodec.toMinorUnits(19.99));
+        assertEquals(30, CompactStorageCodec.toMinorUnits(0.1 + 0.2));
+        assertEquals(0, CompactStorageCodec.toMinorUnits(0.004));
+        for (long minorUnits : new long[] { 0, 1, 99, 1999, 123_456_789 }) {
+            assertEquals(minorUnits, CompactStorageCodec.toMinorUnits(CompactStorageCodec.fromMinorUnits(minorUnits)));
+        }
+        assertEquals(19.99, CompactStorageCodec.fromMinorUnits(1999));
+    }
+
+    @Test
+    void priceConverterStoresMinorUnits() {
+        CompactStorageConfiguration.PriceConverter converter = new CompactStorageConfiguration.PriceConverter();
+
+        assertEquals(1999L, converter.write(19.99, null));
+        assertEquals(19.99, converter.read(1999L, null));
+        assertEquals(19.99, converter.read(1999, null));
+    }
+
+    @Test
+    void savedDocumentGetsTheBinaryIdAndReadsBackAsTheString() {
+        String id = UUID.randomUUID().toString();
+        Document document = new Document("_id", id).append(CompactStorageCodec.PRICE, 1999L);
+
+        new CompactStorageConfiguration().compactProductIdCallback()
+                .onBeforeSave(new ProductInformation(id, "Lamp", "Desk lamp", 19.99), document, "product_information");
+
+        Binary stored = assertInstanceOf(Binary.class, document.get("_id"));
+        assertEquals(id, CompactStorageConfiguration.BinaryToStringConverter.INSTANCE.convert(stored));
+    }
+}
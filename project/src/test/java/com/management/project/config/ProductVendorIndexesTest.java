@@ -0,0 +1,34 @@
+package com.management.project.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+public class ProductVendorIndexesTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final IndexOperations indexes = mock(IndexOperations.class);
+
+    @Test
+    void indexesAreCreatedOnStartupWithAutoIndexCreation() {
+        when(mongoTemplate.indexOps(ProductInformation.class)).thenReturn(indexes);
+
+        new ProductVendorIndexes(mongoTemplate, true).onReady();
+
+        verify(indexes, times(2)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void startupSkipsTheIndexesWithoutAutoIndexCreation() {
+        new ProductVendorIndexes(mongoTemplate, false).onReady();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
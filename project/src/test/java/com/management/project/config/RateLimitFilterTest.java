@@ -0,0 +1,81 @@
+package com.management.project.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class RateLimitFilterTest {
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private final MockFilterChain chain = new MockFilterChain();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowedRequestContinuesDownTheChain() throws Exception {
+        when(rateLimiter.tryAcquire("10.0.0.1", "/api/product/search")).thenReturn(0L);
+
+        filter.doFilter(request("/api/product/search"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void limitedRequestAnswers429WithTheWaitRoundedUp() throws Exception {
+        when(rateLimiter.tryAcquire("10.0.0.1", "/api/product/search"))
+                .thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        filter.doFilter(request("/api/product/search"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shortWaitStillAsksForASecond() throws Exception {
+        when(rateLimiter.tryAcquire("10.0.0.1", "/api/product/search")).thenReturn(1L);
+
+        filter.doFilter(request("/api/product/search"), response, chain);
+
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void authenticatedRequestsAreKeyedByTheSubjectAndTheRouteWithoutContextPath() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null,
+                List.of(new SimpleGrantedAuthority("VENDOR"))));
+        MockHttpServletRequest request = request("/app/api/product/search");
+        request.setContextPath("/app");
+
+        filter.doFilter(request, response, chain);
+
+        verify(rateLimiter).tryAcquire("alice", "/api/product/search");
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
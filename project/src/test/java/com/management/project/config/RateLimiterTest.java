@@ -0,0 +1,103 @@
+package com.management.project.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    private static final String SEARCH = "/api/product/search";
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    private final AtomicLong now = new AtomicLong();
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties.getRoutes().put(SEARCH, limit(2, 1));
+        rateLimiter = new RateLimiter(properties, now::get);
+    }
+
+    @Test
+    void eachSubjectHasItsOwnBucket() {
+        assertEquals(0, rateLimiter.tryAcquire("alice", SEARCH));
+        assertEquals(0, rateLimiter.tryAcquire("alice", SEARCH));
+        assertTrue(rateLimiter.tryAcquire("alice", SEARCH) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("bob", SEARCH));
+    }
+
+    @Test
+    void eachRouteHasItsOwnBucket() {
+        properties.getRoutes().put("/api/product/search/name", limit(1, 1));
+        rateLimiter.tryAcquire("alice", SEARCH);
+        rateLimiter.tryAcquire("alice", SEARCH);
+
+        assertEquals(0, rateLimiter.tryAcquire("alice", "/api/product/search/name"));
+        assertTrue(rateLimiter.tryAcquire("alice", "/api/product/search/name") > 0);
+    }
+
+    @Test
+    void routesWithoutALimitUseTheDefaultOrAreNotLimited() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("alice", "/api/products"));
+        }
+
+        properties.setDefaultLimit(limit(1, 1));
+        assertEquals(0, rateLimiter.tryAcquire("alice", "/api/products"));
+        assertTrue(rateLimiter.tryAcquire("alice", "/api/products") > 0);
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("alice", SEARCH));
+        }
+    }
+
+    @Test
+    void idleBucketsAreEvictedWithoutLosingState() {
+        properties.setIdleTimeout(Duration.ofSeconds(10));
+        rateLimiter.tryAcquire("alice", SEARCH);
+        rateLimiter.tryAcquire("alice", SEARCH);
+
+        // still refilling: evicting it would hand out a fresh burst of two
+        now.set(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(0, rateLimiter.tryAcquire("alice", SEARCH));
+        assertTrue(rateLimiter.tryAcquire("alice", SEARCH) > 0);
+
+        now.set(TimeUnit.SECONDS.toNanos(60));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(0, rateLimiter.tryAcquire("alice", SEARCH));
+    }
+
+    @Test
+    void invalidLimitsFailAtStartup() {
+        RateLimitProperties zeroRefill = new RateLimitProperties();
+        zeroRefill.getRoutes().put(SEARCH, limit(10, 0));
+        IllegalArgumentException refill = assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(zeroRefill));
+        assertTrue(refill.getMessage().contains("rate-limit.routes[" + SEARCH + "]"), refill.getMessage());
+
+        RateLimitProperties zeroCapacity = new RateLimitProperties();
+        zeroCapacity.setDefaultLimit(limit(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(zeroCapacity));
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
@@ -0,0 +1,78 @@
+package com.management.project.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void fullBucketAllowsABurstOfItsCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 10, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0), "request " + i);
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void tokensComeBackAtTheRefillRate() {
+        TokenBucket bucket = new TokenBucket(2, 4, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(SECOND / 4, bucket.tryAcquire(0));
+        assertEquals(SECOND / 8, bucket.tryAcquire(SECOND / 8));
+        assertEquals(0, bucket.tryAcquire(SECOND / 4));
+        assertTrue(bucket.tryAcquire(SECOND / 4) > 0);
+    }
+
+    @Test
+    void rejectedRequestsTakeNoToken() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        bucket.tryAcquire(0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+        }
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void idleTimeDoesNotGrowTheBurstPastTheCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+        long later = 3600 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void bucketIsIdleOnceRefilledAndUnused() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(2 * SECOND, 10 * SECOND));
+        assertTrue(bucket.isIdle(13 * SECOND, 10 * SECOND));
+    }
+
+    @Test
+    void nonPositiveSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(-1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, -2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, Double.NaN, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 2e9, 0));
+        // one token a week, held up to two billion times, does not fit in nanoseconds
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(Integer.MAX_VALUE, 1.0 / 604800, 0));
+    }
+}
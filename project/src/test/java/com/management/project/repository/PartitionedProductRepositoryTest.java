@@ -0,0 +1,188 @@
+package com.management.project.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the partitioned repository over stand-in partitions.
+ */
+public class PartitionedProductRepositoryTest {
+
+    private static final int PARTITIONS = 3;
+
+    private final List<ProductRepository> partitions = new ArrayList<>();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PartitionedProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions.add(mock(ProductRepository.class));
+        }
+        repository = new PartitionedProductRepository(partitions, Duration.ofMillis(200), 6, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void pointOperationsGoToTheOwningPartition() {
+        ProductInformation product = new ProductInformation("product-42", "Product", "Description", 10.0);
+        int owner = repository.partitionOf(product.getId());
+        when(partitions.get(owner).save(product)).thenReturn(product);
+        when(partitions.get(owner).findById("product-42")).thenReturn(Optional.of(product));
+
+        assertSame(product, repository.save(product));
+        assertEquals(Optional.of(product), repository.findById("product-42"));
+        for (int i = 0; i < PARTITIONS; i++) {
+            if (i != owner) {
+                verifyNoInteractions(partitions.get(i));
+            }
+        }
+    }
+
+    @Test
+    void searchesAreMergedFromEveryPartition() {
+        for (int i = 0; i < PARTITIONS; i++) {
+            when(partitions.get(i).findByPriceBetween(0, 100))
+                    .thenReturn(List.of(new ProductInformation("p" + i, "Product " + i, "Description", 10.0 * i)));
+        }
+
+        assertEquals(PARTITIONS, repository.findByPriceBetween(0, 100).size());
+        for (ProductRepository partition : partitions) {
+            verify(partition).findByPriceBetween(0, 100);
+        }
+    }
+
+    @Test
+    void limitedSearchKeepsTheTopResultsOfAllPartitions() {
+        Pageable page = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "price"));
+        when(partitions.get(0).findByPriceBetween(0, 100, page)).thenReturn(List.of(product("a", 5), product("b", 40)));
+        when(partitions.get(1).findByPriceBetween(0, 100, page)).thenReturn(List.of(product("c", 1), product("d", 50)));
+        when(partitions.get(2).findByPriceBetween(0, 100, page)).thenReturn(List.of());
+
+        List<ProductInformation> top = repository.findByPriceBetween(0, 100, page);
+
+        assertEquals(List.of("c", "a"), top.stream().map(ProductInformation::getId).toList());
+    }
+
+    @Test
+    void laterPagesAskEachPartitionForEverythingBeforeThem() {
+        Pageable page = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price"));
+        Pageable top = PageRequest.of(0, 4, page.getSort());
+        when(partitions.get(0).findByPriceBetween(0, 100, top)).thenReturn(List.of(product("a", 90), product("b", 30)));
+        when(partitions.get(1).findByPriceBetween(0, 100, top)).thenReturn(List.of(product("c", 80), product("d", 70)));
+        when(partitions.get(2).findByPriceBetween(0, 100, top)).thenReturn(List.of(product("e", 20)));
+
+        List<ProductInformation> second = repository.findByPriceBetween(0, 100, page);
+
+        assertEquals(List.of("d", "b"), second.stream().map(ProductInformation::getId).toList());
+    }
+
+    @Test
+    void slowPartitionFailsTheQuery() {
+        when(partitions.get(0).findByNameIgnoreCaseContaining("Product")).thenReturn(List.of());
+        when(partitions.get(1).findByNameIgnoreCaseContaining("Product")).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return List.of();
+        });
+        when(partitions.get(2).findByNameIgnoreCaseContaining("Product")).thenReturn(List.of());
+
+        assertThrows(QueryTimeoutException.class, () -> repository.findByNameIgnoreCaseContaining("Product"));
+        assertEquals(1.0, registry.get("product.partition.timeouts").tag("partition", "1").counter().count());
+    }
+
+    @Test
+    void timeoutCountsFromTheStartOfEachPartitionCall() {
+        repository.shutdown();
+        // one thread: the partitions are queried one after the other
+        repository = new PartitionedProductRepository(partitions, Duration.ofMillis(500), 1, registry);
+        for (ProductRepository partition : partitions) {
+            when(partition.findByNameIgnoreCaseContaining("Product")).thenAnswer(invocation -> {
+                Thread.sleep(200);
+                return List.of(product("p", 1));
+            });
+        }
+
+        assertEquals(PARTITIONS, repository.findByNameIgnoreCaseContaining("Product").size());
+        assertEquals(0.0, registry.get("product.partition.timeouts").tag("partition", "2").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fluentQueryKeepsTheTopResultsOfAllPartitions() {
+        Example<ProductInformation> example = Example.of(new ProductInformation(null, "Product", null, 0));
+        List<List<ProductInformation>> results = List.of(List.of(product("a", 5), product("b", 40)),
+                List.of(product("c", 1), product("d", 50)), List.of());
+        List<FetchableFluentQuery<ProductInformation>> queries = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            FetchableFluentQuery<ProductInformation> query = mock(FetchableFluentQuery.class, RETURNS_SELF);
+            when(query.all()).thenReturn(results.get(i));
+            when(query.count()).thenReturn((long) results.get(i).size());
+            queries.add(query);
+            when(partitions.get(i).findBy(eq(example), any())).thenAnswer(invocation -> invocation
+                    .<Function<FetchableFluentQuery<ProductInformation>, Object>>getArgument(1).apply(query));
+        }
+
+        List<ProductInformation> top = repository.findBy(example,
+                query -> query.sortBy(Sort.by("price")).limit(2).all());
+
+        assertEquals(List.of("c", "a"), top.stream().map(ProductInformation::getId).toList());
+        assertEquals(4L, repository.findBy(example, FetchableFluentQuery::count));
+        for (FetchableFluentQuery<ProductInformation> query : queries) {
+            verify(query).limit(2);
+        }
+    }
+
+    @Test
+    void bulkInsertErrorsKeepTheirPositions() {
+        List<ProductInformation> products = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            products.add(product("id-" + i, i));
+        }
+        int failing = repository.partitionOf("id-7");
+        for (int i = 0; i < PARTITIONS; i++) {
+            when(partitions.get(i).insertAll(anyList())).thenReturn(Map.of());
+        }
+        when(partitions.get(failing).insertAll(anyList())).thenAnswer(invocation -> {
+            List<ProductInformation> batch = invocation.getArgument(0);
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i).getId().equals("id-7")) {
+                    return Map.of(i, "duplicate key");
+                }
+            }
+            return Map.of();
+        });
+
+        assertEquals(Map.of(7, "duplicate key"), repository.insertAll(products));
+    }
+
+    private static ProductInformation product(String id, double price) {
+        return new ProductInformation(id, "Product " + id, "Description", price);
+    }
+}
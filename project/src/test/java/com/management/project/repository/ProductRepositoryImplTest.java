@@ -0,0 +1,107 @@
+package com.management.project.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.entity.ProductInformation;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Checks that compact storage looks products up by their binary id.
+ */
+public class ProductRepositoryImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+
+    @SuppressWarnings("unchecked")
+    private final FindIterable<Document> found = mock(FindIterable.class, RETURNS_SELF);
+
+    private final ProductRepositoryImpl repository = new ProductRepositoryImpl(mongoTemplate, true);
+
+    private final String id = UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(ProductInformation.class)).thenReturn("product_information");
+        when(mongoTemplate.getCollection("product_information")).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(found);
+    }
+
+    @Test
+    void findByIdQueriesTheBinaryIdAndReadsTheDocument() {
+        Document document = new Document("_id", CompactStorageCodec.encodeId(id));
+        ProductInformation product = new ProductInformation(id, "Lamp", "Desk lamp", 19.99);
+        MongoConverter converter = mongoTemplate.getConverter();
+        when(converter.read(ProductInformation.class, document)).thenReturn(product);
+        when(found.first()).thenReturn(document);
+
+        assertEquals(Optional.of(product), repository.findById(id));
+        assertEquals(CompactStorageCodec.encodeId(id), idOf(filter()));
+    }
+
+    @Test
+    void missingProductIsEmpty() {
+        when(found.first()).thenReturn(null);
+
+        assertEquals(Optional.empty(), repository.findById(id));
+    }
+
+    @Test
+    void deleteByIdRemovesTheBinaryId() {
+        repository.deleteById(id);
+
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).deleteOne(filter.capture());
+        assertEquals(CompactStorageCodec.encodeId(id), idOf(filter.getValue()));
+    }
+
+    @Test
+    void existsByIdCountsTheBinaryId() {
+        when(collection.countDocuments(any(Bson.class))).thenReturn(1L);
+
+        assertTrue(repository.existsById(id));
+        verify(collection).countDocuments(
+                argThat((Bson filter) -> CompactStorageCodec.encodeId(id).equals(idOf(filter))));
+    }
+
+    @Test
+    void plainStorageUsesTheTemplate() {
+        ProductRepositoryImpl plain = new ProductRepositoryImpl(mongoTemplate, false);
+        ProductInformation product = new ProductInformation(id, "Lamp", "Desk lamp", 19.99);
+        when(mongoTemplate.findById(eq(id), eq(ProductInformation.class))).thenReturn(product);
+
+        assertEquals(Optional.of(product), plain.findById(id));
+        verify(collection, never()).find(any(Bson.class));
+    }
+
+    private Bson filter() {
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).find(filter.capture());
+        return filter.getValue();
+    }
+
+    private static Object idOf(Bson filter) {
+        BsonValue id = filter.toBsonDocument().get("_id");
+        return id.isBinary() ? new Binary(id.asBinary().getType(), id.asBinary().getData()) : id.asString().getValue();
+    }
+}
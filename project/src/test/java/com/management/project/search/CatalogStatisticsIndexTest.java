@@ -0,0 +1,228 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.management.project.dto.CatalogStatistics;
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.PartitionedProductRepository;
+import com.management.project.repository.ProductRepository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+
+/**
+ * Keeps a stand-in collection next to the index and compares the statistics
+ * with exact figures over it.
+ */
+public class CatalogStatisticsIndexTest {
+
+    private static final double ACCURACY = 0.01;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final CatalogStatisticsIndex index = new CatalogStatisticsIndex(productRepository, mongoTemplate,
+            ACCURACY, false);
+
+    private final Map<String, ProductInformation> stored = new LinkedHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenAnswer(invocation -> new AggregationResults<>(totals(), new Document()));
+        when(productRepository.streamAllBy()).thenAnswer(invocation -> new ArrayList<>(stored.values()).stream());
+        index.loaded();
+    }
+
+    @Test
+    void incrementalUpdatesMatchTheCatalog() {
+        Random random = new Random(17);
+        for (int i = 0; i < 2_000; i++) {
+            save(Integer.toString(i), 1 + random.nextDouble() * 500);
+        }
+        for (int i = 0; i < 600; i++) {
+            save(Integer.toString(random.nextInt(2_000)), 1 + random.nextDouble() * 900);
+        }
+        for (int i = 0; i < 400; i++) {
+            delete(Integer.toString(random.nextInt(2_000)));
+        }
+
+        assertMatchesCatalog(index.statistics());
+    }
+
+    @Test
+    void unchangedPriceIsNotCountedTwice() {
+        save("1", 10);
+        save("1", 10);
+
+        assertEquals(1, index.statistics().getCount());
+    }
+
+    @Test
+    void reconcileRestoresExactBoundsWithoutAScan() {
+        save("1", 10);
+        save("2", 20);
+        save("3", 30);
+        delete("1");
+
+        index.reconcile();
+
+        CatalogStatistics statistics = index.statistics();
+        assertEquals(20.0, statistics.getMinPrice());
+        assertEquals(30.0, statistics.getMaxPrice());
+        verify(productRepository, never()).streamAllBy();
+    }
+
+    @Test
+    void partitionedCatalogIsNotReconciledAgainstTheMainDatabase() {
+        PartitionedProductRepository partitions = mock(PartitionedProductRepository.class);
+        CatalogStatisticsIndex partitioned = new CatalogStatisticsIndex(partitions, mongoTemplate, ACCURACY, false);
+        partitioned.productSaved(null, product("1", 10));
+        partitioned.loaded();
+
+        partitioned.reconcile();
+
+        assertEquals(1, partitioned.statistics().getCount());
+        verifyNoInteractions(mongoTemplate);
+        verify(partitions, never()).streamAllBy();
+    }
+
+    @Test
+    void reconcileRebuildsAfterDrift() {
+        Random random = new Random(29);
+        for (int i = 0; i < 500; i++) {
+            save(Integer.toString(i), 1 + random.nextDouble() * 100);
+        }
+        // written by another instance, this one never heard of them
+        for (int i = 500; i < 800; i++) {
+            stored.put(Integer.toString(i), product(Integer.toString(i), 200 + random.nextDouble() * 100));
+        }
+        stored.remove("7");
+        assertEquals(500, index.statistics().getCount());
+
+        index.reconcile();
+
+        verify(productRepository).streamAllBy();
+        assertMatchesCatalog(index.statistics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesDuringTheAggregateAreNotTakenForDrift() {
+        save("1", 10);
+        save("2", 20);
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenAnswer(invocation -> {
+            // one write lands before the aggregate reads the collection, one after
+            stored.put("3", product("3", 30));
+            List<Document> totals = totals();
+            index.productSaved(null, stored.get("3"));
+            save("4", 40);
+            return new AggregationResults<>(totals, new Document());
+        });
+
+        index.reconcile();
+
+        verify(productRepository, never()).streamAllBy();
+        assertMatchesCatalog(index.statistics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void driftIsStillFoundWhileWritesRun() {
+        save("1", 10);
+        save("2", 20);
+        // written by another instance
+        for (int i = 10; i < 20; i++) {
+            stored.put(Integer.toString(i), product(Integer.toString(i), i));
+        }
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenAnswer(invocation -> {
+            List<Document> totals = totals();
+            save("3", 30);
+            return new AggregationResults<>(totals, new Document());
+        });
+
+        index.reconcile();
+
+        verify(productRepository).streamAllBy();
+        assertMatchesCatalog(index.statistics());
+    }
+
+    @Test
+    void writesDuringTheRebuildScanAreKept() {
+        save("1", 10);
+        save("2", 20);
+        stored.put("3", product("3", 30));
+        when(productRepository.streamAllBy()).thenAnswer(invocation -> new ArrayList<>(stored.values()).stream()
+                .peek(product -> {
+                    if (product.getId().equals("1")) {
+                        // after the scan read its copy of the collection
+                        save("2", 25);
+                        save("4", 40);
+                        delete("3");
+                    }
+                }));
+
+        index.reconcile();
+
+        verify(productRepository).streamAllBy();
+        assertMatchesCatalog(index.statistics());
+        assertEquals(3, index.statistics().getCount());
+    }
+
+    private void save(String id, double price) {
+        ProductInformation product = product(id, price);
+        index.productSaved(stored.put(id, product), product);
+    }
+
+    private void delete(String id) {
+        ProductInformation product = stored.remove(id);
+        if (product != null) {
+            index.productDeleted(product);
+        }
+    }
+
+    private void assertMatchesCatalog(CatalogStatistics statistics) {
+        double[] prices = stored.values().stream().mapToDouble(ProductInformation::getPrice).sorted().toArray();
+        assertEquals(prices.length, statistics.getCount());
+        assertEquals(prices[0], statistics.getMinPrice(), prices[0] * ACCURACY);
+        assertEquals(prices[prices.length - 1], statistics.getMaxPrice(), prices[prices.length - 1] * ACCURACY);
+        double mean = stored.values().stream().mapToDouble(ProductInformation::getPrice).average().orElseThrow();
+        assertEquals(mean, statistics.getMeanPrice(), 1e-6);
+        for (Map.Entry<String, Double> percentile : statistics.getPercentiles().entrySet()) {
+            double quantile = Integer.parseInt(percentile.getKey().substring(1)) / 100.0;
+            double exact = prices[(int) (quantile * (prices.length - 1))];
+            assertEquals(exact, percentile.getValue(), exact * ACCURACY * (1 + 1e-9), percentile.getKey());
+        }
+    }
+
+    private List<Document> totals() {
+        if (stored.isEmpty()) {
+            return List.of();
+        }
+        double[] prices = stored.values().stream().mapToDouble(ProductInformation::getPrice).toArray();
+        return List.of(new Document("count", prices.length)
+                .append("sum", Arrays.stream(prices).sum())
+                .append("min", Arrays.stream(prices).min().orElseThrow())
+                .append("max", Arrays.stream(prices).max().orElseThrow()));
+    }
+
+    private static ProductInformation product(String id, double price) {
+        return new ProductInformation(id, "Product " + id, "Description", price);
+    }
+}
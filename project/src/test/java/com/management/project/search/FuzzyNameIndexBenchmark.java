@@ -0,0 +1,102 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares fuzzy lookups against the regex scan behind /search/name. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class FuzzyNameIndexBenchmark {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int QUERIES = 2_000;
+
+    private static final String[] BRANDS = { "acme", "globex", "initech", "umbrella", "hooli", "stark", "wayne",
+            "wonka", "tyrell", "cyberdyne" };
+    private static final String[] ITEMS = { "keyboard", "monitor", "headphones", "charger", "speaker", "camera",
+            "router", "notebook", "tablet", "printer" };
+
+    @Test
+    void fuzzyIndexVersusRegexScan() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(PRODUCTS);
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)] + " "
+                    + random.nextInt(5_000);
+            names.add(name);
+            index.productSaved(null, new ProductInformation(Integer.toString(i), name, "Description", 10.0));
+        }
+        index.loaded();
+
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(typo(names.get(random.nextInt(PRODUCTS)), random));
+        }
+
+        // warm up both paths
+        run(index, names, queries.subList(0, 200));
+
+        long start = System.nanoTime();
+        int fuzzyHits = 0;
+        for (String query : queries) {
+            if (!index.search(query, 2, 20).isEmpty()) {
+                fuzzyHits++;
+            }
+        }
+        long fuzzyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int regexHits = 0;
+        for (String query : queries) {
+            if (regexScan(names, query) > 0) {
+                regexHits++;
+            }
+        }
+        long regexNanos = System.nanoTime() - start;
+
+        System.out.printf("fuzzy index: %.1f us/query, %d/%d queries matched%n",
+                fuzzyNanos / 1000.0 / QUERIES, fuzzyHits, QUERIES);
+        System.out.printf("regex scan:  %.1f us/query, %d/%d queries matched%n",
+                regexNanos / 1000.0 / QUERIES, regexHits, QUERIES);
+        assertEquals(QUERIES, fuzzyHits);
+    }
+
+    private static void run(FuzzyNameIndex index, List<String> names, List<String> queries) {
+        for (String query : queries) {
+            index.search(query, 2, 20);
+            regexScan(names, query);
+        }
+    }
+
+    private static int regexScan(List<String> names, String query) {
+        Pattern pattern = Pattern.compile(Pattern.quote(query), Pattern.CASE_INSENSITIVE);
+        int matches = 0;
+        for (String name : names) {
+            if (pattern.matcher(name).find()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String typo(String name, Random random) {
+        StringBuilder typo = new StringBuilder(name);
+        int position = 1 + random.nextInt(name.length() - 2);
+        char swap = typo.charAt(position);
+        typo.setCharAt(position, typo.charAt(position + 1));
+        typo.setCharAt(position + 1, swap);
+        return typo.toString();
+    }
+}
@@ -0,0 +1,247 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keeps a stand-in catalog next to the index and checks every lookup against a
+ * brute-force Levenshtein scan over it.
+ */
+public class FuzzyNameIndexTest {
+
+    private static final String[] WORDS = { "lamp", "lamb", "camp", "damp", "desk", "disk", "dusk", "chair", "chain",
+            "charm", "table", "cable", "fable", "stable" };
+
+    private final FuzzyNameIndex index = new FuzzyNameIndex();
+
+    private final Map<String, ProductInformation> stored = new LinkedHashMap<>();
+
+    private int nextId;
+
+    @Test
+    void distanceMatchesKnownValues() {
+        assertEquals(0, FuzzyNameIndex.distance("lamp", "lamp"));
+        assertEquals(1, FuzzyNameIndex.distance("lamp", "lamb"));
+        assertEquals(1, FuzzyNameIndex.distance("lamp", "lamps"));
+        assertEquals(1, FuzzyNameIndex.distance("lamp", "amp"));
+        assertEquals(3, FuzzyNameIndex.distance("kitten", "sitting"));
+        assertEquals(4, FuzzyNameIndex.distance("", "desk"));
+        assertEquals(FuzzyNameIndex.distance("flaw", "lawn"), FuzzyNameIndex.distance("lawn", "flaw"));
+    }
+
+    @Test
+    void distanceMatchesTheFullTable() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2_000; i++) {
+            String a = randomName(random);
+            String b = randomName(random);
+            assertEquals(bruteForceDistance(a, b), FuzzyNameIndex.distance(a, b), a + " / " + b);
+        }
+    }
+
+    @Test
+    void lookupsMatchABruteForceScan() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            save(newId(), randomName(random));
+        }
+        assertMatchesScan(random);
+    }
+
+    @Test
+    void lookupsStayExactThroughRenamesAndDeletes() {
+        Random random = new Random(23);
+        for (int i = 0; i < 400; i++) {
+            save(newId(), randomName(random));
+        }
+        for (int round = 0; round < 2_000; round++) {
+            List<String> ids = new ArrayList<>(stored.keySet());
+            String id = ids.get(random.nextInt(ids.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> save(newId(), randomName(random));
+                case 1 -> save(id, randomName(random));
+                default -> delete(id);
+            }
+            if (round % 100 == 0) {
+                assertMatchesScan(random);
+            }
+        }
+        assertMatchesScan(random);
+    }
+
+    @Test
+    void removedNameIsNotReturned() {
+        String lamp = save(newId(), "lamp");
+        save(newId(), "lamb");
+
+        delete(lamp);
+
+        assertEquals(List.of("lamb"), names(index.search("lamp", 1, 10)));
+        assertMatchesScan(new Random(1));
+    }
+
+    @Test
+    void nameStaysWhileAnotherProductHasIt() {
+        String first = save(newId(), "desk");
+        String second = save(newId(), "desk");
+
+        delete(first);
+
+        List<FuzzyNameIndex.Match> matches = index.search("desk", 0, 10);
+        assertEquals(1, matches.size());
+        assertEquals(List.of(second), matches.get(0).productIds());
+    }
+
+    @Test
+    void removedNameCanBeAddedAgain() {
+        String lamp = save(newId(), "lamp");
+        save(newId(), "camp");
+        delete(lamp);
+
+        String again = save(newId(), "lamp");
+
+        List<FuzzyNameIndex.Match> matches = index.search("lamp", 0, 10);
+        assertEquals(1, matches.size());
+        assertEquals(List.of(again), matches.get(0).productIds());
+        assertMatchesScan(new Random(2));
+    }
+
+    @Test
+    void deadEntriesAreDroppedWhenTheTreeIsRebuilt() {
+        List<String> ids = new ArrayList<>();
+        for (String word : WORDS) {
+            ids.add(save(newId(), word));
+        }
+        // enough removals to outnumber the live names and force a rebuild
+        for (int i = 0; i < ids.size() - 2; i++) {
+            delete(ids.get(i));
+        }
+
+        assertEquals(2, index.search("table", 10, 100).size());
+        assertMatchesScan(new Random(4));
+
+        for (String word : WORDS) {
+            save(newId(), word);
+        }
+        assertMatchesScan(new Random(5));
+    }
+
+    @Test
+    void unchangedNameIsNotIndexedTwice() {
+        String id = save(newId(), "Desk  Lamp");
+        save(id, "desk lamp");
+
+        List<FuzzyNameIndex.Match> matches = index.search("desk lamp", 0, 10);
+        assertEquals(1, matches.size());
+        assertEquals(List.of(id), matches.get(0).productIds());
+    }
+
+    private void assertMatchesScan(Random random) {
+        List<String> names = stored.values().stream().map(ProductInformation::getName).toList();
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            queries.add(names.isEmpty() || random.nextBoolean() ? randomName(random)
+                    : typo(names.get(random.nextInt(names.size())), random));
+        }
+        for (String query : queries) {
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                int limit = 1 + random.nextInt(20);
+                List<FuzzyNameIndex.Match> expected = scan(query, maxDistance, limit);
+                List<FuzzyNameIndex.Match> actual = index.search(query, maxDistance, limit);
+                assertEquals(names(expected), names(actual), query + " within " + maxDistance);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).distance(), actual.get(i).distance(), expected.get(i).name());
+                    assertEquals(Set.copyOf(expected.get(i).productIds()), Set.copyOf(actual.get(i).productIds()),
+                            expected.get(i).name());
+                }
+            }
+        }
+    }
+
+    private List<FuzzyNameIndex.Match> scan(String query, int maxDistance, int limit) {
+        String key = SuggestionIndex.normalize(query);
+        Map<String, List<String>> idsByName = new LinkedHashMap<>();
+        for (ProductInformation product : stored.values()) {
+            idsByName.computeIfAbsent(SuggestionIndex.normalize(product.getName()), name -> new ArrayList<>())
+                    .add(product.getId());
+        }
+        List<FuzzyNameIndex.Match> matches = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : idsByName.entrySet()) {
+            int distance = bruteForceDistance(key, entry.getKey());
+            if (distance <= maxDistance) {
+                matches.add(new FuzzyNameIndex.Match(entry.getKey(), distance, entry.getValue()));
+            }
+        }
+        matches.sort(Comparator.comparingInt(FuzzyNameIndex.Match::distance)
+                .thenComparing(FuzzyNameIndex.Match::name));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    // the textbook full table, independent of the rolling-row implementation
+    private static int bruteForceDistance(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                } else {
+                    table[i][j] = Math.min(table[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+
+    private String save(String id, String name) {
+        ProductInformation product = new ProductInformation(id, name, "Description", 10.0);
+        index.productSaved(stored.put(id, product), product);
+        return id;
+    }
+
+    private void delete(String id) {
+        ProductInformation product = stored.remove(id);
+        if (product != null) {
+            index.productDeleted(product);
+        }
+    }
+
+    private String newId() {
+        return Integer.toString(nextId++);
+    }
+
+    private static List<String> names(List<FuzzyNameIndex.Match> matches) {
+        return matches.stream().map(FuzzyNameIndex.Match::name).toList();
+    }
+
+    private static String randomName(Random random) {
+        String name = WORDS[random.nextInt(WORDS.length)];
+        return random.nextBoolean() ? name : name + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String typo(String name, Random random) {
+        StringBuilder typo = new StringBuilder(name);
+        int edits = random.nextInt(3);
+        for (int i = 0; i < edits && typo.length() > 1; i++) {
+            int at = random.nextInt(typo.length());
+            switch (random.nextInt(3)) {
+                case 0 -> typo.deleteCharAt(at);
+                case 1 -> typo.insert(at, (char) ('a' + random.nextInt(26)));
+                default -> typo.setCharAt(at, (char) ('a' + random.nextInt(26)));
+            }
+        }
+        return typo.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PriceIndexTest {
+
+    private final PriceIndex index = new PriceIndex();
+
+    @BeforeEach
+    void setUp() {
+        save("a", 10.0);
+        save("b", 20.0);
+        save("c", 30.0);
+        save("d", 40.0);
+        index.loaded();
+    }
+
+    @Test
+    void priceOrderExcludesBothBounds() {
+        assertEquals(List.of("b", "c"), index.idsInPriceOrder(10.0, 40.0, false, 10));
+        assertEquals(List.of("c", "b"), index.idsInPriceOrder(10.0, 40.0, true, 10));
+        assertEquals(List.of("a", "b", "c", "d"), index.idsInPriceOrder(9.99, 40.01, false, 10));
+        assertEquals(List.of(), index.idsInPriceOrder(20.0, 20.0, false, 10));
+    }
+
+    @Test
+    void priceOrderStopsAtTheLimit() {
+        assertEquals(List.of("a", "b"), index.idsInPriceOrder(0, 100, false, 2));
+        assertEquals(List.of("d"), index.idsInPriceOrder(0, 100, true, 1));
+    }
+
+    @Test
+    void priceChangesMoveTheProduct() {
+        save("a", 35.0);
+        index.productDeleted(new ProductInformation("d", "Product d", "Description", 40.0));
+
+        assertEquals(List.of("b", "c", "a"), index.idsInPriceOrder(0, 100, false, 10));
+        assertEquals(3, index.size());
+    }
+
+    private void save(String id, double price) {
+        index.productSaved(null, new ProductInformation(id, "Product " + id, "Description", price));
+    }
+}
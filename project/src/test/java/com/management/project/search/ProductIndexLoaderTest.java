@@ -0,0 +1,181 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.management.project.dto.CatalogStatistics;
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Replays a cursor while writes land on the indexes, in the order the service
+ * notifies listeners: the loader first, then the indexes.
+ */
+public class ProductIndexLoaderTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final PriceIndex priceIndex = new PriceIndex();
+
+    private final CatalogStatisticsIndex statisticsIndex = new CatalogStatisticsIndex(productRepository,
+            mock(MongoTemplate.class), 0.01, false);
+
+    private final SuggestionIndex suggestionIndex = new SuggestionIndex(10, new SimpleMeterRegistry());
+
+    private final List<ProductIndex> indexes = List.of(priceIndex, statisticsIndex, suggestionIndex);
+
+    private ProductIndexLoader loader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<ProductIndex> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> indexes.stream());
+        loader = new ProductIndexLoader(productRepository, provider);
+    }
+
+    @Test
+    void loadsEveryStoredProduct() {
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", 10.0, 1000), product("2", 20.0, 1000)));
+
+        loader.load();
+
+        assertTrue(priceIndex.isReady());
+        assertEquals(List.of("1", "2"), priceIndex.idsInPriceOrder(0, 100, false, 10));
+    }
+
+    @Test
+    void updateDuringLoadIsNotOverwrittenByTheCursorCopy() {
+        ProductInformation stale = product("2", 20.0, 1000);
+        ProductInformation updated = product("2", 50.0, 2000);
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", 10.0, 1000), stale)
+                .peek(row -> {
+                    if (row.getId().equals("1")) {
+                        write(stale, updated);
+                    }
+                }));
+
+        loader.load();
+
+        assertEquals(List.of("1", "2"), priceIndex.idsInPriceOrder(0, 100, false, 10));
+        assertEquals(List.of("2"), priceIndex.idsInPriceOrder(40, 60, false, 10));
+    }
+
+    @Test
+    void deleteDuringLoadIsNotBroughtBack() {
+        ProductInformation deleted = product("2", 20.0, 1000);
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", 10.0, 1000), deleted)
+                .peek(row -> {
+                    if (row.getId().equals("1")) {
+                        delete(deleted);
+                    }
+                }));
+
+        loader.load();
+
+        assertEquals(List.of("1"), priceIndex.idsInPriceOrder(0, 100, false, 10));
+        assertEquals(1, priceIndex.size());
+    }
+
+    @Test
+    void writesAfterTheLoadAreNotTracked() {
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", 10.0, 1000)));
+        loader.load();
+
+        ProductInformation updated = product("1", 30.0, 2000);
+        write(product("1", 10.0, 1000), updated);
+
+        assertEquals(List.of("1"), priceIndex.idsInPriceOrder(25, 35, false, 10));
+    }
+
+    @Test
+    void addReadBeforeItsWriteIsMarkedIsCountedOnce() {
+        ProductInformation added = product("3", "desk lamp", 30.0, 2000);
+        // the cursor reads the new row before the service notifies the listeners
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "floor lamp", 10.0, 1000), added,
+                product("2", "table", 20.0, 1000))
+                .peek(row -> {
+                    if (row.getId().equals("2")) {
+                        write(null, added);
+                    }
+                }));
+
+        loader.load();
+
+        CatalogStatistics statistics = statisticsIndex.statistics();
+        assertEquals(3, statistics.getCount());
+        assertEquals(20.0, statistics.getMeanPrice(), 1e-9);
+        delete(added);
+        assertEquals(2, statisticsIndex.statistics().getCount());
+        assertEquals(List.of(), suggestionIndex.suggest("desk", 10));
+    }
+
+    @Test
+    void updateOfARowNotYetReadDoesNotUndoAnotherProduct() {
+        ProductInformation stale = product("2", "lamp", 20.0, 1000);
+        ProductInformation updated = product("2", "desk", 50.0, 2000);
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "lamp", 10.0, 1000), stale)
+                .peek(row -> {
+                    if (row.getId().equals("1")) {
+                        write(stale, updated);
+                    }
+                }));
+
+        loader.load();
+
+        CatalogStatistics statistics = statisticsIndex.statistics();
+        assertEquals(2, statistics.getCount());
+        assertEquals(30.0, statistics.getMeanPrice(), 1e-9);
+        assertEquals(List.of("lamp"), suggestionIndex.suggest("la", 10));
+        assertEquals(List.of("desk"), suggestionIndex.suggest("de", 10));
+    }
+
+    @Test
+    void deleteOfARowNotYetReadDoesNotUndoAnotherProduct() {
+        ProductInformation deleted = product("2", "lamp", 20.0, 1000);
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "lamp", 10.0, 1000), deleted)
+                .peek(row -> {
+                    if (row.getId().equals("1")) {
+                        delete(deleted);
+                    }
+                }));
+
+        loader.load();
+
+        CatalogStatistics statistics = statisticsIndex.statistics();
+        assertEquals(1, statistics.getCount());
+        assertEquals(10.0, statistics.getMeanPrice(), 1e-9);
+        assertEquals(List.of("lamp"), suggestionIndex.suggest("la", 10));
+    }
+
+    private void write(ProductInformation previous, ProductInformation current) {
+        loader.productSaved(previous, current);
+        indexes.forEach(index -> index.productSaved(previous, current));
+    }
+
+    private void delete(ProductInformation product) {
+        loader.productDeleted(product);
+        indexes.forEach(index -> index.productDeleted(product));
+    }
+
+    private static ProductInformation product(String id, double price, long lastModified) {
+        return product(id, "Product " + id, price, lastModified);
+    }
+
+    private static ProductInformation product(String id, String name, double price, long lastModified) {
+        ProductInformation product = new ProductInformation(id, name, "Description", price);
+        product.setLastModified(new Date(lastModified));
+        return product;
+    }
+}
@@ -0,0 +1,86 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures suggestion latency percentiles over a large catalog while names keep
+ * changing. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class SuggestionIndexBenchmark {
+
+    private static final int PRODUCTS = 500_000;
+    private static final int QUERIES = 50_000;
+
+    private static final String[] BRANDS = { "acme", "globex", "initech", "umbrella", "hooli", "stark", "wayne",
+            "wonka", "tyrell", "cyberdyne" };
+    private static final String[] ITEMS = { "keyboard", "monitor", "headphones", "charger", "speaker", "camera",
+            "router", "notebook", "tablet", "printer" };
+
+    @Test
+    void suggestLatencyUnderWrites() throws InterruptedException {
+        Random random = new Random(42);
+        SuggestionIndex index = new SuggestionIndex(10, new SimpleMeterRegistry());
+        ProductInformation[] products = new ProductInformation[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = new ProductInformation(Integer.toString(i), name(random), "Description", 10.0);
+            index.productSaved(null, products[i]);
+        }
+        index.loaded();
+
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String name = products[random.nextInt(PRODUCTS)].getName();
+            prefixes[i] = name.substring(0, 1 + random.nextInt(Math.min(name.length(), 12)));
+        }
+
+        // renames keep taking the write lock while the lookups run
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            Random writes = new Random(7);
+            while (running.get()) {
+                int i = writes.nextInt(PRODUCTS);
+                ProductInformation renamed = new ProductInformation(products[i].getId(), name(writes),
+                        "Description", 10.0);
+                index.productSaved(products[i], renamed);
+                products[i] = renamed;
+            }
+        });
+        writer.start();
+
+        for (int i = 0; i < 5_000; i++) {
+            index.suggest(prefixes[i], 10);
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.suggest(prefixes[i], 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+        running.set(false);
+        writer.join();
+
+        Arrays.sort(nanos);
+        long p50 = nanos[QUERIES / 2];
+        long p99 = nanos[QUERIES * 99 / 100];
+        System.out.printf("suggest: p50 %.1f us, p99 %.1f us, max %.1f us, %s%n", p50 / 1000.0, p99 / 1000.0,
+                nanos[QUERIES - 1] / 1000.0, index.stats());
+        assertTrue(p99 < 1_000_000, "p99 suggest latency should stay under 1 ms");
+    }
+
+    private static String name(Random random) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)] + " "
+                + random.nextInt(20_000);
+    }
+}
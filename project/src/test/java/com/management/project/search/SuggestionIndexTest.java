@@ -0,0 +1,132 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(10, new SimpleMeterRegistry());
+
+    private int nextId;
+
+    @Test
+    void suggestsTheMostCommonNamesFirst() {
+        add("apple juice");
+        add("Apple Pie");
+        add("apple pie");
+        add("apricot");
+        add("banana");
+
+        assertEquals(List.of("Apple Pie", "apple juice", "apricot"), index.suggest("ap", 10));
+        assertEquals(List.of("Apple Pie", "apple juice"), index.suggest("  APPLE ", 10));
+        assertEquals(List.of("apple juice"), index.suggest("apple j", 10));
+        assertEquals(List.of("Apple Pie"), index.suggest("ap", 1));
+        assertEquals(List.of(), index.suggest("apples", 10));
+        assertEquals(List.of(), index.suggest("c", 10));
+    }
+
+    @Test
+    void keepsOnlyTheTopCompletionsPerNode() {
+        SuggestionIndex small = new SuggestionIndex(2, new SimpleMeterRegistry());
+        small.productSaved(null, product("card"));
+        small.productSaved(null, product("care"));
+        small.productSaved(null, product("care"));
+        small.productSaved(null, product("cart"));
+        small.productSaved(null, product("cart"));
+        small.productSaved(null, product("cart"));
+
+        assertEquals(List.of("cart", "care"), small.suggest("car", 10));
+        assertEquals(List.of("card"), small.suggest("card", 10));
+    }
+
+    @Test
+    void splitsLabelsThatDiverge() {
+        add("card");
+        add("care");
+
+        assertEquals(List.of("card", "care"), index.suggest("ca", 10));
+        assertEquals(List.of("care"), index.suggest("care", 10));
+        // root, "car", "d" and "e"
+        assertEquals(new SuggestionIndex.Stats(2, 4, index.stats().estimatedBytes()), index.stats());
+    }
+
+    @Test
+    void splitsALabelWhenANameIsAPrefixOfAnother() {
+        add("card");
+        add("car");
+
+        assertEquals(List.of("car", "card"), index.suggest("car", 10));
+        assertEquals(List.of("card"), index.suggest("card", 10));
+        assertEquals(3, index.stats().nodes());
+    }
+
+    @Test
+    void removingANamePrunesAndMergesNodes() {
+        ProductInformation card = add("card");
+        ProductInformation care = add("care");
+        ProductInformation car = add("car");
+
+        index.productDeleted(care);
+        assertEquals(List.of("car", "card"), index.suggest("ca", 10));
+        // root, "car" and "d"
+        assertEquals(3, index.stats().nodes());
+
+        index.productDeleted(car);
+        assertEquals(List.of("card"), index.suggest("ca", 10));
+        // "car" is merged into its only child
+        assertEquals(2, index.stats().nodes());
+
+        index.productDeleted(card);
+        assertEquals(List.of(), index.suggest("", 10));
+        assertEquals(new SuggestionIndex.Stats(0, 1, index.stats().estimatedBytes()), index.stats());
+    }
+
+    @Test
+    void nameStaysWhileAnotherProductHasIt() {
+        ProductInformation first = add("lamp");
+        add("lamp");
+
+        index.productDeleted(first);
+
+        assertEquals(List.of("lamp"), index.suggest("la", 10));
+    }
+
+    @Test
+    void renameMovesTheSuggestion() {
+        ProductInformation lamp = add("desk lamp");
+        ProductInformation renamed = new ProductInformation(lamp.getId(), "floor lamp", "Description", 10.0);
+
+        index.productSaved(lamp, renamed);
+
+        assertEquals(List.of(), index.suggest("desk", 10));
+        assertEquals(List.of("floor lamp"), index.suggest("fl", 10));
+    }
+
+    @Test
+    void gaugesShareARecentWalk() {
+        add("lamp");
+        assertEquals(1, index.cachedStats().names());
+
+        add("desk");
+
+        assertEquals(1, index.cachedStats().names());
+        assertEquals(2, index.stats().names());
+    }
+
+    private ProductInformation add(String name) {
+        ProductInformation product = product(name);
+        index.productSaved(null, product);
+        return product;
+    }
+
+    private ProductInformation product(String name) {
+        return new ProductInformation(Integer.toString(nextId++), name, "Description", 10.0);
+    }
+}
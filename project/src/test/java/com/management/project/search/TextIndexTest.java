@@ -0,0 +1,138 @@
+package com.management.project.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the early-terminating search against BM25 scored exhaustively over
+ * every product.
+ */
+public class TextIndexTest {
+
+    private static final String[] WORDS = { "lamp", "desk", "oak", "steel", "led", "warm", "light", "floor",
+            "table", "chair", "black", "white", "small", "large", "office", "garden", "glass", "wood", "metal",
+            "round", "square", "soft", "bright", "kitchen", "shelf" };
+
+    private final TextIndex index = new TextIndex();
+
+    private final Map<String, ProductInformation> catalog = new LinkedHashMap<>();
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        save(new ProductInformation("1", "Office chair", "Black with a steel frame", 10.0));
+        save(new ProductInformation("2", "Steel shelf", "Fits any office", 10.0));
+        save(new ProductInformation("3", "Garden table", "Round", 10.0));
+
+        List<TextIndex.Hit> hits = index.search("office", 10);
+
+        assertEquals(List.of("1", "2"), hits.stream().map(TextIndex.Hit::productId).toList());
+        assertEquals(List.of(), index.search("sofa", 10));
+    }
+
+    @Test
+    void matchesExhaustiveScoringOnARandomCorpus() {
+        Random random = new Random(11);
+        for (int i = 0; i < 400; i++) {
+            save(new ProductInformation(Integer.toString(i), text(random, 1 + random.nextInt(4)),
+                    text(random, random.nextInt(12)), 10.0));
+        }
+        assertSameRanking(random);
+    }
+
+    @Test
+    void matchesExhaustiveScoringAfterUpdatesAndDeletes() {
+        Random random = new Random(23);
+        for (int i = 0; i < 300; i++) {
+            save(new ProductInformation(Integer.toString(i), text(random, 1 + random.nextInt(4)),
+                    text(random, random.nextInt(12)), 10.0));
+        }
+        for (int i = 0; i < 100; i++) {
+            String id = Integer.toString(random.nextInt(300));
+            ProductInformation product = catalog.get(id);
+            if (product == null) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                index.productDeleted(product);
+                catalog.remove(id);
+            } else {
+                save(new ProductInformation(id, text(random, 1 + random.nextInt(4)),
+                        text(random, random.nextInt(12)), 10.0));
+            }
+        }
+        assertSameRanking(random);
+    }
+
+    private void assertSameRanking(Random random) {
+        for (int q = 0; q < 200; q++) {
+            String query = text(random, 1 + random.nextInt(4));
+            for (int limit : new int[] { 1, 5, 20 }) {
+                List<TextIndex.Hit> hits = index.search(query, limit);
+                Map<String, Double> expected = exhaustive(query);
+                List<Double> best = expected.values().stream().sorted(Comparator.reverseOrder())
+                        .limit(limit).toList();
+
+                assertEquals(best.size(), hits.size(), query);
+                for (int i = 0; i < hits.size(); i++) {
+                    TextIndex.Hit hit = hits.get(i);
+                    // ties may be broken either way, so compare scores by rank and each hit's own score
+                    assertEquals(best.get(i), hit.score(), 1e-9, query);
+                    assertEquals(expected.get(hit.productId()), hit.score(), 1e-9, query);
+                }
+            }
+        }
+    }
+
+    private Map<String, Double> exhaustive(String query) {
+        Map<String, Map<String, Integer>> frequencies = new HashMap<>();
+        double totalLength = 0;
+        for (ProductInformation product : catalog.values()) {
+            Map<String, Integer> terms = new HashMap<>();
+            TextIndex.tokenize(product.getName()).forEach(token -> terms.merge(token, 2, Integer::sum));
+            TextIndex.tokenize(product.getDescription()).forEach(token -> terms.merge(token, 1, Integer::sum));
+            frequencies.put(product.getId(), terms);
+            totalLength += terms.values().stream().mapToInt(Integer::intValue).sum();
+        }
+        int documents = catalog.size();
+        double averageLength = totalLength / documents;
+        Map<String, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(TextIndex.tokenize(query))) {
+            long containing = frequencies.values().stream().filter(terms -> terms.containsKey(term)).count();
+            double idf = Math.log(1 + (documents - containing + 0.5) / (containing + 0.5));
+            for (Map.Entry<String, Map<String, Integer>> product : frequencies.entrySet()) {
+                Integer frequency = product.getValue().get(term);
+                if (frequency != null) {
+                    int length = product.getValue().values().stream().mapToInt(Integer::intValue).sum();
+                    double norm = 1.2 * (1 - 0.75 + 0.75 * length / averageLength);
+                    scores.merge(product.getKey(), idf * frequency * 2.2 / (frequency + norm), Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void save(ProductInformation product) {
+        index.productSaved(catalog.put(product.getId(), product), product);
+    }
+
+    private static String text(Random random, int words) {
+        List<String> text = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            // skewed, so some terms are common and some rare
+            text.add(WORDS[(int) (WORDS.length * Math.pow(random.nextDouble(), 2))]);
+        }
+        return String.join(" ", text);
+    }
+}
@@ -0,0 +1,233 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.management.project.controller.ApiExceptionHandler;
+import com.management.project.controller.ProductController;
+import com.management.project.entity.IdempotencyRecord;
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.IdempotencyRecordRepository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Backs the repository and the conditional updates with a map standing in for
+ * the collection.
+ */
+public class IdempotencyServiceTest {
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(repository, mongoTemplate,
+            new ObjectMapper(), Duration.ofHours(24), Duration.ofMinutes(1), 100);
+
+    private final Map<String, IdempotencyRecord> stored = new HashMap<>();
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (stored.putIfAbsent(record.getId(), record) != null) {
+                throw new DuplicateKeyException(record.getId());
+            }
+            return record;
+        });
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            stored.put(record.getId(), record);
+            return record;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(
+                stored.get(invocation.<String>getArgument(0))));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    IdempotencyRecord record = stored.get(id(invocation.getArgument(0)));
+                    if (record == null || !record.getExpiresAt().before(new Date())) {
+                        return null;
+                    }
+                    Document set = (Document) invocation.<Update>getArgument(1).getUpdateObject().get("$set");
+                    IdempotencyRecord claimed = new IdempotencyRecord(record.getId(), set.getString("requestHash"),
+                            set.getDate("expiresAt"));
+                    stored.put(record.getId(), claimed);
+                    return record;
+                });
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            Document filter = invocation.<Query>getArgument(0).getQueryObject();
+            IdempotencyRecord record = stored.get(filter.getString("_id"));
+            if (record != null && record.getStatus() == null
+                    && record.getExpiresAt().equals(filter.get("expiresAt"))) {
+                stored.remove(record.getId());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void successfulResponseIsReplayedWithoutWritingAgain() throws Exception {
+        ResponseEntity<?> first = execute("key", "lamp", HttpStatus.CREATED);
+        ResponseEntity<?> retry = execute("key", "lamp", HttpStatus.CREATED);
+
+        assertEquals(1, writes.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("written lamp", retry.getBody());
+        assertTrue(stored.get("anonymous:add:key").getExpiresAt().getTime()
+                > System.currentTimeMillis() + Duration.ofHours(23).toMillis());
+    }
+
+    @Test
+    void errorResponsesAreNotStored() throws Exception {
+        ResponseEntity<?> rejected = execute("key", "lamp", HttpStatus.BAD_REQUEST);
+        ResponseEntity<?> unavailable = execute("key", "lamp", HttpStatus.SERVICE_UNAVAILABLE);
+        ResponseEntity<?> retry = execute("key", "lamp", HttpStatus.CREATED);
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void failedWriteReleasesTheKey() throws Exception {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key", "add", "lamp", () -> {
+            writes.incrementAndGet();
+            throw new IllegalStateException("Connection refused");
+        }));
+
+        assertFalse(stored.containsKey("anonymous:add:key"));
+        assertEquals(HttpStatus.CREATED, execute("key", "lamp", HttpStatus.CREATED).getStatusCode());
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    void rejectedWriteIsNotStored() throws Exception {
+        BadRequest rejected = assertThrows(BadRequest.class, () -> idempotencyService.execute("key", "add", "lamp",
+                () -> {
+                    writes.incrementAndGet();
+                    throw new BadRequest("Product details are missing or invalid");
+                }));
+        assertThrows(ServiceUnavailable.class, () -> idempotencyService.execute("key", "add", "lamp", () -> {
+            writes.incrementAndGet();
+            throw new ServiceUnavailable("Too many products are waiting to be written, please retry later");
+        }));
+
+        assertEquals("Product details are missing or invalid", rejected.getMessage());
+        assertFalse(stored.containsKey("anonymous:add:key"));
+        assertEquals(HttpStatus.CREATED, execute("key", "lamp", HttpStatus.CREATED).getStatusCode());
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void failedKeyedAddIsNotReplayed() throws Exception {
+        ProductService productService = mock(ProductService.class);
+        ProductController controller = new ProductController();
+        ReflectionTestUtils.setField(controller, "service", productService);
+        ReflectionTestUtils.setField(controller, "idempotencyService", idempotencyService);
+        ProductInformation product = new ProductInformation("1", "Lamp", "Description", 10.0);
+        when(productService.addProduct(product)).thenThrow(new BadRequest("Failed to add product: timeout"))
+                .thenThrow(new ServiceUnavailable("The product could not be written in time, please retry later"))
+                .thenReturn(product);
+
+        BadRequest rejected = assertThrows(BadRequest.class, () -> controller.addProduct(product, "key"));
+        ServiceUnavailable unavailable = assertThrows(ServiceUnavailable.class,
+                () -> controller.addProduct(product, "key"));
+        ResponseEntity<?> retry = controller.addProduct(product, "key");
+
+        ApiExceptionHandler handler = new ApiExceptionHandler();
+        assertEquals(HttpStatus.BAD_REQUEST, handler.badRequest(rejected).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, handler.serviceUnavailable(unavailable).getStatusCode());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertSame(product, retry.getBody());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(productService, times(3)).addProduct(product);
+
+        ResponseEntity<?> replayed = controller.addProduct(product, "key");
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(productService, times(3)).addProduct(product);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsIsRejected() throws Exception {
+        ResponseEntity<?> first = idempotencyService.execute("key", "add", "lamp", () -> {
+            ResponseEntity<?> concurrent = execute("key", "lamp", HttpStatus.CREATED);
+            assertEquals(HttpStatus.CONFLICT, concurrent.getStatusCode());
+            return ResponseEntity.status(HttpStatus.CREATED).body("written");
+        });
+
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void runningRequestHoldsOnlyAShortLease() throws Exception {
+        idempotencyService.execute("key", "add", "lamp", () -> {
+            long leaseLeft = stored.get("anonymous:add:key").getExpiresAt().getTime() - System.currentTimeMillis();
+            assertTrue(leaseLeft <= Duration.ofMinutes(1).toMillis(), "lease of " + leaseLeft + " ms");
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @Test
+    void abandonedLeaseIsTakenOver() throws Exception {
+        IdempotencyRecord abandoned = new IdempotencyRecord("anonymous:add:key", "other request",
+                new Date(System.currentTimeMillis() - 1_000));
+        stored.put(abandoned.getId(), abandoned);
+
+        ResponseEntity<?> response = execute("key", "lamp", HttpStatus.CREATED);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, writes.get());
+        assertEquals(201, stored.get("anonymous:add:key").getStatus());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        execute("key", "lamp", HttpStatus.CREATED);
+
+        ResponseEntity<?> reused = execute("key", "desk", HttpStatus.CREATED);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+        assertEquals(1, writes.get());
+    }
+
+    private ResponseEntity<?> execute(String key, String request, HttpStatus status)
+            throws BadRequest, ServiceUnavailable {
+        return idempotencyService.execute(key, "add", request, () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.status(status).body("written " + request);
+        });
+    }
+
+    private static String id(Query query) {
+        return query.getQueryObject().getString("_id");
+    }
+}
@@ -0,0 +1,147 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.management.project.controller.ApiExceptionHandler;
+import com.management.project.exception.ServiceUnavailable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the hashing pool with one thread and an encoder that can be held.
+ */
+public class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final BlockingEncoder encoder = new BlockingEncoder();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private PasswordHashingService hashing;
+
+    @AfterEach
+    void tearDown() {
+        encoder.release.countDown();
+        callers.shutdownNow();
+        hashing.shutdown();
+    }
+
+    @Test
+    void hashesAndMatchesAreTimed() throws Exception {
+        encoder.release.countDown();
+        hashing = new PasswordHashingService(encoder, registry, 1, 1, Duration.ofSeconds(5));
+
+        String encoded = hashing.encode("secret");
+
+        assertTrue(hashing.matches("secret", encoded));
+        assertFalse(hashing.matches("other", encoded));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "match").timer().count());
+    }
+
+    @Test
+    void fullQueueIsRejectedRightAway() throws Exception {
+        hashing = new PasswordHashingService(encoder, registry, 1, 1, Duration.ofSeconds(5));
+        Future<String> running = callers.submit(() -> hashing.encode("first"));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> hashing.encode("second"));
+        awaitGauge("auth.password.queue.size", 1);
+        assertEquals(1.0, registry.get("auth.password.active").gauge().value());
+
+        long start = System.nanoTime();
+        ServiceUnavailable rejected = assertThrows(ServiceUnavailable.class, () -> hashing.encode("third"));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejected without waiting");
+        assertTrue(rejected.getMessage().contains("Too many"), rejected.getMessage());
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+        encoder.release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void slowHashTimesOutAndIsCancelled() throws Exception {
+        hashing = new PasswordHashingService(encoder, registry, 1, 1, Duration.ofMillis(100));
+
+        ServiceUnavailable timeout = assertThrows(ServiceUnavailable.class, () -> hashing.encode("secret"));
+
+        assertTrue(timeout.getMessage().contains("timed out"), timeout.getMessage());
+        assertTrue(encoder.interrupted.await(5, TimeUnit.SECONDS), "the hash was not interrupted");
+        // the thread is free again
+        encoder.release.countDown();
+        assertEquals("hashed:next", hashing.encode("next"));
+    }
+
+    @Test
+    void encoderFailureReachesTheCaller() {
+        encoder.release.countDown();
+        hashing = new PasswordHashingService(encoder, registry, 1, 1, Duration.ofSeconds(5));
+
+        assertThrows(IllegalArgumentException.class, () -> hashing.matches("secret", null));
+    }
+
+    @Test
+    void rejectionAnswers503WithRetryAfter() {
+        ResponseEntity<?> response = new ApiExceptionHandler()
+                .serviceUnavailable(new ServiceUnavailable("Too many authentication requests, try again later"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get(name).gauge().value() != value) {
+            assertTrue(System.nanoTime() < deadline, name + " never reached " + value);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Prefixes passwords, once released.
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("No encoded password");
+            }
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.management.project.dto.PriceChange;
+import com.management.project.entity.PriceHistoryBucket;
+import com.management.project.entity.ProductInformation;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Backs the bucket upserts and reads with a map standing in for the collection.
+ */
+public class PriceHistoryServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final Map<String, PriceHistoryBucket> buckets = new HashMap<>();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+
+    private volatile CountDownLatch release;
+
+    private PriceHistoryService priceHistory;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(PriceHistoryBucket.class)))
+                .thenAnswer(invocation -> {
+                    writing.countDown();
+                    if (release != null) {
+                        release.await();
+                    }
+                    upsert(invocation.getArgument(0), invocation.getArgument(1));
+                    return null;
+                });
+        // the last bucket, the only one looked up on its own
+        when(mongoTemplate.findOne(any(Query.class), eq(PriceHistoryBucket.class))).thenAnswer(invocation -> {
+            List<PriceHistoryBucket> found = productBuckets(
+                    invocation.<Query>getArgument(0).getQueryObject().getString("productId"));
+            return found.isEmpty() ? null : found.get(found.size() - 1);
+        });
+        when(mongoTemplate.stream(any(Query.class), eq(PriceHistoryBucket.class))).thenAnswer(invocation -> {
+            Document filter = invocation.<Query>getArgument(0).getQueryObject();
+            Date start = ((Document) filter.get("last")).getDate("$gte");
+            Date end = ((Document) filter.get("first")).getDate("$lte");
+            return productBuckets(filter.getString("productId")).stream()
+                    .filter(bucket -> !bucket.getLast().before(start) && !bucket.getFirst().after(end))
+                    .sorted(Comparator.comparing(PriceHistoryBucket::getLast));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (release != null) {
+            release.countDown();
+        }
+        callers.shutdownNow();
+        priceHistory.shutdown();
+    }
+
+    @Test
+    void fullBucketRollsOverIntoTheNextOne() throws Exception {
+        priceHistory = priceHistory(3, 100);
+
+        for (int i = 1; i <= 7; i++) {
+            priceHistory.productSaved(product(i - 1), product(i));
+        }
+        priceHistory.shutdown();
+
+        assertEquals(List.of(3, 3, 1), productBuckets("p").stream().map(PriceHistoryBucket::getCount).toList());
+        assertEquals(List.of(1.0, 2.0, 3.0), prices(buckets.get("p:0")));
+        assertEquals(List.of(4.0, 5.0, 6.0), prices(buckets.get("p:1")));
+        assertEquals(List.of(7.0), prices(buckets.get("p:2")));
+    }
+
+    @Test
+    void bucketFilledByAnotherInstanceIsNotAppendedTo() throws Exception {
+        priceHistory = priceHistory(3, 100);
+        priceHistory.productSaved(product(0), product(1));
+        awaitChanges(1);
+        // another instance appends to the same bucket until it is full
+        synchronized (buckets) {
+            PriceHistoryBucket open = buckets.get("p:0");
+            open.getChanges().add(new PriceChange(new Date(), 10.0, 1.0));
+            open.getChanges().add(new PriceChange(new Date(), 11.0, 10.0));
+            open.setCount(3);
+        }
+
+        priceHistory.productSaved(product(11), product(2));
+        priceHistory.shutdown();
+
+        assertEquals(2, buckets.size());
+        assertEquals(3, buckets.get("p:0").getCount());
+        assertEquals(List.of(2.0), prices(buckets.get("p:1")));
+    }
+
+    @Test
+    void rangeReadReturnsTheChangesWithinTheRangeAcrossBuckets() throws Exception {
+        priceHistory = priceHistory(2, 100);
+        for (int i = 1; i <= 5; i++) {
+            priceHistory.productSaved(product(i - 1), product(i));
+        }
+        priceHistory.shutdown();
+
+        List<PriceChange> range = priceHistory.history("p", at(2), at(4), 100);
+        List<PriceChange> limited = priceHistory.history("p", at(2), at(4), 2);
+        List<PriceChange> all = priceHistory.history("p", null, null, 100);
+
+        assertEquals(List.of(2.0, 3.0, 4.0), range.stream().map(PriceChange::getPrice).toList());
+        assertEquals(List.of(2.0, 3.0), limited.stream().map(PriceChange::getPrice).toList());
+        assertEquals(5, all.size());
+        assertEquals(1.0, all.get(1).getPreviousPrice());
+    }
+
+    @Test
+    void lateChangeInTheNextBucketIsReadInTimeOrder() throws Exception {
+        priceHistory = priceHistory(2, 100);
+        priceHistory.productSaved(product(0), product(1));
+        priceHistory.productSaved(product(1), product(3));
+        // made at minute 2 but recorded after minute 3, so it opens the next bucket
+        priceHistory.productSaved(product(3), product(2));
+        priceHistory.productSaved(product(2), product(4));
+        priceHistory.shutdown();
+        assertEquals(List.of(1.0, 3.0), prices(buckets.get("p:0")));
+        assertEquals(List.of(2.0, 4.0), prices(buckets.get("p:1")));
+
+        List<PriceChange> range = priceHistory.history("p", at(2), at(3), 100);
+        List<PriceChange> inFirstBucketOnly = priceHistory.history("p", at(3), at(3), 100);
+        List<PriceChange> limited = priceHistory.history("p", null, null, 2);
+
+        assertEquals(List.of(2.0, 3.0), range.stream().map(PriceChange::getPrice).toList());
+        assertEquals(List.of(3.0), inFirstBucketOnly.stream().map(PriceChange::getPrice).toList());
+        assertEquals(List.of(1.0, 2.0), limited.stream().map(PriceChange::getPrice).toList());
+    }
+
+    @Test
+    void fullQueueDropsAndCountsTheChangeWithoutHoldingTheWriter() throws Exception {
+        release = new CountDownLatch(1);
+        priceHistory = priceHistory(100, 1);
+        priceHistory.productSaved(product(0), product(1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        priceHistory.productSaved(product(1), product(2));
+
+        Future<?> saved = callers.submit(() -> priceHistory.productSaved(product(2), product(3)));
+        saved.get(1, TimeUnit.SECONDS);
+        release.countDown();
+        priceHistory.shutdown();
+
+        assertEquals(1.0, registry.get("product.price-history.dropped").counter().count());
+        assertEquals(List.of(1.0, 2.0), prices(buckets.get("p:0")));
+    }
+
+    private PriceHistoryService priceHistory(int bucketSize, int queueCapacity) {
+        return new PriceHistoryService(mongoTemplate, registry, bucketSize, queueCapacity, 500);
+    }
+
+    private void upsert(Query query, UpdateDefinition update) {
+        Document filter = query.getQueryObject();
+        Document operations = update.getUpdateObject();
+        String id = filter.getString("_id");
+        int bucketSize = ((Document) filter.get("count")).getInteger("$lt");
+        PriceChange change = (PriceChange) ((Document) operations.get("$push")).get("changes");
+        synchronized (buckets) {
+            PriceHistoryBucket bucket = buckets.get(id);
+            if (bucket != null && bucket.getCount() >= bucketSize) {
+                throw new DuplicateKeyException(id);
+            }
+            if (bucket == null) {
+                Document inserted = (Document) operations.get("$setOnInsert");
+                bucket = new PriceHistoryBucket();
+                bucket.setId(id);
+                bucket.setProductId(inserted.getString("productId"));
+                bucket.setVendorId(inserted.getString("vendorId"));
+                bucket.setSeq(inserted.getInteger("seq"));
+                bucket.setFirst(change.getAt());
+                bucket.setLast(change.getAt());
+                bucket.setChanges(new ArrayList<>());
+                buckets.put(id, bucket);
+            }
+            bucket.getChanges().add(change);
+            bucket.setCount(bucket.getCount() + 1);
+            if (change.getAt().before(bucket.getFirst())) {
+                bucket.setFirst(change.getAt());
+            }
+            if (change.getAt().after(bucket.getLast())) {
+                bucket.setLast(change.getAt());
+            }
+        }
+    }
+
+    private List<PriceHistoryBucket> productBuckets(String productId) {
+        synchronized (buckets) {
+            return buckets.values().stream()
+                    .filter(bucket -> bucket.getProductId().equals(productId))
+                    .sorted(Comparator.comparingInt(PriceHistoryBucket::getSeq))
+                    .toList();
+        }
+    }
+
+    private void awaitChanges(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (productBuckets("p").stream().mapToInt(PriceHistoryBucket::getCount).sum() < count) {
+            assertTrue(System.nanoTime() < deadline, "changes not recorded in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Double> prices(PriceHistoryBucket bucket) {
+        return bucket.getChanges().stream().map(PriceChange::getPrice).toList();
+    }
+
+    // the product at price i, changed at minute i
+    private static ProductInformation product(int price) {
+        ProductInformation product = new ProductInformation("p", "Product", "Description", price);
+        product.setVendorId("acme");
+        product.setLastModified(Date.from(at(price)));
+        return product;
+    }
+
+    private static Instant at(int minute) {
+        return Instant.parse("2026-01-01T00:00:00Z").plusSeconds(60L * minute);
+    }
+}
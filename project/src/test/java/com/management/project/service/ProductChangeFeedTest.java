@@ -0,0 +1,205 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.management.project.dto.ProductChangeEvent;
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the feed with emitters that record what would be written to the
+ * connection.
+ */
+public class ProductChangeFeedTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ProductChangeFeed feed;
+
+    // sends of a slow client's emitter block until the test ends
+    private final CountDownLatch slowClient = new CountDownLatch(1);
+
+    private boolean nextClientSlow;
+
+    @AfterEach
+    void tearDown() {
+        slowClient.countDown();
+        feed.shutdown();
+    }
+
+    @Test
+    void lastEventIdReplaysOnlyMissedEvents() throws InterruptedException {
+        feed = feed(100, 100);
+        RecordingEmitter first = subscribe(null);
+        for (int i = 1; i <= 5; i++) {
+            feed.productSaved(null, product(i));
+        }
+        awaitEvents(first, 5);
+
+        RecordingEmitter resumed = subscribe(first.events.get(1).id());
+        awaitEvents(resumed, 3);
+
+        assertEquals(first.events.subList(2, 5), resumed.events);
+        assertEquals(List.of("3", "4", "5"), resumed.events.stream()
+                .map(event -> ((ProductChangeEvent) event.data()).getProductId()).toList());
+    }
+
+    @Test
+    void resumeAfterTheBufferWrappedStartsWithReset() throws InterruptedException {
+        feed = feed(4, 100);
+        RecordingEmitter first = subscribe(null);
+        for (int i = 1; i <= 10; i++) {
+            feed.productSaved(null, product(i));
+        }
+        awaitEvents(first, 10);
+
+        RecordingEmitter tooOld = subscribe(first.events.get(2).id());
+        RecordingEmitter otherEpoch = subscribe("0-3");
+
+        for (RecordingEmitter emitter : List.of(tooOld, otherEpoch)) {
+            awaitEvents(emitter, 1);
+            assertEquals("reset", emitter.events.get(0).name());
+            assertEquals(first.events.get(9).id(), emitter.events.get(0).id());
+        }
+        // the next event follows the reset, without replaying anything before it
+        feed.productDeleted(product(11));
+        awaitEvents(tooOld, 2);
+        assertEquals("deleted", tooOld.events.get(1).name());
+        assertEquals(2, tooOld.events.size());
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDisconnected() throws InterruptedException {
+        feed = feed(100, 2);
+        nextClientSlow = true;
+        RecordingEmitter slow = subscribe(null);
+        nextClientSlow = false;
+        RecordingEmitter fast = subscribe(null);
+
+        for (int i = 1; i <= 10; i++) {
+            feed.productSaved(null, product(i));
+        }
+        awaitEvents(fast, 10);
+
+        assertTrue(slow.completed);
+        assertEquals(1.0, registry.get("product.feed.overflows").counter().count());
+        assertEquals(1.0, registry.get("product.feed.subscribers").gauge().value());
+    }
+
+    @Test
+    void heartbeatReachesIdleSubscribers() throws InterruptedException {
+        feed = feed(100, 100);
+        RecordingEmitter idle = subscribe(null);
+
+        feed.heartbeat();
+
+        awaitEvents(idle, 1);
+        assertTrue(idle.events.get(0).comment());
+    }
+
+    private ProductChangeFeed feed(int bufferSize, int queueCapacity) {
+        return new ProductChangeFeed(registry, bufferSize, queueCapacity, 2, 60_000) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter(nextClientSlow ? slowClient : null);
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        return (RecordingEmitter) feed.subscribe(lastEventId);
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        await(() -> emitter.size() >= count);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static ProductInformation product(int id) {
+        return new ProductInformation(Integer.toString(id), "Product " + id, "Description", 10.0 * id);
+    }
+
+    private record SentEvent(String id, String name, Object data, boolean comment) {
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<SentEvent> events = new ArrayList<>();
+
+        private final CountDownLatch release;
+
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    data = part.getData();
+                }
+            }
+            String id = null;
+            String name = null;
+            boolean comment = false;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.startsWith("data:") && data == null) {
+                    data = line.substring(5);
+                } else if (line.startsWith(":")) {
+                    comment = true;
+                }
+            }
+            synchronized (events) {
+                events.add(new SentEvent(id, name, data, comment));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private int size() {
+            synchronized (events) {
+                return events.size();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import com.management.project.dto.PriceBucket;
+import com.management.project.dto.PriceHistogram;
+import com.management.project.entity.ProductInformation;
+import com.management.project.repository.PartitionedProductRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public class ProductFacetServiceTest {
+
+    @Test
+    void compactBoundariesNarrowerThanAMinorUnitAreNotRepeated() {
+        ProductFacetService facets = new ProductFacetService(mock(MongoTemplate.class), null, null, null, true);
+
+        Object[] boundaries = facets.boundaries(10.0, 0.004, 5, 1003L);
+
+        assertEquals(List.of(1000L, 1001L, 1002L, 1003L), List.of(boundaries));
+    }
+
+    @Test
+    void boundariesAreStrictlyIncreasing() {
+        ProductFacetService facets = new ProductFacetService(mock(MongoTemplate.class), null, null, null, true);
+
+        Object[] boundaries = facets.boundaries(0.0, 0.0031, 100, 32L);
+
+        for (int i = 1; i < boundaries.length; i++) {
+            assertTrue(((Number) boundaries[i]).longValue() > ((Number) boundaries[i - 1]).longValue());
+        }
+        assertEquals(32L, boundaries[boundaries.length - 1]);
+    }
+
+    @Test
+    void plainBoundariesKeepEveryBucket() {
+        ProductFacetService facets = new ProductFacetService(mock(MongoTemplate.class), null, null, null, false);
+
+        Object[] boundaries = facets.boundaries(10.0, 0.004, 5, Math.nextUp(10.02));
+
+        assertEquals(6, boundaries.length);
+        assertEquals(10.0, boundaries[0]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void partitionedHistogramIsBuiltFromThePartitionsNotTheMainDatabase() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        PartitionedProductRepository partitions = mock(PartitionedProductRepository.class);
+        when(partitions.findByNameIgnoreCaseContaining("lamp")).thenReturn(List.of(
+                new ProductInformation("1", "Desk lamp", "Description", 10.0),
+                new ProductInformation("2", "Floor lamp", "Description", 15.0),
+                new ProductInformation("3", "Lamp shade", "Description", 40.0)));
+        ProductFacetService facets = new ProductFacetService(mongoTemplate, partitions, mock(ObjectProvider.class),
+                null, false);
+
+        PriceHistogram histogram = facets.priceHistogram("lamp", 2, 0.0, 40.0);
+
+        assertEquals(List.of(2L, 1L), histogram.getBuckets().stream().map(PriceBucket::getCount).toList());
+        verifyNoInteractions(mongoTemplate);
+    }
+}
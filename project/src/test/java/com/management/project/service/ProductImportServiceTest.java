@@ -0,0 +1,152 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.management.project.dto.ImportSummary;
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+public class ProductImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ProductService productService = mock(ProductService.class);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ProductReadRouting> readRouting = mock(ObjectProvider.class);
+
+    private final ExecutorService caller = Executors.newSingleThreadExecutor();
+
+    private ProductImportService importService;
+
+    @AfterEach
+    void tearDown() {
+        caller.shutdownNow();
+        importService.shutdown();
+    }
+
+    @Test
+    void reportsEachRejectedRowWithItsLine() throws Exception {
+        importService = new ProductImportService(productService, objectMapper, readRouting, 2, 2, 4, 3);
+        when(productService.validateProduct(any())).thenCallRealMethod();
+        when(productService.addProducts(anyList())).thenAnswer(invocation -> {
+            List<ProductInformation> products = invocation.getArgument(0);
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < products.size(); i++) {
+                if (products.get(i).getName().equals("Sofa")) {
+                    errors.put(i, "Duplicate id");
+                }
+            }
+            return errors;
+        });
+        String csv = """
+                name,description,price
+                Lamp,Oak,10
+                Desk,,20
+                Chair,Steel,abc
+                Shelf,Wood,NaN
+                Table,Glass,1e999
+                Stool,Metal
+                Rug,Wool,-5
+                Sofa,Soft,30
+                """;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImportSummary summary;
+        try (ProductImportService.CsvImport running = importService.open(input(csv))) {
+            summary = running.run(out);
+        }
+
+        assertEquals(8, summary.getRows());
+        assertEquals(1, summary.getImported());
+        assertEquals(7, summary.getFailed());
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        Map<Long, String> errors = new HashMap<>();
+        for (String line : lines.subList(0, lines.size() - 1)) {
+            JsonNode error = objectMapper.readTree(line);
+            errors.put(error.get("line").asLong(), error.get("error").asText());
+        }
+        assertEquals(Map.of(
+                3L, "Product details are missing or invalid",
+                4L, "Invalid price: abc",
+                5L, "Invalid price: NaN",
+                6L, "Invalid price: 1e999",
+                7L, "Expected 3 fields, found 2",
+                8L, "Product details are missing or invalid",
+                9L, "Duplicate id"), errors);
+        assertEquals(8, objectMapper.readTree(lines.get(lines.size() - 1)).get("rows").asLong());
+    }
+
+    @Test
+    void slowInsertsStopTheParserInsteadOfBuffering() throws Exception {
+        importService = new ProductImportService(productService, objectMapper, readRouting, 2, 2, 4, 100);
+        when(productService.validateProduct(any())).thenCallRealMethod();
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.addProducts(anyList())).thenAnswer(invocation -> {
+            inserting.countDown();
+            release.await();
+            return Map.of();
+        });
+        StringBuilder csv = new StringBuilder("name,description,price\n");
+        for (int i = 0; i < 50_000; i++) {
+            csv.append("Product ").append(i).append(",Description,").append(1 + i % 100).append('\n');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        AtomicLong consumed = new AtomicLong();
+        InputStream input = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                consumed.addAndGet(Math.max(read, 0));
+                return read;
+            }
+        };
+
+        ProductImportService.CsvImport running = importService.open(input);
+        Future<ImportSummary> summary = caller.submit(() -> running.run(new ByteArrayOutputStream()));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+
+        // with the writer stuck, the stages fill their queues and the parser blocks
+        long stalled;
+        do {
+            stalled = consumed.get();
+            Thread.sleep(50);
+        } while (consumed.get() != stalled);
+        assertTrue(stalled < bytes.length / 4, "read " + stalled + " of " + bytes.length + " bytes");
+
+        release.countDown();
+        assertEquals(50_000, summary.get(10, TimeUnit.SECONDS).getImported());
+        assertEquals(bytes.length, consumed.get());
+        verify(productService, times(500)).addProducts(anyList());
+        running.close();
+    }
+
+    private static InputStream input(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
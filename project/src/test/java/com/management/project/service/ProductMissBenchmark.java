@@ -0,0 +1,126 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.management.project.exception.BadRequest;
+import com.management.project.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Measures lookups of missing products, the bulk of scanner traffic: the old
+ * path that let {@code Optional.get()} throw against the Optional-based 404,
+ * and a stack-capturing exception against the stackless {@link BadRequest}.
+ * Requests are served from deep in the servlet and security filter stack, so
+ * the calls are made at a comparable depth. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ProductMissBenchmark {
+
+    private static final int LOOKUPS = 200_000;
+    private static final int STACK_DEPTH = 150;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(productRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void missingProductLookups() {
+        // warm up both paths
+        for (int i = 0; i < 20_000; i++) {
+            throwingLookup("warmup-" + i);
+            optionalLookup("warmup-" + i);
+        }
+
+        long throwingNanos = atDepth(STACK_DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertEquals(HttpStatus.BAD_REQUEST, throwingLookup("missing-" + i).getStatusCode());
+            }
+            return System.nanoTime() - start;
+        });
+        long optionalNanos = atDepth(STACK_DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertEquals(HttpStatus.NOT_FOUND, optionalLookup("missing-" + i).getStatusCode());
+            }
+            return System.nanoTime() - start;
+        });
+        long stackfulNanos = atDepth(STACK_DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                try {
+                    throw new StackfulBadRequest("Product not found with ID: " + i);
+                } catch (StackfulBadRequest e) {
+                    assertNotNull(e.getMessage());
+                }
+            }
+            return System.nanoTime() - start;
+        });
+        long stacklessNanos = atDepth(STACK_DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                try {
+                    throw new BadRequest("Product not found with ID: " + i);
+                } catch (BadRequest e) {
+                    assertNotNull(e.getMessage());
+                }
+            }
+            return System.nanoTime() - start;
+        });
+
+        System.out.printf("Optional.get() throwing:   %.2f us/lookup%n", throwingNanos / 1000.0 / LOOKUPS);
+        System.out.printf("Optional mapped to 404:    %.2f us/lookup%n", optionalNanos / 1000.0 / LOOKUPS);
+        System.out.printf("exception with stack:      %.2f us/throw%n", stackfulNanos / 1000.0 / LOOKUPS);
+        System.out.printf("stackless BadRequest:      %.2f us/throw%n", stacklessNanos / 1000.0 / LOOKUPS);
+        assertEquals(0, new BadRequest("miss").getStackTrace().length);
+    }
+
+    // what ProductController#getProductById used to do
+    private ResponseEntity<?> throwingLookup(String productId) {
+        try {
+            return ResponseEntity.ok().body(productService.getProductById(productId).get());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> optionalLookup(String productId) {
+        return productService.getProductById(productId).<ResponseEntity<?>>map(product -> ResponseEntity.ok().body(product))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Product not found with ID: " + productId));
+    }
+
+    private static long atDepth(int depth, Supplier<Long> work) {
+        return depth == 0 ? work.get() : atDepth(depth - 1, work);
+    }
+
+    private static class StackfulBadRequest extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        StackfulBadRequest(String message) {
+            super(message);
+        }
+    }
+}
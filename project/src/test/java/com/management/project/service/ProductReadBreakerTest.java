@@ -0,0 +1,180 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.StoreUnavailableException;
+import com.management.project.repository.ProductRepository;
+import com.management.project.util.CircuitBreaker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives {@link ProductService} reads through the breaker against a repository
+ * that can be made slow or failing.
+ */
+public class ProductReadBreakerTest {
+
+    private static final Duration SLOW_CALL = Duration.ofMillis(50);
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    private ProductReadBreaker readBreaker;
+
+    private final AtomicLong delayMillis = new AtomicLong();
+
+    private final List<ProductInformation> products = List.of(
+            new ProductInformation("1", "Product 1", "Description 1", 100.0));
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        readBreaker = new ProductReadBreaker(new SimpleMeterRegistry(), SLOW_CALL, 0.5, 4, 2, OPEN_DURATION, 1,
+                1000);
+        ReflectionTestUtils.setField(productService, "readBreaker", readBreaker);
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(delayMillis.get());
+            return products;
+        });
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void slowReadsOpenTheBreakerAndServeStaleResults() {
+        productService.getAllProducts();
+        delayMillis.set(100);
+        productService.getAllProducts();
+        assertEquals(CircuitBreaker.State.OPEN, readBreaker.state());
+        assertNull(request.getAttribute(ProductReadBreaker.STALE_ATTRIBUTE));
+
+        long start = System.nanoTime();
+        assertEquals(products, productService.getAllProducts());
+        assertTrue(System.nanoTime() - start < SLOW_CALL.toNanos(), "an open breaker answers without waiting");
+        verify(productRepository, times(2)).findAll();
+        assertEquals(Boolean.TRUE, request.getAttribute(ProductReadBreaker.STALE_ATTRIBUTE));
+    }
+
+    @Test
+    void openBreakerWithoutEarlierResultFailsFast() {
+        delayMillis.set(100);
+        productService.getAllProducts();
+        productService.getAllProducts();
+        assertEquals(CircuitBreaker.State.OPEN, readBreaker.state());
+
+        assertThrows(StoreUnavailableException.class, () -> productService.searchByName("Product"));
+        verify(productRepository, never()).findByNameIgnoreCaseContaining(anyString());
+    }
+
+    @Test
+    void failedReadServesTheLastResult() {
+        productService.getAllProducts();
+        when(productRepository.findAll()).thenThrow(new IllegalStateException("connection refused"));
+
+        assertEquals(products, productService.getAllProducts());
+        assertEquals(Boolean.TRUE, request.getAttribute(ProductReadBreaker.STALE_ATTRIBUTE));
+    }
+
+    @Test
+    void everyRequestSharingAFailedReadIsMarkedStale() throws Exception {
+        ProductInformation product = products.get(0);
+        when(productRepository.findById("1")).thenReturn(Optional.of(product));
+        productService.getProductById("1");
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById("1")).thenAnswer(invocation -> {
+            release.await();
+            throw new IllegalStateException("connection refused");
+        });
+        MockHttpServletRequest leader = new MockHttpServletRequest();
+        MockHttpServletRequest follower = new MockHttpServletRequest();
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<ProductInformation>> first = requests.submit(() -> getProductById(leader));
+            verify(productRepository, timeout(5_000).times(2)).findById("1");
+            Future<Optional<ProductInformation>> second = requests.submit(() -> getProductById(follower));
+            while (productService.productLoads().coalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(Optional.of(product), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of(product), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            requests.shutdownNow();
+        }
+        assertEquals(Boolean.TRUE, leader.getAttribute(ProductReadBreaker.STALE_ATTRIBUTE));
+        assertEquals(Boolean.TRUE, follower.getAttribute(ProductReadBreaker.STALE_ATTRIBUTE));
+    }
+
+    @Test
+    void fastProbeClosesTheBreaker() throws InterruptedException {
+        delayMillis.set(100);
+        productService.getAllProducts();
+        productService.getAllProducts();
+        assertEquals(CircuitBreaker.State.OPEN, readBreaker.state());
+
+        delayMillis.set(0);
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        productService.getAllProducts();
+        assertEquals(CircuitBreaker.State.CLOSED, readBreaker.state());
+        verify(productRepository, times(3)).findAll();
+    }
+
+    @Test
+    void slowProbeOpensTheBreakerAgain() throws InterruptedException {
+        delayMillis.set(100);
+        productService.getAllProducts();
+        productService.getAllProducts();
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        productService.getAllProducts();
+        assertEquals(CircuitBreaker.State.OPEN, readBreaker.state());
+        productService.getAllProducts();
+        verify(productRepository, times(3)).findAll();
+    }
+
+    private Optional<ProductInformation> getProductById(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return productService.getProductById("1");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.BadRequest;
+import com.management.project.repository.ProductRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Routes {@link ProductService} reads between two fake stores, a primary and a
+ * replica that has not seen the latest write.
+ */
+public class ProductReadRoutingTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(90);
+
+    private final TestClock clock = new TestClock();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    private final ProductRepository replica = mock(ProductRepository.class);
+
+    private final ProductInformation updated = new ProductInformation("1", "Product 1", "Description 1", 120.0);
+
+    private final ProductInformation stale = new ProductInformation("1", "Product 1", "Description 1", 100.0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productService, "readRouting",
+                new ProductReadRouting(productRepository, replica, MAX_STALENESS, 100, clock));
+        when(productRepository.findById("1"))
+                .thenAnswer(invocation -> Optional.of(new ProductInformation("1", "Product 1", "Description 1", 100.0)));
+        when(productRepository.save(any(ProductInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.findByNameIgnoreCaseContaining(anyString())).thenReturn(List.of(updated));
+        when(replica.findByNameIgnoreCaseContaining(anyString())).thenReturn(List.of(stale));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void searchesGoToTheReplica() throws BadRequest {
+        signIn("alice");
+
+        assertEquals(100.0, productService.searchByName("Product").get(0).getPrice());
+        verify(replica).findByNameIgnoreCaseContaining("Product");
+        verify(productRepository, never()).findByNameIgnoreCaseContaining(anyString());
+    }
+
+    @Test
+    void writerReadsItsOwnWriteFromThePrimary() throws BadRequest {
+        signIn("alice");
+        productService.updateProduct("1", new ProductInformation(null, null, null, 120.0));
+
+        assertEquals(120.0, productService.searchByName("Product").get(0).getPrice());
+        verify(productRepository).findByNameIgnoreCaseContaining("Product");
+
+        // another caller is not bound to the primary
+        signIn("bob");
+        assertEquals(100.0, productService.searchByName("Product 1").get(0).getPrice());
+        verify(replica).findByNameIgnoreCaseContaining("Product 1");
+    }
+
+    @Test
+    void writerReturnsToTheReplicaOnceTheBoundHasPassed() throws BadRequest {
+        signIn("alice");
+        productService.updateProduct("1", new ProductInformation(null, null, null, 120.0));
+        clock.advance(MAX_STALENESS);
+
+        productService.searchByName("Product");
+        verify(replica).findByNameIgnoreCaseContaining("Product");
+        verify(productRepository, never()).findByNameIgnoreCaseContaining(anyString());
+    }
+
+    @Test
+    void replicaResultsAreNotCachedUntilWritesHaveSettled() throws BadRequest {
+        signIn("alice");
+        productService.updateProduct("1", new ProductInformation(null, null, null, 120.0));
+
+        signIn("bob");
+        productService.searchByName("Product");
+        productService.searchByName("Product");
+        verify(replica, times(2)).findByNameIgnoreCaseContaining("Product");
+
+        clock.advance(MAX_STALENESS);
+        productService.searchByName("Product");
+        productService.searchByName("Product");
+        verify(replica, times(3)).findByNameIgnoreCaseContaining("Product");
+    }
+
+    @Test
+    void pointReadsAndWritesStayOnThePrimary() throws BadRequest {
+        signIn("alice");
+        productService.getProductById("1");
+        productService.updateProduct("1", new ProductInformation(null, null, null, 120.0));
+
+        verify(productRepository, times(2)).findById("1");
+        verify(productRepository).save(any(ProductInformation.class));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void lastWriteHeaderRoutesTheWriterToThePrimaryOnAnotherInstance() throws BadRequest {
+        signIn("alice");
+        MockHttpServletResponse writeResponse = inRequest(new MockHttpServletRequest());
+        productService.updateProduct("1", new ProductInformation(null, null, null, 120.0));
+        String lastWrite = writeResponse.getHeader(ProductReadRouting.LAST_WRITE_HEADER);
+        assertEquals(Long.toString(clock.millis()), lastWrite);
+
+        // a second instance never saw the write, only the header sent back by the client
+        ProductReadRouting otherInstance = new ProductReadRouting(productRepository, replica, MAX_STALENESS, 100,
+                clock);
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        read.addHeader(ProductReadRouting.LAST_WRITE_HEADER, lastWrite);
+        inRequest(read);
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("primary", otherInstance.route().name());
+
+        clock.advance(Duration.ofSeconds(60));
+        assertEquals("replica", otherInstance.route().name());
+    }
+
+    @Test
+    void malformedLastWriteHeaderIsIgnored() {
+        signIn("bob");
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        read.addHeader(ProductReadRouting.LAST_WRITE_HEADER, "soon");
+        inRequest(read);
+
+        ProductReadRouting routing = new ProductReadRouting(productRepository, replica, MAX_STALENESS, 100, clock);
+        assertEquals("replica", routing.route().name());
+    }
+
+    @Test
+    void futureLastWriteHeaderIsIgnored() {
+        signIn("bob");
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        read.addHeader(ProductReadRouting.LAST_WRITE_HEADER, Long.toString(Long.MAX_VALUE));
+        inRequest(read);
+
+        ProductReadRouting routing = new ProductReadRouting(productRepository, replica, MAX_STALENESS, 100, clock);
+        assertEquals("replica", routing.route().name());
+
+        read.removeHeader(ProductReadRouting.LAST_WRITE_HEADER);
+        read.addHeader(ProductReadRouting.LAST_WRITE_HEADER, Long.toString(clock.millis() + 1));
+        assertEquals("replica", routing.route().name());
+    }
+
+    private static MockHttpServletResponse inRequest(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static void signIn(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null, "ADMIN"));
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.enums.Role;
+import com.management.project.repository.ProductRepository;
+import com.management.project.search.FuzzyNameIndex;
+import com.management.project.search.TextIndex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class ProductSearchServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final TextIndex textIndex = new TextIndex();
+
+    private final FuzzyNameIndex fuzzyNameIndex = new FuzzyNameIndex();
+
+    private final List<Integer> reads = new ArrayList<>();
+
+    private final Map<String, ProductInformation> catalog = new LinkedHashMap<>();
+
+    private ProductSearchService searchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<TextIndex> texts = mock(ObjectProvider.class);
+        when(texts.getIfAvailable()).thenReturn(textIndex);
+        ObjectProvider<FuzzyNameIndex> fuzzy = mock(ObjectProvider.class);
+        when(fuzzy.getIfAvailable()).thenReturn(fuzzyNameIndex);
+        searchService = new ProductSearchService(productRepository, mock(ObjectProvider.class), fuzzy, texts);
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<ProductInformation> found = new ArrayList<>();
+            int read = 0;
+            for (String id : invocation.<Iterable<String>>getArgument(0)) {
+                read++;
+                if (catalog.containsKey(id)) {
+                    found.add(catalog.get(id));
+                }
+            }
+            reads.add(read);
+            return found;
+        });
+        // the other vendor's lamps rank first: their names repeat the query term
+        for (int i = 0; i < 40; i++) {
+            save("other" + i, "Lamp lamp lamp " + i, "other");
+        }
+        for (int i = 0; i < 5; i++) {
+            save("own" + i, "Desk lamp " + i, "acme");
+        }
+        textIndex.loaded();
+        fuzzyNameIndex.loaded();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void vendorGetsItsOwnMatchesRankedBelowOtherVendors() throws Exception {
+        authenticate("acme", Role.VENDOR);
+
+        List<ProductInformation> result = searchService.textSearch("lamp", 3);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(product -> "acme".equals(product.getVendorId())));
+    }
+
+    @Test
+    void vendorPageStopsWhenTheIndexHasNoMoreMatches() throws Exception {
+        authenticate("acme", Role.VENDOR);
+
+        List<ProductInformation> result = searchService.textSearch("lamp", 20);
+
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    void adminSeesTheBestMatchesOfTheWholeCatalog() throws Exception {
+        authenticate("root", Role.ADMIN);
+
+        List<ProductInformation> result = searchService.textSearch("lamp", 3);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(product -> "other".equals(product.getVendorId())));
+        verify(productRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void adminReadsOnlyThePage() throws Exception {
+        authenticate("root", Role.ADMIN);
+
+        List<ProductInformation> result = searchService.textSearch("lamp", 3);
+
+        assertEquals(3, result.size());
+        assertEquals(List.of(3), reads);
+    }
+
+    @Test
+    void vendorReadsNoMoreThanWhatIsLeftOfThePage() throws Exception {
+        authenticate("acme", Role.VENDOR);
+
+        List<ProductInformation> result = searchService.textSearch("lamp", 3);
+
+        assertEquals(3, result.size());
+        assertTrue(reads.stream().allMatch(read -> read <= 3), reads.toString());
+    }
+
+    @Test
+    void commonNameIsExpandedOnlyToTheLimit() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            save("same" + i, "Office chair", "other");
+        }
+        save("own-chair", "Office chair", "acme");
+        authenticate("root", Role.ADMIN);
+
+        List<ProductInformation> result = searchService.fuzzySearch("office chiar", 2, 5);
+
+        assertEquals(5, result.size());
+        assertEquals(List.of(5), reads);
+    }
+
+    @Test
+    void vendorFindsItsProductBehindACommonName() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            save("same" + i, "Office chair", "other");
+        }
+        save("own-chair", "Office chair", "acme");
+        authenticate("acme", Role.VENDOR);
+
+        List<ProductInformation> result = searchService.fuzzySearch("office chiar", 2, 5);
+
+        assertEquals(List.of("own-chair"), result.stream().map(ProductInformation::getId).toList());
+        assertTrue(reads.stream().allMatch(read -> read <= 5), reads.toString());
+    }
+
+    private void save(String id, String name, String vendor) {
+        ProductInformation product = new ProductInformation(id, name, "Description", 10.0);
+        product.setVendorId(vendor);
+        ProductInformation previous = catalog.put(id, product);
+        textIndex.productSaved(previous, product);
+        fuzzyNameIndex.productSaved(previous, product);
+    }
+
+    private static void authenticate(String name, Role role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(name, null,
+                List.of(new SimpleGrantedAuthority(role.name()))));
+    }
+}
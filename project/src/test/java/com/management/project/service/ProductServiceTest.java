@@ -2,21 +2,37 @@ package com.management.project.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import com.management.project.controller.ApiExceptionHandler;
 import com.management.project.entity.ProductInformation;
 import com.management.project.exception.BadRequest;
+import com.management.project.exception.ServiceUnavailable;
 import com.management.project.repository.ProductRepository;
+import com.management.project.search.PriceIndex;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class ProductServiceTest {
 
@@ -65,7 +81,7 @@ public class ProductServiceTest {
     }
 
     @Test
-    void testAddProduct() throws BadRequest {
+    void testAddProduct() throws Exception {
         // Arrange
         ProductInformation product = new ProductInformation("1", "Product 1", "Description 1", 100.0);
         when(productRepository.save(any(ProductInformation.class))).thenReturn(product);
@@ -92,6 +108,31 @@ public class ProductServiceTest {
         assertEquals("Failed to add product: Database error", exception.getMessage());
     }
 
+    @Test
+    void testAddProduct_WriteBehindQueueFullOrTimeoutIsServiceUnavailable() throws Exception {
+        // Arrange
+        ProductInformation product = new ProductInformation("1", "Product 1", "Description 1", 100.0);
+        ProductWriteBehind writeBehind = mock(ProductWriteBehind.class);
+        when(writeBehind.insert(any(ProductInformation.class)))
+                .thenThrow(new ServiceUnavailable("Too many products are waiting to be written, please retry later"))
+                .thenThrow(new ServiceUnavailable("The product could not be written in time, please retry later"));
+        ReflectionTestUtils.setField(productService, "writeBehind", writeBehind);
+
+        // Act
+        ServiceUnavailable queueFull = assertThrows(ServiceUnavailable.class, () -> productService.addProduct(product));
+        ServiceUnavailable timedOut = assertThrows(ServiceUnavailable.class, () -> productService.addProduct(product));
+
+        // Assert
+        for (ServiceUnavailable e : List.of(queueFull, timedOut)) {
+            ResponseEntity<?> response = new ApiExceptionHandler().serviceUnavailable(e);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        assertTrue(queueFull.getMessage().startsWith("Too many products"));
+        assertTrue(timedOut.getMessage().contains("in time"));
+        verify(productRepository, never()).save(any(ProductInformation.class));
+    }
+
     @Test
     void testUpdateProduct() throws BadRequest {
         // Arrange
@@ -200,6 +241,23 @@ public class ProductServiceTest {
         assertEquals("Failed to search product by name: Database error", exception.getMessage());
     }
 
+    @Test
+    void testSearchByName_PagedTrimsTheNameLikeTheUnpagedSearch() throws BadRequest {
+        // Arrange
+        Pageable page = PageRequest.of(0, 10, Sort.by("price"));
+        List<ProductInformation> products = Arrays.asList(
+                new ProductInformation("1", "Product 1", "Description 1", 100.0)
+        );
+        when(productRepository.findByNameIgnoreCaseContaining("Product", page)).thenReturn(products);
+
+        // Act
+        List<ProductInformation> result = productService.searchByName("  Product ", page);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(productRepository, times(1)).findByNameIgnoreCaseContaining("Product", page);
+    }
+
     @Test
     void testSearchByPriceRange() throws BadRequest {
         // Arrange
@@ -266,5 +324,62 @@ public class ProductServiceTest {
         assertEquals("Failed to search product by name and price range: Database error", exception.getMessage());
     }
 
+    @Test
+    void testSearchByPriceRange_PriceIndexExcludesBoundsLikeTheRepository() throws BadRequest {
+        // Arrange
+        List<ProductInformation> products = Arrays.asList(
+                new ProductInformation("1", "Product 1", "Description 1", 50.0),
+                new ProductInformation("2", "Product 2", "Description 2", 100.0),
+                new ProductInformation("3", "Product 3", "Description 3", 150.0)
+        );
+        PriceIndex priceIndex = new PriceIndex();
+        products.forEach(product -> priceIndex.productSaved(null, product));
+        priceIndex.loaded();
+        ReflectionTestUtils.setField(productService, "priceIndex", priceIndex);
+        when(productRepository.findAllById(List.of("2"))).thenReturn(List.of(products.get(1)));
+        Pageable page = PageRequest.of(0, 10, Sort.by("price"));
+
+        // Act
+        List<ProductInformation> result = productService.searchByPriceRange(50.0, 150.0, page);
+
+        // Assert
+        assertEquals(List.of(products.get(1)), result);
+        verify(productRepository, never()).findByPriceBetween(anyDouble(), anyDouble(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetProductById_ReadAfterWriteDoesNotJoinEarlierRead() throws Exception {
+        // Arrange
+        ProductInformation before = new ProductInformation("1", "Product 1", "Description 1", 100.0);
+        ProductInformation after = new ProductInformation("1", "Product 1", "Description 1", 120.0);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById("1")).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return Optional.of(before);
+        }).thenReturn(Optional.of(after));
+        when(productRepository.save(any(ProductInformation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<Optional<ProductInformation>> earlier = executor.submit(() -> productService.getProductById("1"));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            productService.addProduct(new ProductInformation("2", "Product 2", "Description 2", 200.0));
+            Optional<ProductInformation> later = productService.getProductById("1");
+            release.countDown();
+
+            // Assert
+            assertEquals(120.0, later.get().getPrice());
+            assertEquals(100.0, earlier.get(5, TimeUnit.SECONDS).get().getPrice());
+            assertEquals(0, productService.productLoads().coalesced());
+            verify(productRepository, times(2)).findById("1");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
   
 }
@@ -0,0 +1,166 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.management.project.config.CompactStorageCodec;
+import com.management.project.entity.ProductInformation;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Runs the migration against a map standing in for the collection. Bulk writes
+ * are unordered, so every write is attempted and duplicate keys are reported
+ * together at the end, as Mongo does.
+ */
+public class ProductStorageMigrationTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+
+    private final Map<Object, Document> stored = new LinkedHashMap<>();
+
+    private final List<Integer> batches = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(mongoTemplate.getCollectionName(ProductInformation.class)).thenReturn("product_information");
+        when(mongoTemplate.getCollection("product_information")).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenAnswer(invocation -> {
+            FindIterable<Document> found = mock(FindIterable.class, RETURNS_SELF);
+            int[] limit = { Integer.MAX_VALUE };
+            when(found.limit(anyInt())).thenAnswer(limited -> {
+                limit[0] = limited.getArgument(0);
+                return found;
+            });
+            when(found.into(anyList())).thenAnswer(into -> {
+                List<Document> target = into.getArgument(0);
+                for (Document document : stored.values()) {
+                    if (target.size() < limit[0] && !document.containsKey(CompactStorageCodec.PRICE)) {
+                        target.add(document);
+                    }
+                }
+                return target;
+            });
+            return found;
+        });
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            List<WriteModel<Document>> writes = invocation.getArgument(0);
+            batches.add(writes.size());
+            List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < writes.size(); i++) {
+                WriteModel<Document> write = writes.get(i);
+                if (write instanceof InsertOneModel<Document> insert) {
+                    Document document = insert.getDocument();
+                    if (stored.putIfAbsent(document.get("_id"), document) != null) {
+                        errors.add(new BulkWriteError(11000, "duplicate key", new BsonDocument(), i));
+                    }
+                } else if (write instanceof DeleteOneModel<Document> delete) {
+                    stored.remove(id(delete.getFilter()));
+                } else if (write instanceof ReplaceOneModel<Document> replace) {
+                    stored.put(id(replace.getFilter()), replace.getReplacement());
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(),
+                        Set.of());
+            }
+            return BulkWriteResult.unacknowledged();
+        });
+    }
+
+    @Test
+    void everyLegacyDocumentIsRewrittenInBatches() {
+        String uuid = UUID.randomUUID().toString();
+        legacy(uuid, 19.99);
+        for (int i = 0; i < 4; i++) {
+            legacy("product-" + i, 10 + i);
+        }
+
+        new ProductStorageMigration(mongoTemplate, 2).run(null);
+
+        assertEquals(5, stored.size());
+        Document compact = stored.get(CompactStorageCodec.encodeId(uuid));
+        assertEquals(1999L, compact.get(CompactStorageCodec.PRICE));
+        assertEquals("Product " + uuid, compact.get(CompactStorageCodec.NAME));
+        assertEquals("acme", compact.get(CompactStorageCodec.VENDOR));
+        assertFalse(compact.containsKey("price"));
+        assertInstanceOf(Binary.class, compact.get("_id"));
+        assertEquals(1300L, stored.get("product-3").get(CompactStorageCodec.PRICE));
+        assertEquals(3, batches.size());
+    }
+
+    @Test
+    void rerunAfterAnInterruptedBatchRemovesTheLeftoverLegacyDocument() {
+        String uuid = UUID.randomUUID().toString();
+        legacy(uuid, 19.99);
+        legacy("product-1", 5);
+        // the earlier run inserted the compact copy but died before deleting the legacy document
+        Document copy = new Document("_id", CompactStorageCodec.encodeId(uuid))
+                .append(CompactStorageCodec.NAME, "Product " + uuid)
+                .append(CompactStorageCodec.PRICE, 1999L);
+        stored.put(copy.get("_id"), copy);
+
+        new ProductStorageMigration(mongoTemplate, 10).run(null);
+
+        assertEquals(2, stored.size());
+        assertFalse(stored.containsKey(uuid));
+        assertSame(copy, stored.get(copy.get("_id")));
+        assertEquals(500L, stored.get("product-1").get(CompactStorageCodec.PRICE));
+    }
+
+    @Test
+    void otherWriteErrorsStopTheMigration() {
+        legacy("product-1", 5);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(121, "document failed validation", new BsonDocument(), 0)), null,
+                new ServerAddress(), Set.of()));
+
+        assertThrows(MongoBulkWriteException.class, () -> new ProductStorageMigration(mongoTemplate, 10).run(null));
+    }
+
+    private void legacy(String id, double price) {
+        stored.put(id, new Document("_id", id)
+                .append("name", "Product " + id)
+                .append("description", "Description")
+                .append("price", price)
+                .append("vendorId", "acme"));
+    }
+
+    private static Object id(Bson filter) {
+        BsonDocument document = filter.toBsonDocument();
+        return document.isBinary("_id") ? new Binary(document.getBinary("_id").getType(),
+                document.getBinary("_id").getData()) : document.getString("_id").getValue();
+    }
+}
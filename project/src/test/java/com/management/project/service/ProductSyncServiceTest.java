@@ -0,0 +1,180 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import com.management.project.dto.ProductChangeSet;
+import com.management.project.entity.ProductInformation;
+import com.management.project.entity.ProductTombstone;
+import com.management.project.exception.BadRequest;
+import com.management.project.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Pages through a stand-in catalog. The repository and template answer the
+ * range scans from in-memory lists, using the bounds the service passed for
+ * products also for tombstones.
+ */
+public class ProductSyncServiceTest {
+
+    private static final long LAG = 2_000;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final ProductSyncService syncService = new ProductSyncService(productRepository, mongoTemplate, LAG);
+
+    private final List<ProductInformation> products = new ArrayList<>();
+
+    private final List<ProductTombstone> tombstones = new ArrayList<>();
+
+    private final long base = System.currentTimeMillis() - 60_000;
+
+    private Date after;
+
+    private String afterId;
+
+    private Date until;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findModifiedAfter(any(Date.class), anyString(), any(Date.class), anyInt()))
+                .thenAnswer(invocation -> {
+                    after = invocation.getArgument(0);
+                    afterId = invocation.getArgument(1);
+                    until = invocation.getArgument(2);
+                    return products.stream()
+                            .filter(product -> inRange(product.getLastModified(), product.getId()))
+                            .sorted(Comparator.comparing(ProductInformation::getLastModified)
+                                    .thenComparing(ProductInformation::getId))
+                            .limit(invocation.<Integer>getArgument(3))
+                            .toList();
+                });
+        when(mongoTemplate.find(any(Query.class), eq(ProductTombstone.class))).thenAnswer(invocation -> tombstones
+                .stream()
+                .filter(tombstone -> inRange(tombstone.getDeletedAt(), tombstone.getId()))
+                .sorted(Comparator.comparing(ProductTombstone::getDeletedAt).thenComparing(ProductTombstone::getId))
+                .limit(invocation.<Query>getArgument(0).getLimit())
+                .toList());
+    }
+
+    @Test
+    void mergesUpdatesAndDeletesInWatermarkOrder() throws BadRequest {
+        product("b", 10);
+        deleted("a", 10);
+        deleted("c", 10);
+        product("d", 5);
+        product("e", 20);
+        deleted("f", 15);
+
+        List<String> order = new ArrayList<>();
+        String watermark = null;
+        ProductChangeSet changes;
+        do {
+            changes = syncService.changesSince(watermark, 1);
+            assertEquals(1, changes.getUpdated().size() + changes.getDeleted().size());
+            changes.getUpdated().forEach(product -> order.add(product.getId()));
+            order.addAll(changes.getDeleted());
+            watermark = changes.getWatermark();
+        } while (changes.isHasMore());
+
+        assertEquals(List.of("d", "a", "b", "c", "f", "e"), order);
+        assertEquals((base + 20) + ":e", watermark);
+    }
+
+    @Test
+    void pagesAcrossTiesWithoutSkippingOrRepeating() throws BadRequest {
+        for (int i = 0; i < 10; i++) {
+            product("p" + i, 100);
+            deleted("t" + i, 100);
+        }
+        product("later", 200);
+
+        List<String> seen = new ArrayList<>();
+        String watermark = null;
+        ProductChangeSet changes;
+        int pages = 0;
+        do {
+            changes = syncService.changesSince(watermark, 3);
+            changes.getUpdated().forEach(product -> seen.add(product.getId()));
+            seen.addAll(changes.getDeleted());
+            watermark = changes.getWatermark();
+            pages++;
+        } while (changes.isHasMore());
+
+        assertEquals(7, pages);
+        assertEquals(21, seen.size());
+        assertEquals(21, seen.stream().distinct().count());
+        assertTrue(seen.contains("later"));
+    }
+
+    @Test
+    void latestChangeOfAnIdWins() throws BadRequest {
+        product("a", 10);
+        deleted("a", 20);
+        product("b", 30);
+
+        ProductChangeSet changes = syncService.changesSince(null, 10);
+
+        assertEquals(List.of("b"), changes.getUpdated().stream().map(ProductInformation::getId).toList());
+        assertEquals(List.of("a"), changes.getDeleted());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void recentChangesAreHeldBackUntilTheLagPasses() throws BadRequest {
+        product("old", 10);
+        String watermark = syncService.changesSince(null, 10).getWatermark();
+        ProductInformation recent = product("recent", 0);
+        recent.setLastModified(new Date(System.currentTimeMillis()));
+        deleted("gone", 0).setDeletedAt(new Date(System.currentTimeMillis()));
+
+        ProductChangeSet changes = syncService.changesSince(watermark, 10);
+
+        assertEquals(List.of(), changes.getUpdated());
+        assertEquals(List.of(), changes.getDeleted());
+        assertEquals(watermark, changes.getWatermark());
+        assertFalse(changes.isHasMore());
+        assertTrue(until.getTime() <= System.currentTimeMillis() - LAG);
+    }
+
+    @Test
+    void rejectsInvalidAndExpiredWatermarks() {
+        assertThrows(BadRequest.class, () -> syncService.changesSince("yesterday", 10));
+        long expired = System.currentTimeMillis() - ProductTombstone.RETENTION_MILLIS - 60_000;
+        assertThrows(BadRequest.class, () -> syncService.changesSince(expired + ":a", 10));
+        assertThrows(BadRequest.class, () -> syncService.changesSince(null, 0));
+    }
+
+    private boolean inRange(Date time, String id) {
+        int byTime = time.compareTo(after);
+        return (byTime > 0 || (byTime == 0 && id.compareTo(afterId) > 0)) && !time.after(until);
+    }
+
+    private ProductInformation product(String id, long offset) {
+        ProductInformation product = new ProductInformation(id, "Product " + id, "Description", 10.0);
+        product.setLastModified(new Date(base + offset));
+        products.add(product);
+        return product;
+    }
+
+    private ProductTombstone deleted(String id, long offset) {
+        ProductTombstone tombstone = new ProductTombstone(id, new Date(base + offset));
+        tombstones.add(tombstone);
+        return tombstone;
+    }
+}
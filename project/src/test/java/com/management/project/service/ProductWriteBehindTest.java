@@ -0,0 +1,179 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.management.project.entity.ProductInformation;
+import com.management.project.exception.ServiceUnavailable;
+import com.management.project.repository.ProductRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProductWriteBehindTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private ProductWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForTheDelay() throws Exception {
+        writeBehind = writeBehind(3, 60_000, 1);
+        acceptAll();
+
+        List<Future<ProductInformation>> adds = insert(6);
+
+        for (Future<ProductInformation> add : adds) {
+            assertNotNull(add.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(3, 3), batches);
+    }
+
+    @Test
+    void partialBatchIsWrittenOnceTheDelayPasses() throws Exception {
+        writeBehind = writeBehind(100, 20, 1);
+        acceptAll();
+
+        List<Future<ProductInformation>> adds = insert(2);
+
+        for (Future<ProductInformation> add : adds) {
+            assertNotNull(add.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, batches.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void eachCallerGetsTheOutcomeOfItsOwnProduct() throws Exception {
+        writeBehind = writeBehind(3, 60_000, 1);
+        when(productRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<ProductInformation> products = invocation.getArgument(0);
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < products.size(); i++) {
+                if (products.get(i).getId().equals("1")) {
+                    errors.put(i, "Duplicate id 1");
+                }
+            }
+            return errors;
+        });
+
+        List<Future<ProductInformation>> adds = insert(3);
+
+        assertEquals("0", adds.get(0).get(5, TimeUnit.SECONDS).getId());
+        ExecutionException duplicate = assertThrows(ExecutionException.class,
+                () -> adds.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals("Duplicate id 1", duplicate.getCause().getMessage());
+        assertEquals("2", adds.get(2).get(5, TimeUnit.SECONDS).getId());
+    }
+
+    @Test
+    void failedBatchFailsEveryCaller() throws Exception {
+        writeBehind = writeBehind(3, 60_000, 1);
+        when(productRepository.insertAll(anyList())).thenThrow(new IllegalStateException("Connection refused"));
+
+        for (Future<ProductInformation> add : insert(3)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> add.get(5, TimeUnit.SECONDS));
+            assertEquals("Connection refused", failure.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void callerStopsWaitingAfterTheWriteTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        writeBehind = new ProductWriteBehind(productRepository, new SimpleMeterRegistry(), 100, 1, 1, 1000, 100,
+                1000, 1);
+        when(productRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return Map.of();
+        });
+
+        try {
+            ServiceUnavailable timeout = assertThrows(ServiceUnavailable.class, () -> writeBehind.insert(product(0)));
+            assertTrue(timeout.getMessage().contains("may have been added"), timeout.getMessage());
+            ServiceUnavailable queued = assertThrows(ServiceUnavailable.class, () -> writeBehind.insert(product(1)));
+            assertTrue(queued.getMessage().contains("could not be written"), queued.getMessage());
+        } finally {
+            release.countDown();
+        }
+        verify(productRepository, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    void shutdownFailsProductsStillQueued() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        writeBehind = new ProductWriteBehind(productRepository, new SimpleMeterRegistry(), 100, 1, 1, 1000, 60_000,
+                100, 1);
+        when(productRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            // a write that only ends when the flusher is interrupted
+            new CountDownLatch(1).await();
+            return Map.of();
+        });
+        Future<ProductInformation> inFlight = callers.submit(() -> writeBehind.insert(product(0)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        List<Future<ProductInformation>> queued = insert(2);
+        Thread.sleep(50);
+
+        writeBehind.shutdown();
+
+        ExecutionException interrupted = assertThrows(ExecutionException.class,
+                () -> inFlight.get(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.getCause() instanceof InterruptedException);
+        for (Future<ProductInformation> add : queued) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> add.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof ServiceUnavailable);
+        }
+        assertThrows(ServiceUnavailable.class, () -> writeBehind.insert(product(3)));
+    }
+
+    private ProductWriteBehind writeBehind(int batchSize, long maxDelayMillis, int flushers) {
+        return new ProductWriteBehind(productRepository, new SimpleMeterRegistry(), 100, batchSize, maxDelayMillis,
+                1000, 10_000, 1000, flushers);
+    }
+
+    private void acceptAll() {
+        when(productRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            batches.add(invocation.<List<?>>getArgument(0).size());
+            return Map.of();
+        });
+    }
+
+    // submitted one at a time, so the products are queued in order
+    private List<Future<ProductInformation>> insert(int count) throws InterruptedException {
+        List<Future<ProductInformation>> adds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProductInformation product = product(i);
+            adds.add(callers.submit(() -> writeBehind.insert(product)));
+            Thread.sleep(5);
+        }
+        return adds;
+    }
+
+    private static ProductInformation product(int id) {
+        return new ProductInformation(Integer.toString(id), "Product " + id, "Description", 10.0);
+    }
+}
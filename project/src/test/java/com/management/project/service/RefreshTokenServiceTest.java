@@ -0,0 +1,145 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.management.project.entity.RefreshTokenFamily;
+import com.management.project.repository.RefreshTokenFamilyRepository;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Backs the family compare-and-set with a map standing in for the collection.
+ */
+public class RefreshTokenServiceTest {
+
+    private final RefreshTokenFamilyRepository familyRepository = mock(RefreshTokenFamilyRepository.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final JwtService jwtService = new JwtService();
+
+    private final Map<String, RefreshTokenFamily> families = new ConcurrentHashMap<>();
+
+    private final UserDetails user = User.withUsername("alice@example.com").password("secret").roles("USER").build();
+
+    private RefreshTokenService refreshTokens;
+
+    @BeforeEach
+    void setUp() {
+        when(familyRepository.insert(any(RefreshTokenFamily.class))).thenAnswer(invocation -> {
+            RefreshTokenFamily family = invocation.getArgument(0);
+            families.put(family.getId(), family);
+            return family;
+        });
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(RefreshTokenFamily.class))).thenAnswer(invocation -> {
+                    Document filter = invocation.<Query>getArgument(0).getQueryObject();
+                    Document set = (Document) invocation.<UpdateDefinition>getArgument(1).getUpdateObject().get("$set");
+                    RefreshTokenFamily family = families.get(filter.getString("_id"));
+                    Date notExpiredAt = ((Document) filter.get("expiresAt")).getDate("$gt");
+                    if (family == null || family.isRevoked()
+                            || !family.getCurrentTokenId().equals(filter.getString("currentTokenId"))
+                            || !family.getExpiresAt().after(notExpiredAt)) {
+                        return null;
+                    }
+                    family.setCurrentTokenId(set.getString("currentTokenId"));
+                    family.setExpiresAt(set.getDate("expiresAt"));
+                    return family;
+                });
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(RefreshTokenFamily.class)))
+                .thenAnswer(invocation -> {
+                    RefreshTokenFamily family = families.get(
+                            invocation.<Query>getArgument(0).getQueryObject().getString("_id"));
+                    if (family != null) {
+                        family.setRevoked(true);
+                    }
+                    return null;
+                });
+        refreshTokens = new RefreshTokenService(familyRepository, mongoTemplate, jwtService, 100);
+    }
+
+    @Test
+    void rotationReplacesTheTokenWithinTheFamily() {
+        Claims first = jwtService.extractAllClaims(refreshTokens.issue(user));
+
+        Claims second = jwtService.extractAllClaims(refreshTokens.rotate(first, user));
+        Claims third = jwtService.extractAllClaims(refreshTokens.rotate(second, user));
+
+        String familyId = first.get(RefreshTokenService.FAMILY_CLAIM, String.class);
+        assertEquals(familyId, third.get(RefreshTokenService.FAMILY_CLAIM, String.class));
+        assertTrue(JwtService.isRefreshToken(third));
+        assertEquals(third.getId(), families.get(familyId).getCurrentTokenId());
+        assertFalse(families.get(familyId).isRevoked());
+    }
+
+    @Test
+    void rotationExtendsTheFamily() {
+        Claims first = jwtService.extractAllClaims(refreshTokens.issue(user));
+        RefreshTokenFamily family = families.get(first.get(RefreshTokenService.FAMILY_CLAIM, String.class));
+        family.setExpiresAt(new Date(System.currentTimeMillis() + 60_000));
+
+        refreshTokens.rotate(first, user);
+
+        assertTrue(family.getExpiresAt().getTime()
+                >= System.currentTimeMillis() + JwtService.REFRESH_TOKEN_VALIDITY_MILLIS - 60_000);
+    }
+
+    @Test
+    void reusedTokenRevokesTheFamily() {
+        Claims first = jwtService.extractAllClaims(refreshTokens.issue(user));
+        Claims second = jwtService.extractAllClaims(refreshTokens.rotate(first, user));
+
+        assertThrows(UsernameNotFoundException.class, () -> refreshTokens.rotate(first, user));
+
+        assertTrue(families.get(first.get(RefreshTokenService.FAMILY_CLAIM, String.class)).isRevoked());
+        assertThrows(UsernameNotFoundException.class, () -> refreshTokens.rotate(second, user));
+    }
+
+    @Test
+    void expiredFamilyCannotBeRotated() {
+        Claims first = jwtService.extractAllClaims(refreshTokens.issue(user));
+        RefreshTokenFamily family = families.get(first.get(RefreshTokenService.FAMILY_CLAIM, String.class));
+        // past its expiry, not yet removed by the TTL monitor
+        family.setExpiresAt(new Date(System.currentTimeMillis() - 1000));
+
+        assertThrows(UsernameNotFoundException.class, () -> refreshTokens.rotate(first, user));
+    }
+
+    @Test
+    void accessTokenCannotStartAFamily() {
+        Claims access = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+        assertThrows(UsernameNotFoundException.class, () -> refreshTokens.rotate(access, user));
+
+        assertTrue(families.isEmpty());
+        verify(familyRepository, never()).insert(any(RefreshTokenFamily.class));
+    }
+
+    @Test
+    void refreshTokenWithoutAFamilyIsRejected() {
+        Claims legacy = jwtService.extractAllClaims(jwtService.generateRefreshToken(new HashMap<>(), user));
+
+        assertThrows(UsernameNotFoundException.class, () -> refreshTokens.rotate(legacy, user));
+
+        assertTrue(families.isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import com.management.project.entity.ProductInformation;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs writes from inside loaders, which places them exactly where a
+ * concurrent write would land in the race being tested.
+ */
+public class SearchResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final SearchResultCache cache = new SearchResultCache(100, Duration.ofSeconds(5), now::get);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesCachedResultsUntilAWrite() {
+        assertEquals(1, cache.get("a", load(1)).size());
+        assertEquals(1, cache.get("a", load(2)).size());
+        assertEquals(1, cache.hits());
+
+        cache.beginWrite();
+        cache.endWrite();
+
+        assertEquals(3, cache.get("a", load(3)).size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void resultLoadedAcrossAWholeWriteIsNotCached() {
+        cache.get("a", () -> {
+            cache.beginWrite();
+            cache.endWrite();
+            return load(1).get();
+        });
+
+        assertEquals(2, cache.get("a", load(2)).size());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void resultLoadedWhileAWriteRunsIsNotCached() {
+        cache.beginWrite();
+        cache.get("a", load(1));
+        cache.get("b", () -> {
+            // the write ends before this load does, but it started first
+            cache.endWrite();
+            return load(1).get();
+        });
+
+        assertEquals(2, cache.get("a", load(2)).size());
+        assertEquals(2, cache.get("b", load(2)).size());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void resultLoadedBeforeAWriteBeginsIsNotServedAfterIt() {
+        cache.get("a", () -> {
+            List<ProductInformation> loaded = load(1).get();
+            cache.beginWrite();
+            return loaded;
+        });
+        cache.endWrite();
+
+        assertEquals(2, cache.get("a", load(2)).size());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        cache.get("a", load(1));
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(1, cache.get("a", load(2)).size());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(2, cache.get("a", load(2)).size());
+        assertEquals(2, cache.get("a", load(3)).size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedResultsBeyondTheWeight() {
+        cache.get("a", load(20));
+        cache.get("b", load(20));
+        cache.get("c", load(20));
+        cache.get("a", load(20));
+        cache.get("d", load(20));
+        cache.get("e", load(20));
+
+        assertTrue(cache.weight() <= 100);
+        int before = loads.get();
+        cache.get("a", load(20));
+        assertEquals(before, loads.get());
+        cache.get("b", load(20));
+        assertEquals(before + 1, loads.get());
+    }
+
+    @Test
+    void resultsHeavierThanAQuarterOfTheWeightAreNotCached() {
+        cache.get("a", load(30));
+        cache.get("a", load(30));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.weight());
+    }
+
+    private Supplier<List<ProductInformation>> load(int size) {
+        return () -> {
+            loads.incrementAndGet();
+            return products(size);
+        };
+    }
+
+    private static List<ProductInformation> products(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> new ProductInformation(Integer.toString(i), "Product " + i, "Description", 10.0))
+                .toList();
+    }
+}
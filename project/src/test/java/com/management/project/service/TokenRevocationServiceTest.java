@@ -0,0 +1,137 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.management.project.entity.RevokedToken;
+import com.management.project.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Backs the revocation store with a map.
+ */
+public class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    private final Map<String, RevokedToken> store = new ConcurrentHashMap<>();
+
+    private TokenRevocationService revocations;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            RevokedToken revoked = invocation.getArgument(0);
+            store.put(revoked.getId(), revoked);
+            return revoked;
+        });
+        when(repository.existsById(anyString())).thenAnswer(invocation -> store.containsKey(invocation.getArgument(0)));
+        when(repository.count()).thenAnswer(invocation -> (long) store.size());
+        when(repository.streamAllBy()).thenAnswer(invocation -> store.values().stream().toList().stream());
+        revocations = new TokenRevocationService(repository, 1000);
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        Claims revoked = claims("alice", "1", 0);
+        Claims other = claims("alice", "2", 0);
+
+        revocations.revokeToken(revoked);
+
+        assertTrue(revocations.isRevoked(revoked));
+        assertFalse(revocations.isRevoked(other));
+    }
+
+    @Test
+    void userRevocationRejectsOnlyTokensIssuedBeforeIt() {
+        Claims before = claims("alice", "1", 0);
+        Claims after = claims("alice", "2", 10_000);
+        Claims otherUser = claims("bob", "3", 0);
+
+        revocations.revokeUser("alice", new Date(at(5_000)));
+
+        assertTrue(revocations.isRevoked(before));
+        assertFalse(revocations.isRevoked(after));
+        assertFalse(revocations.isRevoked(otherUser));
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void tokenWithoutAnIdIsRevokedByItsIssueTime() {
+        Claims legacy = claims("alice", null, 0);
+        Claims later = claims("alice", null, 5_000);
+
+        revocations.revokeToken(legacy);
+
+        assertTrue(revocations.isRevoked(legacy));
+        assertFalse(revocations.isRevoked(later));
+    }
+
+    @Test
+    void filterProbeIsConfirmedAgainstTheStore() {
+        Claims claims = claims("alice", "1", 0);
+        revocations.revokeToken(claims);
+        // expired out of the store, still set in the filter until the next rebuild
+        store.clear();
+
+        assertFalse(revocations.isRevoked(claims));
+    }
+
+    @Test
+    void rebuildPicksUpRevocationsFromOtherInstances() {
+        Claims token = claims("alice", "1", 0);
+        Claims user = claims("bob", "2", 0);
+        store.put("jti:1", new RevokedToken("jti:1", null, new Date(at(60_000))));
+        store.put("user:bob", new RevokedToken("user:bob", new Date(at(1_000)), new Date(at(60_000))));
+        assertFalse(revocations.isRevoked(token));
+        assertFalse(revocations.isRevoked(user));
+
+        revocations.rebuildFilter();
+
+        assertTrue(revocations.isRevoked(token));
+        assertTrue(revocations.isRevoked(user));
+    }
+
+    @Test
+    void revocationsMadeDuringARebuildSurviveTheSwap() {
+        Claims token = claims("alice", "1", 0);
+        Claims user = claims("bob", "2", 0);
+        store.put("jti:0", new RevokedToken("jti:0", null, new Date(at(60_000))));
+        // revoke while the rebuild is reading the store, after the stream was opened
+        when(repository.streamAllBy()).thenAnswer(invocation -> store.values().stream().toList().stream()
+                .peek(revoked -> {
+                    revocations.revokeToken(token);
+                    revocations.revokeUser("bob", new Date(at(1_000)));
+                }));
+
+        revocations.rebuildFilter();
+
+        assertTrue(revocations.isRevoked(token));
+        assertTrue(revocations.isRevoked(user));
+        assertTrue(revocations.isRevoked(claims("carol", "0", 0)));
+    }
+
+    private static Claims claims(String subject, String id, long issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(subject);
+        claims.setId(id);
+        claims.setIssuedAt(new Date(at(issuedAt)));
+        claims.setExpiration(new Date(at(issuedAt + 60_000)));
+        return claims;
+    }
+
+    private static long at(long millis) {
+        return 1_767_225_600_000L + millis;
+    }
+}
@@ -0,0 +1,135 @@
+package com.management.project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import com.management.project.config.ProductVendorIndexes;
+import com.management.project.entity.ProductInformation;
+import com.mongodb.ConnectionString;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Lists one vendor's products while the rest of the catalog grows. With the
+ * vendor-led index the latency and the documents examined stay flat, a
+ * collection scan of the same query grows with the catalog. Needs a MongoDB at
+ * {@code -Dbenchmark.mongodb.uri} (default localhost) and is skipped without
+ * one. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class VendorListingBenchmark {
+
+    private static final String VENDOR = "small-vendor@example.com";
+    private static final int VENDOR_PRODUCTS = 500;
+    private static final int[] CATALOG_SIZES = { 10_000, 100_000, 500_000 };
+    private static final int OTHER_VENDORS = 200;
+    private static final int LISTINGS = 50;
+
+    private MongoClient client;
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        String uri = System.getProperty("benchmark.mongodb.uri", "mongodb://localhost:27017");
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+                .build());
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+        } catch (RuntimeException e) {
+            client.close();
+            assumeTrue(false, "No MongoDB at " + uri);
+        }
+        mongoTemplate = new MongoTemplate(client, "vendor_listing_benchmark");
+        mongoTemplate.dropCollection(ProductInformation.class);
+        new ProductVendorIndexes(mongoTemplate).ensureIndexes();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mongoTemplate != null) {
+            mongoTemplate.getDb().drop();
+            client.close();
+        }
+    }
+
+    @Test
+    void vendorListingFollowsVendorCatalogSize() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(
+                mongoTemplate.getCollectionName(ProductInformation.class));
+        Bson byVendor = Filters.eq("vendorId", VENDOR);
+        insert(VENDOR_PRODUCTS, i -> VENDOR);
+
+        int catalog = VENDOR_PRODUCTS;
+        List<Long> indexedExamined = new ArrayList<>();
+        for (int size : CATALOG_SIZES) {
+            insert(size - catalog, i -> "vendor-" + (i % OTHER_VENDORS) + "@example.com");
+            catalog = size;
+
+            double indexedMillis = listing(() -> collection.find(byVendor).into(new ArrayList<>()));
+            double scanMillis = listing(() -> collection.find(byVendor).hint(new Document("$natural", 1))
+                    .into(new ArrayList<>()));
+            long examined = examined(collection.find(byVendor).explain(ExplainVerbosity.EXECUTION_STATS));
+            long scanExamined = examined(collection.find(byVendor).hint(new Document("$natural", 1))
+                    .explain(ExplainVerbosity.EXECUTION_STATS));
+            indexedExamined.add(examined);
+
+            System.out.printf("catalog %,9d: vendor index %7.2f ms (%,d docs examined), scan %8.2f ms (%,d docs)%n",
+                    size, indexedMillis, examined, scanMillis, scanExamined);
+            assertEquals(VENDOR_PRODUCTS, collection.countDocuments(byVendor));
+        }
+        // the index only touches the vendor's own documents, whatever the catalog size
+        for (long examined : indexedExamined) {
+            assertEquals(VENDOR_PRODUCTS, examined);
+        }
+    }
+
+    private void insert(int count, IntFunction<String> vendor) {
+        List<ProductInformation> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            ProductInformation product = new ProductInformation(UUID.randomUUID().toString(), "Product " + i,
+                    "Description " + i, 1 + i % 1000);
+            product.setVendorId(vendor.apply(i));
+            batch.add(product);
+            if (batch.size() == 10_000 || i == count - 1) {
+                mongoTemplate.insert(batch, ProductInformation.class);
+                batch.clear();
+            }
+        }
+    }
+
+    private static double listing(Runnable list) {
+        for (int i = 0; i < 5; i++) {
+            list.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LISTINGS; i++) {
+            list.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / LISTINGS;
+    }
+
+    private static long examined(Document explain) {
+        return ((Number) explain.get("executionStats", Document.class).get("totalDocsExamined")).longValue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.management.project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti:" + i), "jti:" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti:" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("jti:1"));
+        assertTrue(filter.sizeInBytes() >= 8);
+    }
+
+    @Test
+    void sizeGrowsWithTheEntriesAndTheTargetRate() {
+        // about 9.6 bits per entry at 1%
+        long size = new BloomFilter(100_000, 0.01).sizeInBytes();
+        assertTrue(size >= 100_000 * 9.58 / 8 && size <= 100_000 * 9.6 / 8 + 8, "size: " + size);
+        assertTrue(new BloomFilter(100_000, 0.001).sizeInBytes() > size);
+        assertTrue(new BloomFilter(10_000, 0.01).sizeInBytes() < size);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                done.add(writers.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.put(thread + ":" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain(t + ":" + i), t + ":" + i);
+            }
+        }
+    }
+}
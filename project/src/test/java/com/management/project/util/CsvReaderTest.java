@@ -0,0 +1,104 @@
+package com.management.project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTest {
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        CsvReader csv = reader("id,name,price\n1,Lamp,9.5\n2,,3\n");
+
+        assertEquals(List.of("id", "name", "price"), csv.next());
+        assertEquals(List.of("1", "Lamp", "9.5"), csv.next());
+        assertEquals(List.of("2", "", "3"), csv.next());
+        assertNull(csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = reader("\"Lamp, oak\",\"12\"\" tall\",\"two\nlines\",\"\"\nnext,row,x,y");
+
+        assertEquals(List.of("Lamp, oak", "12\" tall", "two\nlines", ""), csv.next());
+        assertEquals(1, csv.recordLine());
+        assertEquals(List.of("next", "row", "x", "y"), csv.next());
+        assertEquals(3, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void handlesCrlfAndLoneCarriageReturns() throws IOException {
+        CsvReader csv = reader("a,b\r\n\"c\r\nd\",e\rf,g\r\n");
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c\r\nd", "e"), csv.next());
+        assertEquals(2, csv.recordLine());
+        assertEquals(List.of("f", "g"), csv.next());
+        assertEquals(4, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void skipsBlankLinesButCountsThem() throws IOException {
+        CsvReader csv = reader("\n\na\n\n\nb");
+
+        assertEquals(List.of("a"), csv.next());
+        assertEquals(3, csv.recordLine());
+        assertEquals(List.of("b"), csv.next());
+        assertEquals(6, csv.recordLine());
+    }
+
+    @Test
+    void lastRecordWithoutLineBreak() throws IOException {
+        CsvReader csv = reader("a,b");
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() throws IOException {
+        CsvReader csv = reader("ok\n\"never closed,\nmore");
+
+        assertEquals(List.of("ok"), csv.next());
+        IOException error = assertThrows(IOException.class, csv::next);
+        assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+    }
+
+    @Test
+    void rejectsRecordsLongerThanTheLimit() throws IOException {
+        CsvReader csv = reader("short\n" + "x".repeat(100) + "\n");
+
+        assertEquals(List.of("short"), csv.next());
+        assertThrows(IOException.class, csv::next);
+    }
+
+    @Test
+    void readsManyRecordsOneAtATime() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            input.append(i).append(",\"name ").append(i).append("\"\n");
+        }
+        CsvReader csv = reader(input.toString());
+
+        List<String> record;
+        List<String> ids = new ArrayList<>();
+        while ((record = csv.next()) != null) {
+            assertEquals("name " + record.get(0), record.get(1));
+            ids.add(record.get(0));
+        }
+        assertEquals(10_000, ids.size());
+        assertEquals(10_000, csv.recordLine());
+    }
+
+    private static CsvReader reader(String input) {
+        return new CsvReader(new StringReader(input), 64);
+    }
+}
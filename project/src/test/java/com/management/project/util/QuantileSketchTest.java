@@ -0,0 +1,113 @@
+package com.management.project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import org.junit.jupiter.api.Test;
+
+public class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    private static final double[] QUANTILES = { 0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1 };
+
+    @Test
+    void estimatesAreWithinTheRelativeAccuracy() {
+        Random random = new Random(5);
+        assertAccurate(() -> 1 + random.nextDouble() * 999);
+        assertAccurate(() -> Math.exp(random.nextGaussian() * 2 + 3));
+        assertAccurate(() -> -Math.log(1 - random.nextDouble()) * 50);
+        // prices spanning cents to millions
+        assertAccurate(() -> Math.round(Math.pow(10, random.nextDouble() * 8)) / 100.0);
+    }
+
+    @Test
+    void removedValuesNoLongerCount() {
+        Random random = new Random(9);
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        QuantileSketch kept = new QuantileSketch(ACCURACY);
+        double[] values = new double[5_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + random.nextDouble() * 100;
+            sketch.add(values[i]);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i % 3 == 0) {
+                sketch.remove(values[i]);
+            } else {
+                kept.add(values[i]);
+            }
+        }
+
+        assertEquals(kept.count(), sketch.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(kept.quantile(quantile), sketch.quantile(quantile));
+        }
+    }
+
+    @Test
+    void removingAValueNeverAddedIsIgnored() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(10);
+
+        sketch.remove(1_000_000);
+        sketch.remove(0);
+
+        assertEquals(1, sketch.count());
+        assertEquals(10, sketch.quantile(0.5), 10 * ACCURACY);
+    }
+
+    @Test
+    void mergedSketchMatchesOneBuiltFromAllValues() {
+        Random random = new Random(3);
+        QuantileSketch all = new QuantileSketch(ACCURACY);
+        QuantileSketch low = new QuantileSketch(ACCURACY);
+        QuantileSketch high = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < 2_000; i++) {
+            double small = 0.5 + random.nextDouble();
+            double large = 1_000 + random.nextDouble() * 1_000;
+            low.add(small);
+            high.add(large);
+            all.add(small);
+            all.add(large);
+        }
+
+        low.merge(high);
+
+        assertEquals(all.count(), low.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(all.quantile(quantile), low.quantile(quantile));
+        }
+    }
+
+    @Test
+    void zeroAndEmpty() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(5);
+
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(5, sketch.quantile(1), 5 * ACCURACY);
+    }
+
+    private static void assertAccurate(DoubleSupplier distribution) {
+        double[] values = new double[20_000];
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = distribution.getAsDouble();
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double quantile : QUANTILES) {
+            double exact = values[(int) (quantile * (values.length - 1))];
+            double estimate = sketch.quantile(quantile);
+            assertEquals(exact, estimate, exact * ACCURACY * (1 + 1e-9), "quantile " + quantile);
+        }
+    }
+}
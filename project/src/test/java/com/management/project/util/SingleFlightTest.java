@@ -0,0 +1,129 @@
+package com.management.project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyShareOneCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        Future<Integer> leader = callers.submit(() -> flight.execute("a", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return 42;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(callers.submit(() -> flight.execute("a", () -> {
+                runs.incrementAndGet();
+                return -1;
+            })));
+        }
+        awaitCoalesced(8);
+        release.countDown();
+
+        assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, runs.get());
+        assertEquals(9, flight.calls());
+        assertEquals(8, flight.coalesced());
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = callers.submit(() -> flight.execute("a", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("store down");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = callers.submit(() -> flight.execute("a", () -> 1));
+        awaitCoalesced(1);
+        release.countDown();
+
+        for (Future<Integer> call : List.of(leader, follower)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+            assertEquals("store down", failure.getCause().getMessage());
+        }
+        assertEquals(1, flight.coalesced());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> slow = callers.submit(() -> flight.execute("a", () -> {
+            await(release);
+            return 1;
+        }));
+
+        assertEquals(2, flight.execute("b", () -> 2));
+        release.countDown();
+        assertEquals(1, slow.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.coalesced());
+    }
+
+    @Test
+    void nothingIsKeptAfterTheCallCompletes() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(1, flight.execute("a", runs::incrementAndGet));
+        assertEquals(2, flight.execute("a", runs::incrementAndGet));
+        assertThrows(IllegalArgumentException.class, () -> flight.execute("a", () -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(3, flight.execute("a", runs::incrementAndGet));
+        assertEquals(4, flight.calls());
+        assertEquals(0, flight.coalesced());
+    }
+
+    // a call counts as coalesced once it has found the running call, so it is sure to share its result
+    private void awaitCoalesced(long calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.coalesced() < calls) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}